@@ -0,0 +1,110 @@
+package com.rednet.sessionservice.benchmark;
+
+import com.rednet.sessionservice.config.AccessTokenSigningProperties;
+import com.rednet.sessionservice.filter.ApiTokenFilter;
+import com.rednet.sessionservice.util.impl.JwtUtilImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.io.Decoders.BASE64;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiTokenFilterBenchmark {
+    private static final String SECRET_KEY = "suF25ZudSgyzQSS9QgpaSyUt5XZZGtTayc22RlLe5IX1erTOz64mN5BarqeiPV2s";
+    private static final String COOKIE_NAME = "api-token";
+    private static final FilterChain NOOP_CHAIN = (request, response) -> { };
+
+    private ApiTokenFilter filter;
+    private Cookie[] foreignCookies;
+    private Cookie[] validCookies;
+    private Cookie[] invalidCookies;
+
+    @Setup
+    public void setup() {
+        filter = new ApiTokenFilter(
+            COOKIE_NAME,
+            new JwtUtilImpl(
+                "access", SECRET_KEY, 900000, 0,
+                "refresh", SECRET_KEY, 86400000, 0,
+                SECRET_KEY, "api", 0,
+                new AccessTokenSigningProperties(HS256, null, List.of())
+            ),
+            ObservationRegistry.NOOP
+        );
+
+        String apiToken = Jwts.builder()
+            .setIssuer("api")
+            .setSubject("gateway")
+            .claim("roles", new String[]{"ROLE_SERVICE"})
+            .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+            .signWith(Keys.hmacShaKeyFor(BASE64.decode(SECRET_KEY)), HS256)
+            .compact();
+
+        foreignCookies = new Cookie[]{new Cookie("JSESSIONID", "1"), new Cookie("locale", "en")};
+        validCookies = new Cookie[]{new Cookie("JSESSIONID", "1"), new Cookie(COOKIE_NAME, apiToken)};
+        invalidCookies = new Cookie[]{
+            new Cookie("JSESSIONID", "1"),
+            new Cookie(COOKIE_NAME, apiToken.substring(0, apiToken.length() - 2) + "xx")
+        };
+    }
+
+    @Benchmark
+    public Object filterWithoutCookies() throws Exception {
+        return filter(null);
+    }
+
+    @Benchmark
+    public Object filterWithoutApiTokenCookie() throws Exception {
+        return filter(foreignCookies);
+    }
+
+    @Benchmark
+    public Object filterWithValidApiToken() throws Exception {
+        return filter(validCookies);
+    }
+
+    @Benchmark
+    public Object filterWithInvalidApiToken() throws Exception {
+        return filter(invalidCookies);
+    }
+
+    private Object filter(Cookie[] cookies) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/sessions/by-id");
+
+        if (cookies != null) request.setCookies(cookies);
+
+        filter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        SecurityContextHolder.clearContext();
+
+        return authentication;
+    }
+}
@@ -0,0 +1,232 @@
+package com.rednet.sessionservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rednet.sessionservice.cache.NegativeSessionCache;
+import com.rednet.sessionservice.cache.impl.SessionCountCacheImpl;
+import com.rednet.sessionservice.cache.impl.SessionLivenessCacheImpl;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.exception.ErrorResponseEncoder;
+import com.rednet.sessionservice.exception.ErrorResponseMessage;
+import com.rednet.sessionservice.exception.impl.SessionNotFoundException;
+import com.rednet.sessionservice.repository.SessionRepository;
+import com.rednet.sessionservice.repository.impl.DiscardingSessionActivityRepository;
+import com.rednet.sessionservice.repository.impl.InMemoryRevocationRepository;
+import com.rednet.sessionservice.service.impl.RateLimitServiceImpl;
+import com.rednet.sessionservice.service.impl.RevocationServiceImpl;
+import com.rednet.sessionservice.service.impl.SessionActivityServiceImpl;
+import com.rednet.sessionservice.service.impl.SessionDistributionServiceImpl;
+import com.rednet.sessionservice.service.impl.SessionServiceImpl;
+import com.rednet.sessionservice.service.impl.SlidingExpiryServiceImpl;
+import com.rednet.sessionservice.util.impl.SessionPostfixGeneratorImpl;
+import com.rednet.sessionservice.util.impl.TokenIDGeneratorImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FailurePathBenchmark {
+    private static final String PATH = "/sessions/by-id";
+
+    private final String existingSessionID = "user.123456";
+    private final String missingSessionID = "user.654321";
+
+    // roughly the depth of a servlet request between the container thread and the service
+    @Param({"80"})
+    private int stackDepth;
+
+    private ObjectMapper objectMapper;
+    private ErrorResponseEncoder errorResponseEncoder;
+    private SessionServiceImpl sessionService;
+
+    @Setup
+    public void setup() {
+        Session session = new Session(
+            "user",
+            "123456",
+            Instant.now(),
+            new String[]{"USER"},
+            "a-token",
+            "r-token",
+            "100000"
+        );
+
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        errorResponseEncoder = new ErrorResponseEncoder(objectMapper);
+        sessionService = new SessionServiceImpl(
+            new SingleSessionRepository(session),
+            null,
+            new SessionPostfixGeneratorImpl(),
+            new TokenIDGeneratorImpl(),
+            null,
+            new DisabledNegativeSessionCache(),
+            new SessionLivenessCacheImpl(100000, 30000),
+            new SessionCountCacheImpl(100000, 10000),
+            new RevocationServiceImpl(
+                new InMemoryRevocationRepository(900000, 10),
+                900000, 10, 1000, 0.001, 1000, 2000, 10000, 100000, 200, 10000, new SimpleMeterRegistry()
+            ),
+            new RateLimitServiceImpl(100000, 200, 100, 10, 1, 400, 200, 20, 2, new SimpleMeterRegistry()),
+            new SessionDistributionServiceImpl(1024, 4, 100, 86400000, new SimpleMeterRegistry()),
+            new SlidingExpiryServiceImpl(null, null, 0, 60000, 1000, 86400000, 1, new SimpleMeterRegistry()),
+            new SessionActivityServiceImpl(new DiscardingSessionActivityRepository(), 16, 100000, 5000, 10000, new SimpleMeterRegistry()),
+            ObservationRegistry.NOOP
+        );
+    }
+
+    @Benchmark
+    public byte[] getSessionFound() throws Exception {
+        return objectMapper.writeValueAsBytes(getSessionAtDepth(stackDepth, existingSessionID));
+    }
+
+    @Benchmark
+    public byte[] getSessionNotFound() {
+        try {
+            return objectMapper.writeValueAsBytes(getSessionAtDepth(stackDepth, missingSessionID));
+        } catch (SessionNotFoundException e) {
+            return errorResponseEncoder.encode(NOT_FOUND, PATH, e.getMessage());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] getSessionNotFoundWithStackTrace() throws Exception {
+        try {
+            return objectMapper.writeValueAsBytes(getSessionWithStackTraceAtDepth(stackDepth, missingSessionID));
+        } catch (StackTracedSessionNotFoundException e) {
+            return objectMapper.writeValueAsBytes(new ErrorResponseMessage(
+                NOT_FOUND.name(),
+                Instant.now(),
+                PATH,
+                e.getMessage()
+            ));
+        }
+    }
+
+    private Session getSessionAtDepth(int depth, String sessionID) {
+        return depth == 0 ? sessionService.getSession(sessionID) : getSessionAtDepth(depth - 1, sessionID);
+    }
+
+    private Session getSessionWithStackTraceAtDepth(int depth, String sessionID) {
+        if (depth > 0) return getSessionWithStackTraceAtDepth(depth - 1, sessionID);
+
+        try {
+            return sessionService.getSession(sessionID);
+        } catch (SessionNotFoundException e) {
+            throw new StackTracedSessionNotFoundException(sessionID);
+        }
+    }
+
+    // SessionNotFoundException as it was before it became stackless
+    private static class StackTracedSessionNotFoundException extends RuntimeException {
+        StackTracedSessionNotFoundException(String sessionID) {
+            super("session " + sessionID + " not found");
+        }
+    }
+
+    // every lookup reaches the repository, as it does for session IDs that are not repeated
+    private static class DisabledNegativeSessionCache implements NegativeSessionCache {
+        @Override
+        public boolean isSessionMissing(String sessionID) {
+            return false;
+        }
+
+        @Override
+        public void markSessionMissing(String sessionID) {
+        }
+
+        @Override
+        public void forgetSessionMissing(String sessionID) {
+        }
+
+        @Override
+        public boolean isTokenSuperseded(String sessionID, String tokenID) {
+            return false;
+        }
+
+        @Override
+        public void markTokenSuperseded(String sessionID, String tokenID) {
+        }
+
+        @Override
+        public void forgetTokenSuperseded(String sessionID, String tokenID) {
+        }
+    }
+
+    private static class SingleSessionRepository implements SessionRepository {
+        private final Session session;
+
+        SingleSessionRepository(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public Optional<Session> findByID(String userID, String sessionPostfix) {
+            return session.getUserID().equals(userID) && session.getSessionPostfix().equals(sessionPostfix) ?
+                Optional.of(session) :
+                Optional.empty();
+        }
+
+        @Override
+        public List<Session> findAllByUserID(String userID) {
+            return session.getUserID().equals(userID) ? List.of(session) : List.of();
+        }
+
+        @Override
+        public List<Session> findKeysByUserID(String userID) {
+            return findAllByUserID(userID);
+        }
+
+        @Override
+        public Session insert(Session session) {
+            return session;
+        }
+
+        @Override
+        public boolean deleteByID(String userID, String sessionPostfix) {
+            return true;
+        }
+
+        @Override
+        public boolean deleteAllByUserID(String userID) {
+            return true;
+        }
+
+        @Override
+        public boolean existsByUserID(String userID) {
+            return session.getUserID().equals(userID);
+        }
+
+        @Override
+        public List<Long> findExpirationsByUserID(String userID) {
+            return existsByUserID(userID) ? List.of(Long.MAX_VALUE) : List.of();
+        }
+
+        @Override
+        public void extendExpiration(Session session, long ttlMs, Instant observedAt) {
+        }
+    }
+}
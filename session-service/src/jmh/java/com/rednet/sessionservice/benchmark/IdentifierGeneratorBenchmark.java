@@ -0,0 +1,55 @@
+package com.rednet.sessionservice.benchmark;
+
+import com.rednet.sessionservice.util.impl.SessionPostfixGeneratorImpl;
+import com.rednet.sessionservice.util.impl.TokenIDGeneratorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generators are singletons shared by every request thread, so the contended variants run
+ * against one instance from several threads to expose contention on the shared seed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdentifierGeneratorBenchmark {
+    private final SessionPostfixGeneratorImpl sessionPostfixGenerator = new SessionPostfixGeneratorImpl();
+    private final TokenIDGeneratorImpl tokenIDGenerator = new TokenIDGeneratorImpl();
+
+    @Benchmark
+    @Threads(1)
+    public String generateSessionPostfix() {
+        return sessionPostfixGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateSessionPostfixContended() {
+        return sessionPostfixGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateTokenID() {
+        return tokenIDGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateTokenIDContended() {
+        return tokenIDGenerator.generate();
+    }
+}
@@ -0,0 +1,83 @@
+package com.rednet.sessionservice.benchmark;
+
+import com.rednet.sessionservice.service.impl.SessionServiceImpl;
+import com.rednet.sessionservice.util.impl.SessionPostfixGeneratorImpl;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session ID handling is private to {@link SessionServiceImpl}, so the benchmark calls the
+ * real methods through method handles instead of measuring a copy of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionIDBenchmark {
+    private final String userID = "6f1c2a4e-9d3b-4c1e-8a7f-2b5d9e0c4a13";
+    private final String sessionPostfix = "123456";
+    private final String sessionID = userID + "." + sessionPostfix;
+
+    private SessionServiceImpl sessionService;
+    private MethodHandle generateSessionID;
+    private MethodHandle parseSessionID;
+
+    @Setup
+    public void setup() throws Exception {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(SessionServiceImpl.class, MethodHandles.lookup());
+
+        sessionService = new SessionServiceImpl(
+            null,
+            null,
+            new SessionPostfixGeneratorImpl(),
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            ObservationRegistry.NOOP
+        );
+        generateSessionID = lookup.findVirtual(
+            SessionServiceImpl.class,
+            "generateSessionID",
+            MethodType.methodType(String.class, String.class, String.class)
+        );
+        parseSessionID = lookup.findVirtual(
+            SessionServiceImpl.class,
+            "parseSessionID",
+            MethodType.methodType(Optional.class, String.class)
+        );
+    }
+
+    @Benchmark
+    public String generateSessionID() throws Throwable {
+        return (String) generateSessionID.invokeExact(sessionService, userID, sessionPostfix);
+    }
+
+    @Benchmark
+    public Optional<?> parseSessionID() throws Throwable {
+        return (Optional<?>) parseSessionID.invokeExact(sessionService, sessionID);
+    }
+}
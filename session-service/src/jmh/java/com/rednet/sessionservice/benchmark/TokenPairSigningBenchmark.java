@@ -0,0 +1,87 @@
+package com.rednet.sessionservice.benchmark;
+
+import com.rednet.sessionservice.config.AccessTokenSigningProperties;
+import com.rednet.sessionservice.config.AccessTokenSigningProperties.SigningKey;
+import com.rednet.sessionservice.util.TokenPair;
+import com.rednet.sessionservice.util.TokenSigner;
+import com.rednet.sessionservice.util.impl.JwtUtilImpl;
+import com.rednet.sessionservice.util.impl.ParallelTokenSigner;
+import com.rednet.sessionservice.util.impl.SequentialTokenSigner;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenPairSigningBenchmark {
+    private static final String SECRET_KEY = "suF25ZudSgyzQSS9QgpaSyUt5XZZGtTayc22RlLe5IX1erTOz64mN5BarqeiPV2s";
+    private static final String[] ROLES = new String[]{"USER"};
+
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+
+    @Param({"sequential", "parallel"})
+    private String mode;
+
+    private TokenSigner tokenSigner;
+
+    @Setup
+    public void setup() throws Exception {
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        AccessTokenSigningProperties properties;
+
+        if (signatureAlgorithm.isHmac()) {
+            properties = new AccessTokenSigningProperties(signatureAlgorithm, null, List.of());
+        } else {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keyPair = generator.generateKeyPair();
+
+            properties = new AccessTokenSigningProperties(signatureAlgorithm, "key", List.of(new SigningKey(
+                "key",
+                Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded())
+            )));
+        }
+
+        JwtUtilImpl jwtUtil = new JwtUtilImpl(
+            "access", SECRET_KEY, 900000, 0,
+            "refresh", SECRET_KEY, 86400000, 0,
+            SECRET_KEY, "api", 0,
+            properties
+        );
+
+        tokenSigner = mode.equals("parallel") ? new ParallelTokenSigner(jwtUtil, 1024) : new SequentialTokenSigner(jwtUtil);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (tokenSigner instanceof ParallelTokenSigner parallelTokenSigner) parallelTokenSigner.destroy();
+    }
+
+    @Benchmark
+    public TokenPair signTokenPair() {
+        return tokenSigner.sign("123456", "user", "user.123456", ROLES);
+    }
+}
@@ -0,0 +1,105 @@
+package com.rednet.sessionservice.benchmark;
+
+import com.rednet.sessionservice.config.AccessTokenSigningProperties;
+import com.rednet.sessionservice.config.AccessTokenSigningProperties.SigningKey;
+import com.rednet.sessionservice.util.impl.JwtUtilImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.io.Decoders.BASE64;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenSigningBenchmark {
+    private static final String SECRET_KEY = "suF25ZudSgyzQSS9QgpaSyUt5XZZGtTayc22RlLe5IX1erTOz64mN5BarqeiPV2s";
+    private static final String[] ROLES = new String[]{"USER"};
+
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+
+    private JwtUtilImpl jwtUtil;
+    private String accessToken;
+
+    @Setup
+    public void setup() throws Exception {
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        AccessTokenSigningProperties properties;
+
+        if (signatureAlgorithm.isHmac()) {
+            properties = new AccessTokenSigningProperties(signatureAlgorithm, null, List.of());
+        } else {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keyPair = generator.generateKeyPair();
+
+            properties = new AccessTokenSigningProperties(signatureAlgorithm, "key", List.of(new SigningKey(
+                "key",
+                Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded())
+            )));
+        }
+
+        jwtUtil = new JwtUtilImpl(
+            "access", SECRET_KEY, 900000, 0,
+            "refresh", SECRET_KEY, 86400000, 0,
+            SECRET_KEY, "api", 0,
+            properties
+        );
+
+        accessToken = signAccessToken();
+    }
+
+    @Benchmark
+    public String signAccessToken() {
+        return jwtUtil.generateAccessTokenBuilder()
+            .setId("123456")
+            .setSubject("user")
+            .claim("roles", ROLES)
+            .claim("sid", "user.123456")
+            .compact();
+    }
+
+    @Benchmark
+    public Claims verifyAccessToken() {
+        return jwtUtil.getAccessTokenParser().parseClaimsJws(accessToken).getBody();
+    }
+
+    @Benchmark
+    public String signAccessTokenDecodingSecretPerToken() {
+        return Jwts.builder()
+            .setIssuer("access")
+            .signWith(Keys.hmacShaKeyFor(BASE64.decode(SECRET_KEY)), HS256)
+            .setExpiration(new Date(System.currentTimeMillis() + 900000))
+            .setId("123456")
+            .setSubject("user")
+            .claim("roles", ROLES)
+            .claim("sid", "user.123456")
+            .compact();
+    }
+}
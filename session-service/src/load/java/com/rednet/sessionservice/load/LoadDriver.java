@@ -0,0 +1,329 @@
+package com.rednet.sessionservice.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.io.Decoders.BASE64;
+
+/**
+ * Replays a weighted mix of create, refresh, get and delete calls against a running instance
+ * over HTTP and reports throughput and latency percentiles per operation. Every worker owns
+ * the sessions it created, so refreshes and deletes always target live sessions, and creates
+ * are spread over a fixed user population so per-user limits behave as in production.
+ *
+ * <p>Options are passed as {@code --name=value}; see {@link Options} for names and defaults.
+ */
+public class LoadDriver {
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final String apiTokenCookie;
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final Operation[] schedule;
+
+    public LoadDriver(Options options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.apiTokenCookie = options.cookieName + "=" + Jwts.builder()
+            .setIssuer(options.apiTokenIssuer)
+            .setSubject("load-driver")
+            .claim("roles", new String[]{"ROLE_SERVICE"})
+            .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+            .signWith(Keys.hmacShaKeyFor(BASE64.decode(options.apiTokenSecretKey)), HS256)
+            .compact();
+        this.schedule = buildSchedule(options.mix);
+
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(TimeUnit.SECONDS.toNanos(60), 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver(Options.parse(args)).run();
+    }
+
+    public void run() throws InterruptedException {
+        System.out.printf(
+            "Driving %s with %d workers for %ds after %ds warmup, mix %s%n",
+            options.baseUrl, options.concurrency, options.durationS, options.warmupS, options.mix
+        );
+
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + TimeUnit.SECONDS.toNanos(options.warmupS);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(options.durationS);
+        CountDownLatch finished = new CountDownLatch(options.concurrency);
+
+        for (int i = 0; i < options.concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    drive(measureFrom, stopAt);
+                } finally {
+                    finished.countDown();
+                }
+            }, "load-driver-" + i);
+
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        finished.await();
+        report();
+    }
+
+    private void drive(long measureFrom, long stopAt) {
+        List<LiveSession> sessions = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean measuring = false;
+
+        while (System.nanoTime() < stopAt) {
+            if ( ! measuring && System.nanoTime() >= measureFrom) measuring = true;
+
+            Operation operation = sessions.isEmpty() ? Operation.CREATE : schedule[random.nextInt(schedule.length)];
+            long callStartedAt = System.nanoTime();
+            boolean succeeded;
+
+            try {
+                succeeded = execute(operation, sessions, random);
+            } catch (Exception e) {
+                succeeded = false;
+            }
+
+            long elapsed = System.nanoTime() - callStartedAt;
+
+            if ( ! measuring) continue;
+
+            if (succeeded) {
+                latencies.get(operation).recordValue(Math.min(elapsed, TimeUnit.SECONDS.toNanos(60)));
+            } else {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private boolean execute(Operation operation, List<LiveSession> sessions, ThreadLocalRandom random) throws Exception {
+        return switch (operation) {
+            case CREATE -> {
+                String userID = "load-user-" + random.nextInt(options.users);
+                HttpResponse<byte[]> response = send(HttpRequest.newBuilder(uri("/sessions"))
+                    .POST(jsonBody(Map.of("userID", userID, "roles", List.of("ROLE_USER")))));
+
+                if (response.statusCode() != 200) yield false;
+
+                LiveSession session = toLiveSession(response.body());
+
+                if (sessions.size() >= options.sessionsPerWorker) {
+                    sessions.set(random.nextInt(sessions.size()), session);
+                } else {
+                    sessions.add(session);
+                }
+
+                yield true;
+            }
+            case REFRESH -> {
+                int index = random.nextInt(sessions.size());
+                HttpResponse<byte[]> response = send(HttpRequest.newBuilder(uri("/sessions"))
+                    .PUT(jsonBody(Map.of("refreshToken", sessions.get(index).refreshToken()))));
+
+                if (response.statusCode() != 200) {
+                    if (response.statusCode() == 401 || response.statusCode() == 404) sessions.remove(index);
+
+                    yield false;
+                }
+
+                sessions.set(index, toLiveSession(response.body()));
+
+                yield true;
+            }
+            case GET -> {
+                LiveSession session = sessions.get(random.nextInt(sessions.size()));
+
+                yield send(HttpRequest.newBuilder(uri("/sessions/by-id?id=" + session.sessionID())).GET())
+                    .statusCode() == 200;
+            }
+            case DELETE -> {
+                LiveSession session = sessions.remove(random.nextInt(sessions.size()));
+
+                yield send(HttpRequest.newBuilder(uri("/sessions/session-removing-process"))
+                    .POST(jsonBody(Map.of("refreshToken", session.refreshToken()))))
+                    .statusCode() == 200;
+            }
+        };
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(
+            request
+                .header("Cookie", apiTokenCookie)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .build(),
+            HttpResponse.BodyHandlers.ofByteArray()
+        );
+
+        statuses.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+
+        return response;
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Object body) throws Exception {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create(options.baseUrl + path);
+    }
+
+    private LiveSession toLiveSession(byte[] body) throws Exception {
+        JsonNode session = objectMapper.readTree(body);
+
+        return new LiveSession(
+            session.get("userID").asText() + "." + session.get("sessionPostfix").asText(),
+            session.get("refreshToken").asText()
+        );
+    }
+
+    private void report() {
+        double seconds = options.durationS;
+        long totalCount = 0;
+
+        System.out.printf(
+            "%n%-8s %10s %10s %9s %9s %9s %9s %9s %9s%n",
+            "op", "ok", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"
+        );
+
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            long count = histogram.getTotalCount();
+
+            totalCount += count;
+
+            System.out.printf(
+                "%-8s %10d %10d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.name().toLowerCase(),
+                count,
+                errors.get(operation).sum(),
+                count / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())
+            );
+        }
+
+        System.out.printf("%ntotal    %10d %21.1f ops/s%n", totalCount, totalCount / seconds);
+        System.out.println("HTTP statuses, warmup included: " + statuses);
+    }
+
+    private double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Operation[] buildSchedule(String mix) {
+        List<Operation> schedule = new ArrayList<>();
+
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            int weight = Integer.parseInt(parts[1].trim());
+
+            for (int i = 0; i < weight; i++) schedule.add(operation);
+        }
+
+        if (schedule.isEmpty()) throw new IllegalArgumentException("Operation mix should not be empty");
+
+        return schedule.toArray(Operation[]::new);
+    }
+
+    private enum Operation {
+        CREATE,
+        REFRESH,
+        GET,
+        DELETE
+    }
+
+    private record LiveSession(String sessionID, String refreshToken) {
+    }
+
+    public record Options(
+        String baseUrl,
+        int concurrency,
+        long durationS,
+        long warmupS,
+        String mix,
+        int users,
+        int sessionsPerWorker,
+        String cookieName,
+        String apiTokenIssuer,
+        String apiTokenSecretKey
+    ) {
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>(Map.of(
+                "base-url", "http://localhost:8080",
+                "concurrency", "32",
+                "duration-s", "60",
+                "warmup-s", "10",
+                "mix", "create=10,refresh=20,get=65,delete=5",
+                "users", "100000",
+                "sessions-per-worker", "256",
+                "cookie-name", "api-token",
+                "api-token-issuer", "api",
+                "api-token-secret-key", "9JqgX4BvKc2RfZp7Lm3NwT8sYd1HaE6uVo5GiQxCeWbUnMrSkP0tAjFhDlIyOz2v"
+            ));
+
+            for (String arg : args) {
+                if ( ! arg.startsWith("--") || ! arg.contains("=")) {
+                    throw new IllegalArgumentException("Unexpected argument " + arg + ", expected --name=value");
+                }
+
+                String name = arg.substring(2, arg.indexOf('='));
+
+                if ( ! values.containsKey(name)) throw new IllegalArgumentException("Unknown option --" + name);
+
+                values.put(name, arg.substring(arg.indexOf('=') + 1));
+            }
+
+            return new Options(
+                values.get("base-url"),
+                Integer.parseInt(values.get("concurrency")),
+                Long.parseLong(values.get("duration-s")),
+                Long.parseLong(values.get("warmup-s")),
+                values.get("mix"),
+                Integer.parseInt(values.get("users")),
+                Integer.parseInt(values.get("sessions-per-worker")),
+                values.get("cookie-name"),
+                values.get("api-token-issuer"),
+                values.get("api-token-secret-key")
+            );
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.rednet.sessionservice.cache;
+
+public interface NegativeSessionCache {
+    boolean isSessionMissing(String sessionID);
+    void    markSessionMissing(String sessionID);
+    void    forgetSessionMissing(String sessionID);
+    boolean isTokenSuperseded(String sessionID, String tokenID);
+    void    markTokenSuperseded(String sessionID, String tokenID);
+    void    forgetTokenSuperseded(String sessionID, String tokenID);
+}
@@ -0,0 +1,9 @@
+package com.rednet.sessionservice.cache;
+
+import java.util.List;
+import java.util.function.Function;
+
+public interface SessionCountCache {
+    long    getCount(String userID, Function<String, List<Long>> expirationsLoader);
+    void    invalidate(String userID);
+}
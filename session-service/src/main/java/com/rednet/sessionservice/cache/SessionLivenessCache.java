@@ -0,0 +1,10 @@
+package com.rednet.sessionservice.cache;
+
+import java.util.function.Function;
+
+public interface SessionLivenessCache {
+    String  getTokenID(String sessionID, Function<String, String> tokenIDLoader);
+    String  getCachedTokenID(String sessionID);
+    void    markLive(String sessionID, String tokenID);
+    void    markRevoked(String sessionID);
+}
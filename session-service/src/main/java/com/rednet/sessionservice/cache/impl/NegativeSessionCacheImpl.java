@@ -0,0 +1,64 @@
+package com.rednet.sessionservice.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.sessionservice.cache.NegativeSessionCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class NegativeSessionCacheImpl implements NegativeSessionCache {
+    private final Cache<String, Boolean> missingSessions;
+    private final Cache<String, Boolean> supersededTokens;
+
+    public NegativeSessionCacheImpl(
+        @Value("${rednet.app.session.negative-cache.max-size}") long maxSize,
+        @Value("${rednet.app.session.negative-cache.ttl-ms}") long ttlMs
+    ) {
+        this.missingSessions = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+
+        this.supersededTokens = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+    }
+
+    @Override
+    public boolean isSessionMissing(String sessionID) {
+        return missingSessions.getIfPresent(sessionID) != null;
+    }
+
+    @Override
+    public void markSessionMissing(String sessionID) {
+        missingSessions.put(sessionID, Boolean.TRUE);
+    }
+
+    @Override
+    public void forgetSessionMissing(String sessionID) {
+        missingSessions.invalidate(sessionID);
+    }
+
+    @Override
+    public boolean isTokenSuperseded(String sessionID, String tokenID) {
+        return supersededTokens.getIfPresent(generateTokenKey(sessionID, tokenID)) != null;
+    }
+
+    @Override
+    public void markTokenSuperseded(String sessionID, String tokenID) {
+        supersededTokens.put(generateTokenKey(sessionID, tokenID), Boolean.TRUE);
+    }
+
+    @Override
+    public void forgetTokenSuperseded(String sessionID, String tokenID) {
+        supersededTokens.invalidate(generateTokenKey(sessionID, tokenID));
+    }
+
+    private String generateTokenKey(String sessionID, String tokenID) {
+        return new StringBuilder(sessionID).append("#").append(tokenID).toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.rednet.sessionservice.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.sessionservice.cache.SessionCountCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Caches the expiration times of the sessions of a user rather than a plain count, so sessions
+ * expiring by TTL drop out of the count at the moment Cassandra stops returning them. Writes
+ * of this instance invalidate the entry; the TTL bounds how long writes of other instances
+ * go unnoticed.
+ */
+@Component
+public class SessionCountCacheImpl implements SessionCountCache {
+    private final Cache<String, long[]> expirations;
+
+    public SessionCountCacheImpl(
+        @Value("${rednet.app.session.count-cache.max-size}") long maxSize,
+        @Value("${rednet.app.session.count-cache.ttl-ms}") long ttlMs
+    ) {
+        this.expirations = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+    }
+
+    @Override
+    public long getCount(String userID, Function<String, List<Long>> expirationsLoader) {
+        long[] userExpirations = expirations.get(userID, key -> expirationsLoader.apply(key).stream()
+            .mapToLong(Long::longValue)
+            .sorted()
+            .toArray());
+        long now = System.currentTimeMillis();
+        int low = 0;
+        int high = userExpirations.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (userExpirations[middle] <= now) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return userExpirations.length - low;
+    }
+
+    @Override
+    public void invalidate(String userID) {
+        expirations.invalidate(userID);
+    }
+}
@@ -0,0 +1,45 @@
+package com.rednet.sessionservice.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.sessionservice.cache.SessionLivenessCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class SessionLivenessCacheImpl implements SessionLivenessCache {
+    private final Cache<String, String> currentTokenIDs;
+
+    public SessionLivenessCacheImpl(
+        @Value("${rednet.app.session.liveness-cache.max-size}") long maxSize,
+        @Value("${rednet.app.session.liveness-cache.ttl-ms}") long ttlMs
+    ) {
+        this.currentTokenIDs = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+    }
+
+    @Override
+    public String getTokenID(String sessionID, Function<String, String> tokenIDLoader) {
+        return currentTokenIDs.get(sessionID, tokenIDLoader);
+    }
+
+    @Override
+    public String getCachedTokenID(String sessionID) {
+        return currentTokenIDs.getIfPresent(sessionID);
+    }
+
+    @Override
+    public void markLive(String sessionID, String tokenID) {
+        currentTokenIDs.put(sessionID, tokenID);
+    }
+
+    @Override
+    public void markRevoked(String sessionID) {
+        currentTokenIDs.invalidate(sessionID);
+    }
+}
@@ -0,0 +1,16 @@
+package com.rednet.sessionservice.config;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "rednet.app.security.access-token")
+public record AccessTokenSigningProperties(
+    @DefaultValue("HS256") SignatureAlgorithm signingAlgorithm,
+    String activeKeyId,
+    @DefaultValue List<SigningKey> signingKeys
+) {
+    public record SigningKey(String id, String privateKey, String publicKey) {}
+}
@@ -1,30 +1,101 @@
 package com.rednet.sessionservice.config;
 
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.rednet.sessionservice.tracing.StatementDiagnosticsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.cassandra.SessionFactory;
+import org.springframework.data.cassandra.config.DriverConfigLoaderBuilderConfigurer;
 import org.springframework.data.cassandra.config.AbstractCassandraConfiguration;
 import org.springframework.data.cassandra.config.SchemaAction;
+import org.springframework.data.cassandra.config.SessionBuilderConfigurer;
+import org.springframework.data.cassandra.core.AsyncCassandraTemplate;
+import org.springframework.data.cassandra.core.convert.CassandraConverter;
 import org.springframework.data.cassandra.core.cql.keyspace.CreateKeyspaceSpecification;
 import org.springframework.data.cassandra.core.cql.keyspace.KeyspaceOption;
+import org.springframework.data.cassandra.observability.ObservableCqlSessionFactory;
+import org.springframework.data.cassandra.observability.ObservationRequestTracker;
 
 import java.util.List;
 
 
 @Configuration
+@Profile("!in-memory & !edge")
 public class CassandraConfig extends AbstractCassandraConfiguration {
     private final String contactPoints;
     private final String keyspace;
     private final SchemaAction schemaAction;
+    private final MeterRegistry meterRegistry;
 
     public CassandraConfig(
         @Value("${spring.cassandra.contact-points}") String contactPoints,
         @Value("${spring.cassandra.keyspace-name}") String keyspace,
-        @Value("${spring.cassandra.schema-action}") SchemaAction schemaAction
+        @Value("${spring.cassandra.schema-action}") SchemaAction schemaAction,
+        MeterRegistry meterRegistry
     ) {
         this.contactPoints = contactPoints;
         this.keyspace = keyspace;
         this.schemaAction = schemaAction;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public AsyncCassandraTemplate asyncCassandraTemplate(SessionFactory sessionFactory, CassandraConverter converter) {
+        return new AsyncCassandraTemplate(sessionFactory, converter);
+    }
+
+    @Bean
+    public static BeanPostProcessor observableCqlSessionPostProcessor(
+        ObjectProvider<ObservationRegistry> observationRegistry,
+        @Value("${rednet.app.session.cassandra.slow-statement-threshold-ms}") long slowStatementThresholdMs,
+        @Value("${rednet.app.session.cassandra.tracing-probability}") double tracingProbability
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@Nonnull Object bean, @Nonnull String beanName) {
+                return bean instanceof CqlSession session
+                    ? StatementDiagnosticsInterceptor.wrap(
+                        ObservableCqlSessionFactory.wrap(session, observationRegistry.getObject()),
+                        slowStatementThresholdMs,
+                        tracingProbability
+                    )
+                    : bean;
+            }
+        };
+    }
+
+    @Override
+    protected SessionBuilderConfigurer getSessionBuilderConfigurer() {
+        return builder -> builder
+            .withMetricRegistry(meterRegistry)
+            .addRequestTracker(ObservationRequestTracker.INSTANCE);
+    }
+
+    @Override
+    protected DriverConfigLoaderBuilderConfigurer getDriverConfigLoaderBuilderConfigurer() {
+        return builder -> builder
+            .withString(DefaultDriverOption.METRICS_FACTORY_CLASS, "MicrometerMetricsFactory")
+            .withStringList(DefaultDriverOption.METRICS_SESSION_ENABLED, List.of(
+                "connected-nodes",
+                "cql-requests",
+                "cql-client-timeouts",
+                "bytes-sent",
+                "bytes-received"
+            ))
+            .withStringList(DefaultDriverOption.METRICS_NODE_ENABLED, List.of(
+                "pool.open-connections",
+                "pool.in-flight",
+                "errors.connection.init",
+                "errors.request.timeouts"
+            ));
     }
 
     @Override
@@ -1,6 +1,8 @@
 package com.rednet.sessionservice.config;
 
 import com.rednet.sessionservice.filter.ApiTokenFilter;
+import com.rednet.sessionservice.filter.LoadSheddingFilter;
+import com.rednet.sessionservice.filter.RateLimitFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -20,15 +22,21 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 @EnableWebSecurity
 public class SecurityConfig {
     private final ApiTokenFilter apiTokenFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final LoadSheddingFilter loadSheddingFilter;
     private final AccessDeniedHandler accessDeniedHandler;
     private final AuthenticationEntryPoint authenticationEntryPoint;
 
     public SecurityConfig(
         ApiTokenFilter apiTokenFilter,
+        RateLimitFilter rateLimitFilter,
+        LoadSheddingFilter loadSheddingFilter,
         AccessDeniedHandler accessDeniedHandler,
         AuthenticationEntryPoint authenticationEntryPoint
     ) {
         this.apiTokenFilter = apiTokenFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.loadSheddingFilter = loadSheddingFilter;
         this.accessDeniedHandler = accessDeniedHandler;
         this.authenticationEntryPoint = authenticationEntryPoint;
     }
@@ -46,6 +54,8 @@ public class SecurityConfig {
                 .accessDeniedHandler(accessDeniedHandler)
                 .authenticationEntryPoint(authenticationEntryPoint))
             .addFilterBefore(apiTokenFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, ApiTokenFilter.class)
+            .addFilterAfter(loadSheddingFilter, RateLimitFilter.class)
             .build();
     }
 }
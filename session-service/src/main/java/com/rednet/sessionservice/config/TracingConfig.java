@@ -0,0 +1,26 @@
+package com.rednet.sessionservice.config;
+
+import com.rednet.sessionservice.tracing.InMemorySpanExporter;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+    @Bean
+    @ConditionalOnProperty(name = "rednet.app.tracing.exporter", havingValue = "logging")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rednet.app.tracing.exporter", havingValue = "in-memory")
+    public InMemorySpanExporter inMemorySpanExporter(
+        @Value("${rednet.app.tracing.in-memory-capacity}") int capacity
+    ) {
+        return new InMemorySpanExporter(capacity);
+    }
+}
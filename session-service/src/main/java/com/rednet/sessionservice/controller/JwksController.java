@@ -0,0 +1,38 @@
+package com.rednet.sessionservice.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.sessionservice.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+public class JwksController {
+    private final byte[] jwks;
+    private final CacheControl cacheControl;
+
+    public JwksController(
+        JwtUtil jwtUtil,
+        ObjectMapper objectMapper,
+        @Value("${rednet.app.security.access-token.jwks-max-age-s}") long jwksMaxAgeS
+    ) throws JsonProcessingException {
+        this.jwks = objectMapper.writeValueAsBytes(jwtUtil.getAccessTokenJwks());
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(jwksMaxAgeS)).cachePublic();
+    }
+
+    @GetMapping(path = "/.well-known/jwks.json", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getJwks() {
+        return ResponseEntity.ok()
+            .cacheControl(cacheControl)
+            .contentType(APPLICATION_JSON)
+            .body(jwks);
+    }
+}
@@ -0,0 +1,38 @@
+package com.rednet.sessionservice.controller;
+
+import com.rednet.sessionservice.payload.response.RevocationDeltasResponseBody;
+import com.rednet.sessionservice.payload.response.RevocationFilterResponseBody;
+import com.rednet.sessionservice.service.RevocationService;
+import org.hibernate.validator.constraints.Length;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@Validated
+@RequestMapping(path = "/sessions/revocations", produces = APPLICATION_JSON_VALUE)
+public class RevocationController {
+    private final RevocationService revocationService;
+
+    public RevocationController(RevocationService revocationService) {
+        this.revocationService = revocationService;
+    }
+
+    @GetMapping(path = "/filter", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<RevocationFilterResponseBody> getFilter() {
+        return ResponseEntity.ok(revocationService.getFilter());
+    }
+
+    @GetMapping(path = "/deltas", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<RevocationDeltasResponseBody> getDeltas(
+        @RequestParam("feed-id") @Length(min = 1, message = "FeedID min length is 1") String feedID,
+        @RequestParam("since-version") long version
+    ) {
+        return ResponseEntity.ok(revocationService.getDeltasSince(feedID, version));
+    }
+}
@@ -2,8 +2,12 @@ package com.rednet.sessionservice.controller;
 
 import com.rednet.sessionservice.entity.Session;
 import com.rednet.sessionservice.payload.request.CreateSessionRequestBody;
+import com.rednet.sessionservice.payload.request.IntrospectTokenRequestBody;
 import com.rednet.sessionservice.payload.request.RefreshSessionRequestBody;
+import com.rednet.sessionservice.payload.response.SessionCountResponseBody;
+import com.rednet.sessionservice.payload.response.TokenIntrospectionResponseBody;
 import com.rednet.sessionservice.service.SessionService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.hibernate.validator.constraints.Length;
 import org.springframework.http.ResponseEntity;
@@ -17,13 +21,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @RestController
 @Validated
-@RequestMapping(path = "/sessions", produces = APPLICATION_JSON_VALUE)
+@RequestMapping(path = "/sessions", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
 public class SessionController {
     private final SessionService sessionService;
 
@@ -31,25 +37,35 @@ public class SessionController {
         this.sessionService = sessionService;
     }
 
-    @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @PostMapping(
+        consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE},
+        produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE}
+    )
     public ResponseEntity<Session> createSession(@Valid @RequestBody CreateSessionRequestBody requestBody) {
         return ResponseEntity.ok(sessionService.createSession(requestBody.userID(),requestBody.roles()));
     }
 
-    @GetMapping(path = "/by-id", produces = APPLICATION_JSON_VALUE)
+    @GetMapping(path = "/by-id", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
     public ResponseEntity<Session> getSession(
         @RequestParam("id") @Length(min = 1, message = "SessionID min length is 1") String sessionID) {
         return ResponseEntity.ok(sessionService.getSession(sessionID));
     }
 
-    @GetMapping(value = "/by-user-id", produces = APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/by-user-id", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
     public ResponseEntity<List<Session>> getSessionsByUserID(
         @RequestParam("user-id") @Length(min = 1, message = "UserID min length is 1") String userID
     ) {
         return ResponseEntity.ok(sessionService.getSessionsByUserID(userID));
     }
 
-    @PutMapping(produces = APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/by-user-id/count", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
+    public ResponseEntity<SessionCountResponseBody> countSessionsByUserID(
+        @RequestParam("user-id") @Length(min = 1, message = "UserID min length is 1") String userID
+    ) {
+        return ResponseEntity.ok(new SessionCountResponseBody(userID, sessionService.countSessionsByUserID(userID)));
+    }
+
+    @PutMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
     public ResponseEntity<Session> refreshSession(@Valid @RequestBody RefreshSessionRequestBody requestBody) {
         return ResponseEntity.ok(sessionService.refreshSession(requestBody.refreshToken()));
     }
@@ -62,9 +78,32 @@ public class SessionController {
         return ResponseEntity.ok().build();
     }
 
-    @PostMapping(path = "/session-removing-process", consumes = APPLICATION_JSON_VALUE)
+    @PostMapping(path = "/session-removing-process", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE})
     public ResponseEntity<Void> deleteSession(@Valid @RequestBody RefreshSessionRequestBody requestBody) {
         sessionService.deleteSession(requestBody.refreshToken());
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping(path = "/introspection", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<TokenIntrospectionResponseBody> introspectAccessToken(
+        @Valid @RequestBody IntrospectTokenRequestBody requestBody
+    ) {
+        return ResponseEntity.ok(sessionService
+            .introspectAccessToken(requestBody.accessToken())
+            .map(this::generateIntrospectionResponseBody)
+            .orElseGet(TokenIntrospectionResponseBody::inactive));
+    }
+
+    private TokenIntrospectionResponseBody generateIntrospectionResponseBody(Claims claims) {
+        List<?> roles = claims.get("roles", ArrayList.class);
+
+        return new TokenIntrospectionResponseBody(
+            true,
+            claims.getSubject(),
+            claims.get("sid", String.class),
+            claims.getId(),
+            roles == null ? new String[0] : roles.stream().map(String::valueOf).toArray(String[]::new),
+            claims.getExpiration() == null ? null : claims.getExpiration().toInstant()
+        );
+    }
 }
@@ -0,0 +1,34 @@
+package com.rednet.sessionservice.controller;
+
+import com.rednet.sessionservice.payload.response.HeavyUserResponseBody;
+import com.rednet.sessionservice.service.SessionDistributionService;
+import org.hibernate.validator.constraints.Range;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@Validated
+@RequestMapping(path = "/sessions/admin", produces = APPLICATION_JSON_VALUE)
+public class SessionDistributionController {
+    private final SessionDistributionService sessionDistributionService;
+
+    public SessionDistributionController(SessionDistributionService sessionDistributionService) {
+        this.sessionDistributionService = sessionDistributionService;
+    }
+
+    @GetMapping(path = "/heavy-users", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<HeavyUserResponseBody>> getHeavyUsers(
+        @RequestParam(value = "limit", defaultValue = "20")
+        @Range(min = 1, max = 1000, message = "Limit should be between 1 and 1000") int limit
+    ) {
+        return ResponseEntity.ok(sessionDistributionService.getHeavyUsers(limit));
+    }
+}
@@ -0,0 +1,32 @@
+package com.rednet.sessionservice.entity;
+
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import static org.springframework.data.cassandra.core.cql.PrimaryKeyType.PARTITIONED;
+
+@Table("bucketed_sessions")
+public class BucketedSession extends Session {
+    @PrimaryKeyColumn(name = "bucket", type = PARTITIONED, ordinal = 1)
+    private int bucket;
+
+    public BucketedSession() {
+
+    }
+
+    public BucketedSession(Session session, int bucket) {
+        super(
+            session.getUserID(),
+            session.getSessionPostfix(),
+            session.getCreatedAt(),
+            session.getRoles(),
+            session.getAccessToken(),
+            session.getRefreshToken(),
+            session.getTokenID()
+        );
+
+        this.setRoleSetID(session.getRoleSetID());
+        this.setActiveUntil(session.getActiveUntil());
+        this.bucket = bucket;
+    }
+}
@@ -0,0 +1,68 @@
+package com.rednet.sessionservice.entity;
+
+import org.springframework.data.cassandra.core.mapping.CassandraType;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.time.Instant;
+
+import static org.springframework.data.cassandra.core.cql.PrimaryKeyType.CLUSTERED;
+import static org.springframework.data.cassandra.core.cql.PrimaryKeyType.PARTITIONED;
+import static org.springframework.data.cassandra.core.mapping.CassandraType.Name.TIMESTAMP;
+
+@Table("revoked_tokens")
+public class RevokedToken {
+    @PrimaryKeyColumn(name = "bucket", type = PARTITIONED, ordinal = 0)
+    private long bucket;
+
+    @PrimaryKeyColumn(name = "shard", type = PARTITIONED, ordinal = 1)
+    private int shard;
+
+    @PrimaryKeyColumn(name = "revoked_at", type = CLUSTERED, ordinal = 0)
+    @CassandraType(type = TIMESTAMP)
+    private Instant revokedAt;
+
+    @PrimaryKeyColumn(name = "token_key", type = CLUSTERED, ordinal = 1)
+    private String key;
+
+    public RevokedToken() {
+
+    }
+
+    public RevokedToken(String key, Instant revokedAt) {
+        this.key = key;
+        this.revokedAt = revokedAt;
+    }
+
+    public long getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(long bucket) {
+        this.bucket = bucket;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public void setShard(int shard) {
+        this.shard = shard;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+}
@@ -0,0 +1,44 @@
+package com.rednet.sessionservice.entity;
+
+import org.springframework.data.cassandra.core.mapping.CassandraType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKey;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import static org.springframework.data.cassandra.core.mapping.CassandraType.Name.LIST;
+import static org.springframework.data.cassandra.core.mapping.CassandraType.Name.TEXT;
+
+@Table("role_sets")
+public class RoleSet {
+    @PrimaryKey("id")
+    private Long id;
+
+    @Column
+    @CassandraType(typeArguments = TEXT , type = LIST)
+    private String[] roles;
+
+    public RoleSet() {
+
+    }
+
+    public RoleSet(Long id, String[] roles) {
+        this.id = id;
+        this.roles = roles;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String[] getRoles() {
+        return roles;
+    }
+
+    public void setRoles(String[] roles) {
+        this.roles = roles;
+    }
+}
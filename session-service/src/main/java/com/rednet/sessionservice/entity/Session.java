@@ -1,6 +1,7 @@
 package com.rednet.sessionservice.entity;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.cassandra.core.mapping.CassandraType;
 import org.springframework.data.cassandra.core.mapping.Column;
 import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
@@ -41,6 +42,13 @@ public class Session implements Serializable {
     @Column("token_id")
     private String tokenID;
 
+    @Column("role_set_id")
+    private Long roleSetID;
+
+    @Column("active_until")
+    @CassandraType(type = TIMESTAMP)
+    private Instant activeUntil;
+
     public Session() {
 
     }
@@ -112,6 +120,24 @@ public class Session implements Serializable {
         this.tokenID = tokenID;
     }
 
+    @JsonIgnore
+    public Long getRoleSetID() {
+        return roleSetID;
+    }
+
+    public void setRoleSetID(Long roleSetID) {
+        this.roleSetID = roleSetID;
+    }
+
+    @JsonIgnore
+    public Instant getActiveUntil() {
+        return activeUntil;
+    }
+
+    public void setActiveUntil(Instant activeUntil) {
+        this.activeUntil = activeUntil;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,59 @@
+package com.rednet.sessionservice.entity;
+
+import org.springframework.data.cassandra.core.mapping.CassandraType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.time.Instant;
+
+import static org.springframework.data.cassandra.core.cql.PrimaryKeyType.CLUSTERED;
+import static org.springframework.data.cassandra.core.cql.PrimaryKeyType.PARTITIONED;
+import static org.springframework.data.cassandra.core.mapping.CassandraType.Name.TIMESTAMP;
+
+@Table("session_activity")
+public class SessionActivity {
+    @PrimaryKeyColumn(name = "user_id", type = PARTITIONED)
+    private String userID;
+
+    @PrimaryKeyColumn(name = "session_postfix", type = CLUSTERED, ordinal = 0)
+    private String sessionPostfix;
+
+    @Column("last_seen")
+    @CassandraType(type = TIMESTAMP)
+    private Instant lastSeen;
+
+    public SessionActivity() {
+
+    }
+
+    public SessionActivity(String userID, String sessionPostfix, Instant lastSeen) {
+        this.userID = userID;
+        this.sessionPostfix = sessionPostfix;
+        this.lastSeen = lastSeen;
+    }
+
+    public String getUserID() {
+        return userID;
+    }
+
+    public void setUserID(String userID) {
+        this.userID = userID;
+    }
+
+    public String getSessionPostfix() {
+        return sessionPostfix;
+    }
+
+    public void setSessionPostfix(String sessionPostfix) {
+        this.sessionPostfix = sessionPostfix;
+    }
+
+    public Instant getLastSeen() {
+        return lastSeen;
+    }
+
+    public void setLastSeen(Instant lastSeen) {
+        this.lastSeen = lastSeen;
+    }
+}
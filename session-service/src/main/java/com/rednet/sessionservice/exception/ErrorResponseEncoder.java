@@ -0,0 +1,62 @@
+package com.rednet.sessionservice.exception;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Writes {@link ErrorResponseMessage} bodies with the streaming generator, using field names
+ * and status values encoded once at startup, so failed requests do not go through
+ * reflective serialization.
+ */
+@Component
+public class ErrorResponseEncoder {
+    private static final SerializedString STATUS_FIELD = new SerializedString("status");
+    private static final SerializedString TIMESTAMP_FIELD = new SerializedString("timestamp");
+    private static final SerializedString PATH_FIELD = new SerializedString("path");
+    private static final SerializedString MESSAGE_FIELD = new SerializedString("message");
+
+    private final JsonFactory jsonFactory;
+    private final Map<HttpStatus, SerializedString> statusValues = new EnumMap<>(HttpStatus.class);
+
+    public ErrorResponseEncoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+
+        for (HttpStatus status : HttpStatus.values()) {
+            SerializedString value = new SerializedString(status.name());
+            value.asQuotedUTF8();
+            statusValues.put(status, value);
+        }
+    }
+
+    public byte[] encode(HttpStatus status, String path, String message) {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(128)) {
+            try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+                generator.writeStartObject();
+                generator.writeFieldName(STATUS_FIELD);
+                generator.writeString(statusValues.get(status));
+                generator.writeFieldName(TIMESTAMP_FIELD);
+                generator.writeString(Instant.now().toString());
+                generator.writeFieldName(PATH_FIELD);
+                generator.writeString(path);
+                generator.writeFieldName(MESSAGE_FIELD);
+                generator.writeString(message);
+                generator.writeEndObject();
+            }
+
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
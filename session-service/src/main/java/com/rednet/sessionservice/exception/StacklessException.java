@@ -0,0 +1,7 @@
+package com.rednet.sessionservice.exception;
+
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,7 +1,6 @@
 package com.rednet.sessionservice.exception.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.rednet.sessionservice.exception.ErrorResponseMessage;
+import com.rednet.sessionservice.exception.ErrorResponseEncoder;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -11,10 +10,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
-import java.time.Instant;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @Component
 public class AccessDeniedExceptionHandler implements AccessDeniedHandler {
+    private final ErrorResponseEncoder errorResponseEncoder;
+
+    public AccessDeniedExceptionHandler(ErrorResponseEncoder errorResponseEncoder) {
+        this.errorResponseEncoder = errorResponseEncoder;
+    }
+
     @Override
     public void handle(
         HttpServletRequest request,
@@ -24,15 +30,11 @@ public class AccessDeniedExceptionHandler implements AccessDeniedHandler {
         HttpStatus status = HttpStatus.FORBIDDEN;
 
         response.setStatus(status.value());
-
-        new ObjectMapper().writeValue(
-            response.getOutputStream(),
-            new ErrorResponseMessage(
-                status.name(),
-                Instant.now(),
-                request.getServletPath(),
-                accessDeniedException.getMessage()
-            )
-        );
+        response.setContentType(APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(errorResponseEncoder.encode(
+            status,
+            request.getServletPath(),
+            accessDeniedException.getMessage()
+        ));
     }
 }
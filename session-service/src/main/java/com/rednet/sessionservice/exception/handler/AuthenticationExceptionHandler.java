@@ -1,7 +1,6 @@
 package com.rednet.sessionservice.exception.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.rednet.sessionservice.exception.ErrorResponseMessage;
+import com.rednet.sessionservice.exception.ErrorResponseEncoder;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -11,10 +10,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.security.web.AuthenticationEntryPoint;
 
 import java.io.IOException;
-import java.time.Instant;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @Component
 public class AuthenticationExceptionHandler implements AuthenticationEntryPoint {
+    private final ErrorResponseEncoder errorResponseEncoder;
+
+    public AuthenticationExceptionHandler(ErrorResponseEncoder errorResponseEncoder) {
+        this.errorResponseEncoder = errorResponseEncoder;
+    }
+
     @Override
     public void commence(
         HttpServletRequest request,
@@ -24,15 +30,11 @@ public class AuthenticationExceptionHandler implements AuthenticationEntryPoint
         HttpStatus status = HttpStatus.UNAUTHORIZED;
 
         response.setStatus(status.value());
-
-        new ObjectMapper().writeValue(
-            response.getOutputStream(),
-            new ErrorResponseMessage(
-                status.name(),
-                Instant.now(),
-                request.getServletPath(),
-                "Api authorization is required"
-            )
-        );
+        response.setContentType(APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(errorResponseEncoder.encode(
+            status,
+            request.getServletPath(),
+            "Api authorization is required"
+        ));
     }
 }
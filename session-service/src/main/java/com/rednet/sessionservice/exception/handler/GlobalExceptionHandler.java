@@ -1,11 +1,13 @@
 package com.rednet.sessionservice.exception.handler;
 
 import com.rednet.sessionservice.exception.impl.InvalidTokenException;
+import com.rednet.sessionservice.exception.impl.RateLimitExceededException;
 import com.rednet.sessionservice.exception.impl.SessionNotFoundException;
 import com.rednet.sessionservice.exception.impl.SessionRemovingException;
+import com.rednet.sessionservice.exception.impl.SessionStorageUnavailableException;
 import com.rednet.sessionservice.exception.impl.UserSessionsNotFound;
 import com.rednet.sessionservice.exception.impl.UserSessionsRemovingException;
-import com.rednet.sessionservice.exception.ErrorResponseMessage;
+import com.rednet.sessionservice.exception.ErrorResponseEncoder;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.core.Ordered;
@@ -33,16 +35,22 @@ import org.springframework.web.multipart.support.MissingServletRequestPartExcept
 import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-import java.time.Instant;
-
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
 
 @RestControllerAdvice
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+    private final ErrorResponseEncoder errorResponseEncoder;
+
+    public GlobalExceptionHandler(ErrorResponseEncoder errorResponseEncoder) {
+        this.errorResponseEncoder = errorResponseEncoder;
+    }
+
     @Override
     protected ResponseEntity<Object> handleHttpRequestMethodNotSupported(
         @NonNull HttpRequestMethodNotSupportedException ex,
@@ -188,19 +196,31 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return generateErrorResponse(INTERNAL_SERVER_ERROR, request.getServletPath(), ex.getMessage());
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    protected ResponseEntity<Object> handleRateLimitExceeded(
+        RateLimitExceededException ex,
+        HttpServletRequest request
+    ) {
+        return generateErrorResponse(TOO_MANY_REQUESTS, request.getServletPath(), ex.getMessage());
+    }
+
+    @ExceptionHandler(SessionStorageUnavailableException.class)
+    protected ResponseEntity<Object> handleSessionStorageUnavailable(
+        SessionStorageUnavailableException ex,
+        HttpServletRequest request
+    ) {
+        return generateErrorResponse(SERVICE_UNAVAILABLE, request.getServletPath(), ex.getMessage());
+    }
+
     private ResponseEntity<Object> generateErrorResponse(
         HttpStatus httpStatus,
         String path,
         String errorMessage
     ) {
-        return ResponseEntity.status(httpStatus.value()).body(
-            new ErrorResponseMessage(
-                httpStatus.name(),
-                Instant.now(),
-                path,
-                errorMessage
-            )
-        );
+        return ResponseEntity
+            .status(httpStatus.value())
+            .contentType(APPLICATION_JSON)
+            .body(errorResponseEncoder.encode(httpStatus, path, errorMessage));
     }
 
     private String extractPath(WebRequest request) {
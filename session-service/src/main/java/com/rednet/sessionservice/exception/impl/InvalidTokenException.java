@@ -1,6 +1,8 @@
 package com.rednet.sessionservice.exception.impl;
 
-public class InvalidTokenException extends RuntimeException {
+import com.rednet.sessionservice.exception.StacklessException;
+
+public class InvalidTokenException extends StacklessException {
     public InvalidTokenException() {
         super("invalid token");
     }
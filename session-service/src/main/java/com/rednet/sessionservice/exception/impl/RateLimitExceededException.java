@@ -0,0 +1,10 @@
+package com.rednet.sessionservice.exception.impl;
+
+import com.rednet.sessionservice.exception.StacklessException;
+import com.rednet.sessionservice.service.RateLimitService.Operation;
+
+public class RateLimitExceededException extends StacklessException {
+    public RateLimitExceededException(Operation operation) {
+        super("too many " + operation.name().toLowerCase() + " session requests");
+    }
+}
@@ -1,6 +1,8 @@
 package com.rednet.sessionservice.exception.impl;
 
-public class SessionNotFoundException extends RuntimeException {
+import com.rednet.sessionservice.exception.StacklessException;
+
+public class SessionNotFoundException extends StacklessException {
     public SessionNotFoundException(String sessionID) {
         super("session " + sessionID + " not found");
     }
@@ -0,0 +1,9 @@
+package com.rednet.sessionservice.exception.impl;
+
+import com.rednet.sessionservice.exception.StacklessException;
+
+public class SessionStorageUnavailableException extends StacklessException {
+    public SessionStorageUnavailableException() {
+        super("session storage is unavailable");
+    }
+}
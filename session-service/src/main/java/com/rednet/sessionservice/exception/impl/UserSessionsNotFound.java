@@ -1,6 +1,8 @@
 package com.rednet.sessionservice.exception.impl;
 
-public class UserSessionsNotFound extends RuntimeException {
+import com.rednet.sessionservice.exception.StacklessException;
+
+public class UserSessionsNotFound extends StacklessException {
     public UserSessionsNotFound(String userID) {
         super("Sessions of user " + userID + " not found");
     }
@@ -1,5 +1,6 @@
 package com.rednet.sessionservice.filter;
 
+import com.rednet.sessionservice.jfr.TokenVerifiedEvent;
 import com.rednet.sessionservice.util.JwtUtil;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -7,6 +8,8 @@ import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,18 +26,22 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 
 @Component
 public class ApiTokenFilter extends OncePerRequestFilter {
     private final String apiTokenCookieName;
     private final JwtParser apiTokenParser;
+    private final ObservationRegistry observationRegistry;
 
     public ApiTokenFilter(
         @Value("${rednet.app.security.api-token.cookie-name}") String apiTokenCookieName,
-        JwtUtil jwtUtil
+        JwtUtil jwtUtil,
+        ObservationRegistry observationRegistry
     ) {
         this.apiTokenCookieName = apiTokenCookieName;
         this.apiTokenParser = jwtUtil.getApiTokenParser();
+        this.observationRegistry = observationRegistry;
     }
 
     @Override
@@ -59,14 +66,25 @@ public class ApiTokenFilter extends OncePerRequestFilter {
             return;
         }
 
+        TokenVerifiedEvent verifiedEvent = new TokenVerifiedEvent();
+
+        verifiedEvent.tokenType = "api";
+        verifiedEvent.begin();
+
         try {
-            Claims claims = apiTokenParser.parseClaimsJws(apiTokenCookie.getValue()).getBody();
+            Claims claims = Observation.createNotStarted("sessions.token.verify", observationRegistry)
+                .lowCardinalityKeyValue("type", "api")
+                .observe(() -> apiTokenParser.parseClaimsJws(apiTokenCookie.getValue()).getBody());
+
+            verifiedEvent.end();
+            verifiedEvent.outcome = "valid";
+
             UsernamePasswordAuthenticationToken contextAuthToken =
                 new UsernamePasswordAuthenticationToken(
                     claims.getSubject(),
                     apiTokenCookie.getValue(),
-                    Arrays.stream((String[]) claims.get("roles"))
-                        .map(SimpleGrantedAuthority::new)
+                    ((List<?>) claims.get("roles")).stream()
+                        .map(role -> new SimpleGrantedAuthority(role.toString()))
                         .toList()
                 );
 
@@ -79,9 +97,12 @@ public class ApiTokenFilter extends OncePerRequestFilter {
             UnsupportedJwtException |
             IllegalArgumentException e
         ) {
+            verifiedEvent.outcome = "invalid";
             /*
             * LOG EVENT
              */
+        } finally {
+            verifiedEvent.commit();
         }
 
         filterChain.doFilter(request,response);
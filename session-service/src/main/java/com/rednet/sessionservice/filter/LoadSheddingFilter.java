@@ -0,0 +1,101 @@
+package com.rednet.sessionservice.filter;
+
+import com.rednet.sessionservice.exception.ErrorResponseEncoder;
+import com.rednet.sessionservice.util.ConcurrencyLimiter;
+import com.rednet.sessionservice.util.ConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@Component
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final ErrorResponseEncoder errorResponseEncoder;
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+    public LoadSheddingFilter(
+        ConcurrencyLimiter concurrencyLimiter,
+        ErrorResponseEncoder errorResponseEncoder,
+        MeterRegistry meterRegistry
+    ) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.errorResponseEncoder = errorResponseEncoder;
+
+        Gauge.builder("sessions.concurrency.limit", concurrencyLimiter, ConcurrencyLimiter::getLimit)
+            .register(meterRegistry);
+        Gauge.builder("sessions.concurrency.inflight", concurrencyLimiter, ConcurrencyLimiter::getInflight)
+            .register(meterRegistry);
+
+        for (Priority priority : Priority.values()) {
+            rejections.put(priority, Counter.builder("sessions.concurrency.rejections")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+        @Nonnull HttpServletRequest request,
+        @Nonnull HttpServletResponse response,
+        @Nonnull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Priority priority = resolvePriority(request);
+
+        if (priority == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if ( ! concurrencyLimiter.tryAcquire(priority)) {
+            HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+
+            rejections.get(priority).increment();
+
+            response.setStatus(status.value());
+            response.setContentType(APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(errorResponseEncoder.encode(
+                status,
+                request.getServletPath(),
+                "session storage is overloaded"
+            ));
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - startedAt, failed);
+        }
+    }
+
+    private Priority resolvePriority(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+
+        return switch (path) {
+            case "/sessions" -> method.equals("POST") || method.equals("PUT") ? Priority.HIGH : null;
+            case "/sessions/by-id", "/sessions/session-removing-process", "/sessions/introspection" -> Priority.HIGH;
+            case "/sessions/by-user-id" -> method.equals("DELETE") ? Priority.HIGH : Priority.LOW;
+            case "/sessions/by-user-id/count" -> Priority.LOW;
+            default -> null;
+        };
+    }
+}
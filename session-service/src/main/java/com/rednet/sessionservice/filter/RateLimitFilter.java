@@ -0,0 +1,78 @@
+package com.rednet.sessionservice.filter;
+
+import com.rednet.sessionservice.exception.ErrorResponseEncoder;
+import com.rednet.sessionservice.exception.impl.RateLimitExceededException;
+import com.rednet.sessionservice.service.RateLimitService;
+import com.rednet.sessionservice.service.RateLimitService.Operation;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimitService rateLimitService;
+    private final ErrorResponseEncoder errorResponseEncoder;
+
+    public RateLimitFilter(RateLimitService rateLimitService, ErrorResponseEncoder errorResponseEncoder) {
+        this.rateLimitService = rateLimitService;
+        this.errorResponseEncoder = errorResponseEncoder;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        @Nonnull HttpServletRequest request,
+        @Nonnull HttpServletResponse response,
+        @Nonnull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Operation operation = resolveOperation(request);
+
+        if (operation == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            rateLimitService.checkClient(operation, resolveClientID(request));
+        } catch (RateLimitExceededException e) {
+            HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+
+            response.setStatus(status.value());
+            response.setContentType(APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(errorResponseEncoder.encode(
+                status,
+                request.getServletPath(),
+                e.getMessage()
+            ));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Operation resolveOperation(HttpServletRequest request) {
+        if ( ! request.getServletPath().equals("/sessions")) return null;
+
+        return switch (request.getMethod()) {
+            case "POST" -> Operation.CREATE;
+            case "PUT" -> Operation.REFRESH;
+            default -> null;
+        };
+    }
+
+    private String resolveClientID(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return authentication == null ? request.getRemoteAddr() : authentication.getName();
+    }
+}
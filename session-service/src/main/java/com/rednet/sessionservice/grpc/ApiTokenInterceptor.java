@@ -0,0 +1,105 @@
+package com.rednet.sessionservice.grpc;
+
+import com.rednet.sessionservice.jfr.TokenVerifiedEvent;
+import com.rednet.sessionservice.util.JwtUtil;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * gRPC counterpart of {@code ApiTokenFilter}. The API token is read from the metadata entry
+ * named like the HTTP cookie. A valid token identifies the client by its subject; without one
+ * the call goes on anonymously and the client is identified by its remote address, as over
+ * HTTP. The client ID is kept in {@link #CLIENT_ID} for the interceptors that follow.
+ */
+@Component
+@Order(1)
+public class ApiTokenInterceptor implements ServerInterceptor {
+    static final Context.Key<String> CLIENT_ID = Context.key("rednet-client-id");
+
+    private final Metadata.Key<String> apiTokenKey;
+    private final JwtParser apiTokenParser;
+    private final ObservationRegistry observationRegistry;
+
+    public ApiTokenInterceptor(
+        @Value("${rednet.app.security.api-token.cookie-name}") String apiTokenCookieName,
+        JwtUtil jwtUtil,
+        ObservationRegistry observationRegistry
+    ) {
+        this.apiTokenKey = Metadata.Key.of(apiTokenCookieName, Metadata.ASCII_STRING_MARSHALLER);
+        this.apiTokenParser = jwtUtil.getApiTokenParser();
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+        ServerCall<ReqT, RespT> call,
+        Metadata headers,
+        ServerCallHandler<ReqT, RespT> next
+    ) {
+        String subject = authenticate(headers.get(apiTokenKey));
+        String clientID = subject == null ? resolveRemoteAddress(call) : subject;
+
+        return Contexts.interceptCall(Context.current().withValue(CLIENT_ID, clientID), call, headers, next);
+    }
+
+    private String authenticate(String apiToken) {
+        if (apiToken == null) return null;
+
+        TokenVerifiedEvent verifiedEvent = new TokenVerifiedEvent();
+
+        verifiedEvent.tokenType = "api";
+        verifiedEvent.begin();
+
+        try {
+            Claims claims = Observation.createNotStarted("sessions.token.verify", observationRegistry)
+                .lowCardinalityKeyValue("type", "api")
+                .observe(() -> apiTokenParser.parseClaimsJws(apiToken).getBody());
+
+            verifiedEvent.end();
+            verifiedEvent.outcome = "valid";
+
+            return claims.getSubject();
+        } catch (
+            SignatureException |
+            MalformedJwtException |
+            ExpiredJwtException |
+            UnsupportedJwtException |
+            IllegalArgumentException e
+        ) {
+            verifiedEvent.outcome = "invalid";
+
+            return null;
+        } finally {
+            verifiedEvent.commit();
+        }
+    }
+
+    private String resolveRemoteAddress(ServerCall<?, ?> call) {
+        SocketAddress remoteAddress = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+
+        if (remoteAddress instanceof InetSocketAddress inetAddress && inetAddress.getAddress() != null) {
+            return inetAddress.getAddress().getHostAddress();
+        }
+
+        return String.valueOf(remoteAddress);
+    }
+}
@@ -0,0 +1,160 @@
+package com.rednet.sessionservice.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallExecutorSupplier;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs calls on a fixed number of threads. A new call is refused with UNAVAILABLE once the
+ * queue capacity of tasks are waiting for a thread; the decision is made on the
+ * transport thread before the call is queued, so refused calls take no executor capacity.
+ * Tasks of calls already admitted are always queued, because dropping one would leave its
+ * call hanging until the client deadline.
+ */
+@Component
+public class GrpcServer implements SmartLifecycle {
+    private static final Metadata.Key<String> REFUSED =
+        Metadata.Key.of("x-rednet-refused", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final Server server;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long shutdownTimeoutMs;
+    private final Counter refusedCalls;
+    private volatile boolean running;
+
+    @Autowired
+    public GrpcServer(
+        List<BindableService> services,
+        List<ServerInterceptor> interceptors,
+        @Value("${rednet.app.grpc.port}") int port,
+        @Value("${rednet.app.grpc.executor.threads}") int threads,
+        @Value("${rednet.app.grpc.executor.queue-capacity}") int queueCapacity,
+        @Value("${rednet.app.grpc.shutdown-timeout-ms}") long shutdownTimeoutMs,
+        MeterRegistry meterRegistry
+    ) {
+        this(ServerBuilder.forPort(port), services, interceptors, threads, queueCapacity, shutdownTimeoutMs, meterRegistry);
+    }
+
+    GrpcServer(
+        ServerBuilder<?> builder,
+        List<BindableService> services,
+        List<ServerInterceptor> interceptors,
+        int threads,
+        int queueCapacity,
+        long shutdownTimeoutMs,
+        MeterRegistry meterRegistry
+    ) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("gRPC executor threads and queue capacity should be positive");
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "grpc-executor-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.queueCapacity = queueCapacity;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        Gauge.builder("grpc.executor.queued", executor, pool -> pool.getQueue().size())
+            .description("gRPC tasks waiting for an executor thread")
+            .register(meterRegistry);
+
+        this.refusedCalls = Counter.builder("grpc.executor.refused")
+            .description("gRPC calls refused because the executor queue was full")
+            .register(meterRegistry);
+
+        builder
+            .directExecutor()
+            .callExecutor(new ServerCallExecutorSupplier() {
+                @Override
+                public <ReqT, RespT> Executor getExecutor(ServerCall<ReqT, RespT> call, Metadata headers) {
+                    headers.discardAll(REFUSED);
+
+                    if (executor.getQueue().size() < queueCapacity) return executor;
+
+                    headers.put(REFUSED, "true");
+                    return null;
+                }
+            });
+
+        ServerInterceptor refusing = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                ServerCall<ReqT, RespT> call,
+                Metadata headers,
+                ServerCallHandler<ReqT, RespT> next
+            ) {
+                if ( ! headers.containsKey(REFUSED)) return next.startCall(call, headers);
+
+                refusedCalls.increment();
+                call.close(Status.UNAVAILABLE.withDescription("gRPC executor is saturated"), new Metadata());
+
+                return new ServerCall.Listener<>() { };
+            }
+        };
+
+        services.forEach(service -> builder.addService(ServerInterceptors.intercept(
+            ServerInterceptors.interceptForward(service, interceptors),
+            refusing
+        )));
+
+        this.server = builder.build();
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+            running = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+
+        try {
+            if (!server.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) server.shutdownNow();
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        executor.shutdownNow();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
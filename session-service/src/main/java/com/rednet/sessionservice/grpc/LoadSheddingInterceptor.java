@@ -0,0 +1,106 @@
+package com.rednet.sessionservice.grpc;
+
+import com.rednet.sessionservice.grpc.proto.SessionServiceGrpc;
+import com.rednet.sessionservice.util.ConcurrencyLimiter;
+import com.rednet.sessionservice.util.ConcurrencyLimiter.Priority;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * gRPC counterpart of {@code LoadSheddingFilter}, sharing its concurrency limiter so both
+ * transports draw from the same limit. A call holds its slot until it is closed or cancelled.
+ * Streams in which the client sends several messages are not limited, as their lifetime says
+ * nothing about storage latency; each refresh on the batched stream is still rate limited
+ * per user by the service.
+ */
+@Component
+@Order(3)
+public class LoadSheddingInterceptor implements ServerInterceptor {
+    private static final Set<Status.Code> FAILURE_CODES = Set.of(
+        Status.Code.UNKNOWN,
+        Status.Code.INTERNAL,
+        Status.Code.UNAVAILABLE,
+        Status.Code.DATA_LOSS
+    );
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+    public LoadSheddingInterceptor(ConcurrencyLimiter concurrencyLimiter, MeterRegistry meterRegistry) {
+        this.concurrencyLimiter = concurrencyLimiter;
+
+        for (Priority priority : Priority.values()) {
+            rejections.put(priority, Counter.builder("sessions.concurrency.rejections")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+        ServerCall<ReqT, RespT> call,
+        Metadata headers,
+        ServerCallHandler<ReqT, RespT> next
+    ) {
+        if ( ! call.getMethodDescriptor().getType().clientSendsOneMessage()) return next.startCall(call, headers);
+
+        Priority priority = resolvePriority(call.getMethodDescriptor().getFullMethodName());
+
+        if ( ! concurrencyLimiter.tryAcquire(priority)) {
+            rejections.get(priority).increment();
+            call.close(Status.UNAVAILABLE.withDescription("session storage is overloaded"), new Metadata());
+
+            return new ServerCall.Listener<>() { };
+        }
+
+        long startedAt = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        ServerCall<ReqT, RespT> releasingCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                release(released, startedAt, FAILURE_CODES.contains(status.getCode()));
+                super.close(status, trailers);
+            }
+        };
+        ServerCall.Listener<ReqT> listener;
+
+        try {
+            listener = next.startCall(releasingCall, headers);
+        } catch (RuntimeException e) {
+            release(released, startedAt, true);
+            throw e;
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                release(released, startedAt, false);
+                super.onCancel();
+            }
+        };
+    }
+
+    private void release(AtomicBoolean released, long startedAt, boolean failed) {
+        if (released.compareAndSet(false, true)) concurrencyLimiter.release(System.nanoTime() - startedAt, failed);
+    }
+
+    private Priority resolvePriority(String fullMethodName) {
+        return fullMethodName.equals(SessionServiceGrpc.getListSessionsMethod().getFullMethodName())
+            ? Priority.LOW
+            : Priority.HIGH;
+    }
+}
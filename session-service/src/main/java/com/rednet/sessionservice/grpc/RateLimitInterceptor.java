@@ -0,0 +1,92 @@
+package com.rednet.sessionservice.grpc;
+
+import com.rednet.sessionservice.exception.impl.RateLimitExceededException;
+import com.rednet.sessionservice.grpc.proto.SessionServiceGrpc;
+import com.rednet.sessionservice.service.RateLimitService;
+import com.rednet.sessionservice.service.RateLimitService.Operation;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * gRPC counterpart of {@code RateLimitFilter}, charging creates and refreshes to the client
+ * identified by {@link ApiTokenInterceptor}. On the batched refresh stream every request is
+ * charged, and a client over its limit has the stream closed with RESOURCE_EXHAUSTED, as a
+ * single refresh would be.
+ */
+@Component
+@Order(2)
+public class RateLimitInterceptor implements ServerInterceptor {
+    private final RateLimitService rateLimitService;
+
+    public RateLimitInterceptor(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+        ServerCall<ReqT, RespT> call,
+        Metadata headers,
+        ServerCallHandler<ReqT, RespT> next
+    ) {
+        String fullMethodName = call.getMethodDescriptor().getFullMethodName();
+        String clientID = ApiTokenInterceptor.CLIENT_ID.get();
+
+        if (fullMethodName.equals(SessionServiceGrpc.getRefreshSessionsMethod().getFullMethodName())) {
+            return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+                private boolean closed;
+
+                @Override
+                public void onMessage(ReqT message) {
+                    if (closed) return;
+
+                    if (tryCharge(call, Operation.REFRESH, clientID)) {
+                        super.onMessage(message);
+                    } else {
+                        closed = true;
+                    }
+                }
+
+                @Override
+                public void onHalfClose() {
+                    if ( ! closed) super.onHalfClose();
+                }
+            };
+        }
+
+        Operation operation = resolveOperation(fullMethodName);
+
+        if (operation == null || tryCharge(call, operation, clientID)) return next.startCall(call, headers);
+
+        return new ServerCall.Listener<>() { };
+    }
+
+    private boolean tryCharge(ServerCall<?, ?> call, Operation operation, String clientID) {
+        try {
+            rateLimitService.checkClient(operation, clientID);
+
+            return true;
+        } catch (RateLimitExceededException e) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()), new Metadata());
+
+            return false;
+        }
+    }
+
+    private Operation resolveOperation(String fullMethodName) {
+        if (fullMethodName.equals(SessionServiceGrpc.getCreateSessionMethod().getFullMethodName())) {
+            return Operation.CREATE;
+        }
+
+        if (fullMethodName.equals(SessionServiceGrpc.getRefreshSessionMethod().getFullMethodName())) {
+            return Operation.REFRESH;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,201 @@
+package com.rednet.sessionservice.grpc;
+
+import com.google.protobuf.Empty;
+import com.rednet.sessionservice.exception.impl.InvalidTokenException;
+import com.rednet.sessionservice.exception.impl.RateLimitExceededException;
+import com.rednet.sessionservice.exception.impl.SessionNotFoundException;
+import com.rednet.sessionservice.exception.impl.SessionRemovingException;
+import com.rednet.sessionservice.exception.impl.SessionStorageUnavailableException;
+import com.rednet.sessionservice.exception.impl.UserSessionsNotFound;
+import com.rednet.sessionservice.exception.impl.UserSessionsRemovingException;
+import com.rednet.sessionservice.grpc.proto.CreateSessionRequest;
+import com.rednet.sessionservice.grpc.proto.DeleteSessionRequest;
+import com.rednet.sessionservice.grpc.proto.DeleteSessionsByUserIDRequest;
+import com.rednet.sessionservice.grpc.proto.Error;
+import com.rednet.sessionservice.grpc.proto.GetSessionRequest;
+import com.rednet.sessionservice.grpc.proto.ListSessionsRequest;
+import com.rednet.sessionservice.grpc.proto.RefreshSessionRequest;
+import com.rednet.sessionservice.grpc.proto.RefreshSessionResult;
+import com.rednet.sessionservice.grpc.proto.Session;
+import com.rednet.sessionservice.grpc.proto.SessionServiceGrpc;
+import com.rednet.sessionservice.service.SessionService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * gRPC counterpart of {@code SessionController}. Exceptions are mapped to the status codes
+ * matching the HTTP statuses of {@code GlobalExceptionHandler}. Batched refreshes report
+ * failures per request, so one bad refresh token does not close the stream.
+ */
+@Component
+public class SessionGrpcService extends SessionServiceGrpc.SessionServiceImplBase {
+    private final SessionService sessionService;
+
+    public SessionGrpcService(SessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @Override
+    public void createSession(CreateSessionRequest request, StreamObserver<Session> responseObserver) {
+        respond(responseObserver, () -> {
+            requireNotBlank(request.getUserId(), "UserID should be not blank");
+            if (request.getRolesCount() == 0) throw invalidArgument("There is should be at least one role");
+
+            return toProto(sessionService.createSession(
+                request.getUserId(),
+                request.getRolesList().toArray(String[]::new)
+            ));
+        });
+    }
+
+    @Override
+    public void getSession(GetSessionRequest request, StreamObserver<Session> responseObserver) {
+        respond(responseObserver, () -> {
+            requireNotBlank(request.getSessionId(), "SessionID min length is 1");
+
+            return toProto(sessionService.getSession(request.getSessionId()));
+        });
+    }
+
+    @Override
+    public void listSessions(ListSessionsRequest request, StreamObserver<Session> responseObserver) {
+        try {
+            requireNotBlank(request.getUserId(), "UserID min length is 1");
+
+            sessionService
+                .getSessionsByUserID(request.getUserId())
+                .forEach(session -> responseObserver.onNext(toProto(session)));
+
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    @Override
+    public void refreshSession(RefreshSessionRequest request, StreamObserver<Session> responseObserver) {
+        respond(responseObserver, () -> refresh(request));
+    }
+
+    @Override
+    public StreamObserver<RefreshSessionRequest> refreshSessions(
+        StreamObserver<RefreshSessionResult> responseObserver
+    ) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(RefreshSessionRequest request) {
+                RefreshSessionResult.Builder result = RefreshSessionResult.newBuilder();
+
+                try {
+                    result.setSession(refresh(request));
+                } catch (RuntimeException e) {
+                    Status status = toStatusException(e).getStatus();
+
+                    result.setError(Error.newBuilder()
+                        .setCode(status.getCode().value())
+                        .setMessage(status.getDescription() == null ? "" : status.getDescription()));
+                }
+
+                responseObserver.onNext(result.build());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                responseObserver.onError(throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void deleteSession(DeleteSessionRequest request, StreamObserver<Empty> responseObserver) {
+        respond(responseObserver, () -> {
+            requireNotBlank(request.getRefreshToken(), "Token should be not blank");
+            sessionService.deleteSession(request.getRefreshToken());
+
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    @Override
+    public void deleteSessionsByUserID(DeleteSessionsByUserIDRequest request, StreamObserver<Empty> responseObserver) {
+        respond(responseObserver, () -> {
+            requireNotBlank(request.getUserId(), "UserID min length is 1");
+            sessionService.deleteSessionsByUserID(request.getUserId());
+
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    private Session refresh(RefreshSessionRequest request) {
+        requireNotBlank(request.getRefreshToken(), "Token should be not blank");
+
+        return toProto(sessionService.refreshSession(request.getRefreshToken()));
+    }
+
+    private <T> void respond(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatusException(e));
+            return;
+        }
+
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private void requireNotBlank(String value, String message) {
+        if (value.isBlank()) throw invalidArgument(message);
+    }
+
+    private StatusRuntimeException invalidArgument(String message) {
+        return Status.INVALID_ARGUMENT.withDescription(message).asRuntimeException();
+    }
+
+    private StatusRuntimeException toStatusException(RuntimeException e) {
+        if (e instanceof StatusRuntimeException statusException) return statusException;
+
+        Status status;
+
+        if (e instanceof InvalidTokenException) {
+            status = Status.INVALID_ARGUMENT;
+        } else if (e instanceof SessionNotFoundException || e instanceof UserSessionsNotFound) {
+            status = Status.NOT_FOUND;
+        } else if (e instanceof RateLimitExceededException) {
+            status = Status.RESOURCE_EXHAUSTED;
+        } else if (e instanceof SessionStorageUnavailableException) {
+            status = Status.UNAVAILABLE;
+        } else if (e instanceof SessionRemovingException || e instanceof UserSessionsRemovingException) {
+            status = Status.INTERNAL;
+        } else {
+            status = Status.INTERNAL.withCause(e);
+        }
+
+        return status.withDescription(e.getMessage()).asRuntimeException();
+    }
+
+    private Session toProto(com.rednet.sessionservice.entity.Session session) {
+        Session.Builder builder = Session.newBuilder();
+
+        if (session.getUserID() != null) builder.setUserId(session.getUserID());
+        if (session.getSessionPostfix() != null) builder.setSessionPostfix(session.getSessionPostfix());
+        if (session.getCreatedAt() != null) builder.setCreatedAtMs(session.getCreatedAt().toEpochMilli());
+        if (session.getRoles() != null) for (String role : session.getRoles()) builder.addRoles(role);
+        if (session.getAccessToken() != null) builder.setAccessToken(session.getAccessToken());
+        if (session.getRefreshToken() != null) builder.setRefreshToken(session.getRefreshToken());
+        if (session.getTokenID() != null) builder.setTokenId(session.getTokenID());
+
+        return builder.build();
+    }
+}
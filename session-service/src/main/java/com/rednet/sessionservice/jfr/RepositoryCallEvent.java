@@ -0,0 +1,25 @@
+package com.rednet.sessionservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.rednet.session.RepositoryCall")
+@Label("Session Repository Call")
+@Category({"RedNet", "Session"})
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("User ID")
+    @Description("Partition key the call was made for")
+    public String userID;
+
+    @Label("Outcome")
+    @Description("success, failure, rejected by the open circuit breaker, or stale when served from the stale cache")
+    public String outcome;
+}
@@ -0,0 +1,21 @@
+package com.rednet.sessionservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.rednet.session.SessionCreated")
+@Label("Session Created")
+@Category({"RedNet", "Session"})
+@StackTrace(false)
+public class SessionCreatedEvent extends Event {
+    @Label("User ID")
+    @Description("Partition key of the session")
+    public String userID;
+
+    @Label("Outcome")
+    public String outcome;
+}
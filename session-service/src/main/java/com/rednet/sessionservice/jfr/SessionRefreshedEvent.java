@@ -0,0 +1,30 @@
+package com.rednet.sessionservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.rednet.session.SessionRefreshed")
+@Label("Session Refreshed")
+@Category({"RedNet", "Session"})
+@StackTrace(false)
+public class SessionRefreshedEvent extends Event {
+    @Label("User ID")
+    @Description("Partition key of the session")
+    public String userID;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Delete Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long deleteDuration;
+
+    @Label("Insert Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long insertDuration;
+}
@@ -0,0 +1,19 @@
+package com.rednet.sessionservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.rednet.session.TokenVerified")
+@Label("Token Verified")
+@Category({"RedNet", "Session"})
+@StackTrace(false)
+public class TokenVerifiedEvent extends Event {
+    @Label("Token Type")
+    public String tokenType;
+
+    @Label("Outcome")
+    public String outcome;
+}
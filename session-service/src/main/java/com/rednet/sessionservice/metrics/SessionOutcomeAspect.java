@@ -0,0 +1,78 @@
+package com.rednet.sessionservice.metrics;
+
+import com.rednet.sessionservice.exception.impl.InvalidTokenException;
+import com.rednet.sessionservice.exception.impl.SessionNotFoundException;
+import com.rednet.sessionservice.exception.impl.UserSessionsNotFound;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the outcome of every {@code SessionService} call as found, not found, invalid token
+ * or error. An empty introspection result is counted as an invalid token.
+ */
+@Aspect
+@Component
+public class SessionOutcomeAspect {
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<Outcome, Counter>> counters = new ConcurrentHashMap<>();
+
+    public SessionOutcomeAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.rednet.sessionservice.service.SessionService+.*(..))")
+    public Object countOutcome(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        Object result;
+
+        try {
+            result = joinPoint.proceed();
+        } catch (SessionNotFoundException | UserSessionsNotFound e) {
+            increment(operation, Outcome.NOT_FOUND);
+            throw e;
+        } catch (InvalidTokenException e) {
+            increment(operation, Outcome.INVALID_TOKEN);
+            throw e;
+        } catch (Throwable e) {
+            increment(operation, Outcome.ERROR);
+            throw e;
+        }
+
+        increment(operation, result instanceof Optional<?> optional && optional.isEmpty() ? Outcome.INVALID_TOKEN : Outcome.FOUND);
+
+        return result;
+    }
+
+    private void increment(String operation, Outcome outcome) {
+        counters.computeIfAbsent(operation, this::generateCounters).get(outcome).increment();
+    }
+
+    private Map<Outcome, Counter> generateCounters(String operation) {
+        Map<Outcome, Counter> operationCounters = new EnumMap<>(Outcome.class);
+
+        for (Outcome outcome : Outcome.values()) {
+            operationCounters.put(outcome, Counter.builder("sessions.outcomes")
+                .tag("operation", operation)
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry));
+        }
+
+        return operationCounters;
+    }
+
+    private enum Outcome {
+        FOUND,
+        NOT_FOUND,
+        INVALID_TOKEN,
+        ERROR
+    }
+}
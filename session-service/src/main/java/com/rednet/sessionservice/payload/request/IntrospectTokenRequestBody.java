@@ -0,0 +1,6 @@
+package com.rednet.sessionservice.payload.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record IntrospectTokenRequestBody(@NotBlank(message = "Token should be not blank") String accessToken) {
+}
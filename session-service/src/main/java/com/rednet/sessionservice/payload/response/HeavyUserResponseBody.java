@@ -0,0 +1,6 @@
+package com.rednet.sessionservice.payload.response;
+
+public record HeavyUserResponseBody(
+    String userID,
+    long estimatedSessions
+) {}
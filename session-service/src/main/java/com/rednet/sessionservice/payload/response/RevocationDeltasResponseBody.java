@@ -0,0 +1,11 @@
+package com.rednet.sessionservice.payload.response;
+
+import java.util.List;
+
+public record RevocationDeltasResponseBody(
+    String feedID,
+    long fromVersion,
+    long version,
+    boolean snapshotRequired,
+    List<String> revoked
+) {}
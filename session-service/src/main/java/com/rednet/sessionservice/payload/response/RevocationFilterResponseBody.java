@@ -0,0 +1,9 @@
+package com.rednet.sessionservice.payload.response;
+
+public record RevocationFilterResponseBody(
+    String feedID,
+    long version,
+    int bitCount,
+    int hashCount,
+    String bits
+) {}
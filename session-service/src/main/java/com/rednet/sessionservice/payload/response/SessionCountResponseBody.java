@@ -0,0 +1,6 @@
+package com.rednet.sessionservice.payload.response;
+
+public record SessionCountResponseBody(
+    String userID,
+    long count
+) {}
@@ -0,0 +1,16 @@
+package com.rednet.sessionservice.payload.response;
+
+import java.time.Instant;
+
+public record TokenIntrospectionResponseBody(
+    boolean active,
+    String userID,
+    String sessionID,
+    String tokenID,
+    String[] roles,
+    Instant expiresAt
+) {
+    public static TokenIntrospectionResponseBody inactive() {
+        return new TokenIntrospectionResponseBody(false, null, null, null, null, null);
+    }
+}
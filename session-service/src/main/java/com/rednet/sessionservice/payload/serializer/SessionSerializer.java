@@ -0,0 +1,65 @@
+package com.rednet.sessionservice.payload.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.rednet.sessionservice.entity.Session;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Streams {@link Session} response bodies straight to the generator with pre-encoded field
+ * names, producing the same document as the reflective bean serializer. Lists of sessions
+ * go through the regular collection serializer, which delegates each element here.
+ */
+@JsonComponent
+public class SessionSerializer extends StdSerializer<Session> {
+    private static final SerializedString USER_ID_FIELD = new SerializedString("userID");
+    private static final SerializedString SESSION_POSTFIX_FIELD = new SerializedString("sessionPostfix");
+    private static final SerializedString CREATED_AT_FIELD = new SerializedString("createdAt");
+    private static final SerializedString ROLES_FIELD = new SerializedString("roles");
+    private static final SerializedString ACCESS_TOKEN_FIELD = new SerializedString("accessToken");
+    private static final SerializedString REFRESH_TOKEN_FIELD = new SerializedString("refreshToken");
+    private static final SerializedString TOKEN_ID_FIELD = new SerializedString("tokenID");
+
+    public SessionSerializer() {
+        super(Session.class);
+    }
+
+    @Override
+    public void serialize(Session session, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(session);
+        generator.writeFieldName(USER_ID_FIELD);
+        generator.writeString(session.getUserID());
+        generator.writeFieldName(SESSION_POSTFIX_FIELD);
+        generator.writeString(session.getSessionPostfix());
+        generator.writeFieldName(CREATED_AT_FIELD);
+        generator.writeString(session.getCreatedAt() == null ? null : session.getCreatedAt().toString());
+        generator.writeFieldName(ROLES_FIELD);
+        writeRoles(session.getRoles(), generator);
+        generator.writeFieldName(ACCESS_TOKEN_FIELD);
+        generator.writeString(session.getAccessToken());
+        generator.writeFieldName(REFRESH_TOKEN_FIELD);
+        generator.writeString(session.getRefreshToken());
+        generator.writeFieldName(TOKEN_ID_FIELD);
+        generator.writeString(session.getTokenID());
+        generator.writeEndObject();
+    }
+
+    private void writeRoles(String[] roles, JsonGenerator generator) throws IOException {
+        if (roles == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartArray(roles, roles.length);
+
+        for (String role : roles) {
+            generator.writeString(role);
+        }
+
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,12 @@
+package com.rednet.sessionservice.repository;
+
+import com.rednet.sessionservice.entity.RevokedToken;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface RevocationRepository {
+    CompletableFuture<Void> insertAll           (String userID, List<RevokedToken> revokedTokens);
+    List<RevokedToken>      findRevokedSince    (Instant since);
+}
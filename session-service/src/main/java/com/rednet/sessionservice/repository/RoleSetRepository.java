@@ -0,0 +1,10 @@
+package com.rednet.sessionservice.repository;
+
+import com.rednet.sessionservice.entity.RoleSet;
+
+import java.util.Optional;
+
+public interface RoleSetRepository {
+    Optional<RoleSet> findByID(Long id);
+    RoleSet insert(RoleSet roleSet);
+}
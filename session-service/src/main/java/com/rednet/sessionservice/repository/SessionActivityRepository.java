@@ -0,0 +1,9 @@
+package com.rednet.sessionservice.repository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface SessionActivityRepository {
+    CompletableFuture<Void> saveLastSeen(String userID, Map<String, Instant> lastSeenBySessionPostfix);
+}
@@ -2,14 +2,28 @@ package com.rednet.sessionservice.repository;
 
 import com.rednet.sessionservice.entity.Session;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface SessionRepository {
     Optional<Session> findByID(String userID, String sessionPostfix);
     List<Session> findAllByUserID(String userID);
+
+    /**
+     * Lists the user's sessions with only their key and token ID set, for callers that need
+     * to identify the sessions but not their tokens or roles.
+     */
+    List<Session> findKeysByUserID(String userID);
     Session insert(Session session);
     boolean deleteByID(String userID, String sessionPostfix);
     boolean deleteAllByUserID(String userID);
     boolean existsByUserID(String userID);
+
+    /**
+     * Lists when the user's sessions expire, in epoch milliseconds. A session stored without
+     * a TTL never expires and is reported as {@code Long.MAX_VALUE}.
+     */
+    List<Long> findExpirationsByUserID(String userID);
+    void extendExpiration(Session session, long ttlMs, Instant observedAt);
 }
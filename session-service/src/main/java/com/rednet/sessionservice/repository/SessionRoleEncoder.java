@@ -0,0 +1,8 @@
+package com.rednet.sessionservice.repository;
+
+import com.rednet.sessionservice.entity.Session;
+
+public interface SessionRoleEncoder {
+    Session encode(Session session);
+    Session decode(Session session);
+}
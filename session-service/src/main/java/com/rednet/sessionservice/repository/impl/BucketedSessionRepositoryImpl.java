@@ -0,0 +1,225 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.BucketedSession;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.SessionRepository;
+import com.rednet.sessionservice.repository.SessionRoleEncoder;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.cassandra.core.AsyncCassandraOperations;
+import org.springframework.data.cassandra.core.CassandraOperations;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.UpdateOptions;
+import org.springframework.data.cassandra.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.data.cassandra.core.query.Criteria.where;
+import static org.springframework.data.cassandra.core.query.Query.query;
+
+/**
+ * Stores sessions of a user across a fixed number of partitions, so users with a very large
+ * session count do not end up in a single unbounded partition. The bucket is derived from
+ * the session postfix, which keeps lookups by session ID single-partition reads, while
+ * user-wide operations are fanned out to all buckets in parallel. Rows live as long as their
+ * refresh token, and the idle deadline is kept and checked as in {@link SessionRepositoryImpl}.
+ */
+@Repository
+@Qualifier("storage")
+@Profile("!in-memory & !edge")
+@ConditionalOnProperty(name = "rednet.app.session.partition.bucketed", havingValue = "true")
+public class BucketedSessionRepositoryImpl implements SessionRepository {
+    private final CassandraOperations operations;
+    private final AsyncCassandraOperations asyncOperations;
+    private final SessionRoleEncoder roleEncoder;
+    private final InsertOptions insertOptions;
+    private final int bucketCount;
+    private final long refreshTokenExpirationMs;
+    private final long idleTimeoutMs;
+
+    public BucketedSessionRepositoryImpl(
+        CassandraOperations operations,
+        AsyncCassandraOperations asyncOperations,
+        SessionRoleEncoder roleEncoder,
+        @Value("${rednet.app.security.refresh-token.expiration-ms}") long refreshTokenExpirationMs,
+        @Value("${rednet.app.session.sliding-expiry.idle-timeout-ms}") long idleTimeoutMs,
+        @Value("${rednet.app.session.partition.bucket-count}") int bucketCount
+    ) {
+        if (bucketCount < 1) throw new IllegalArgumentException("Bucket count should be positive");
+
+        this.operations = operations;
+        this.asyncOperations = asyncOperations;
+        this.roleEncoder = roleEncoder;
+        this.bucketCount = bucketCount;
+        this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+
+        this.insertOptions = InsertOptions.builder()
+            .ttl((int) MILLISECONDS.toSeconds(refreshTokenExpirationMs) + 10)
+            .build();
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findByID"})
+    public Optional<Session> findByID(String userID, String sessionPostfix) {
+        return Optional.ofNullable(operations.selectOne(query(List.of(
+            where("user_id").is(userID),
+            where("bucket").is(bucketOf(sessionPostfix)),
+            where("session_postfix").is(sessionPostfix)
+        )).limit(1), BucketedSession.class))
+            .filter(session -> SessionColumns.isActive(session, Instant.now()))
+            .map(roleEncoder::decode);
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findAllByUserID"})
+    public List<Session> findAllByUserID(String userID) {
+        Instant now = Instant.now();
+        List<Session> sessions = new ArrayList<>();
+
+        fanOut(userID, bucketQuery -> asyncOperations.select(bucketQuery, BucketedSession.class))
+            .forEach(sessions::addAll);
+
+        sessions.removeIf(session -> ! SessionColumns.isActive(session, now));
+        sessions.forEach(roleEncoder::decode);
+
+        return sessions;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findKeysByUserID"})
+    public List<Session> findKeysByUserID(String userID) {
+        List<Session> sessions = new ArrayList<>();
+
+        fanOut(userID, bucketQuery -> asyncOperations.select(
+            bucketQuery.columns(SessionColumns.KEYS),
+            BucketedSession.class
+        )).forEach(sessions::addAll);
+
+        return sessions;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "insert"})
+    public Session insert(Session session) {
+        BucketedSession bucketedSession = new BucketedSession(
+            roleEncoder.encode(session),
+            bucketOf(session.getSessionPostfix())
+        );
+
+        if (idleTimeoutMs > 0) {
+            bucketedSession.setActiveUntil(
+                bucketedSession.getCreatedAt().plusMillis(Math.min(idleTimeoutMs, refreshTokenExpirationMs))
+            );
+        }
+
+        return roleEncoder.decode(operations.insert(bucketedSession, insertOptions).getEntity());
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "deleteByID"})
+    public boolean deleteByID(String userID, String sessionPostfix) {
+        return operations.delete(query(List.of(
+            where("user_id").is(userID),
+            where("bucket").is(bucketOf(sessionPostfix)),
+            where("session_postfix").is(sessionPostfix)
+        )), BucketedSession.class);
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "deleteAllByUserID"})
+    public boolean deleteAllByUserID(String userID) {
+        return fanOut(userID, bucketQuery -> asyncOperations.delete(bucketQuery, BucketedSession.class))
+            .stream()
+            .allMatch(Boolean::booleanValue);
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "existsByUserID"})
+    public boolean existsByUserID(String userID) {
+        return fanOut(userID, bucketQuery -> asyncOperations.exists(bucketQuery, BucketedSession.class))
+            .stream()
+            .anyMatch(Boolean::booleanValue);
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findExpirationsByUserID"})
+    public List<Long> findExpirationsByUserID(String userID) {
+        long now = System.currentTimeMillis();
+        List<CompletableFuture<List<Long>>> futures = new ArrayList<>(bucketCount);
+
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            futures.add(asyncOperations.getAsyncCqlOperations().query(
+                "SELECT TTL(token_id), active_until FROM bucketed_sessions WHERE user_id = ? AND bucket = ?",
+                (row, rowNum) -> SessionColumns.expirationOf(row, now),
+                userID,
+                bucket
+            ));
+        }
+
+        return await(futures).stream()
+            .flatMap(List::stream)
+            .toList();
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "extendExpiration"})
+    public void extendExpiration(Session session, long ttlMs, Instant observedAt) {
+        long rowRemainingMs = session.getCreatedAt().toEpochMilli() + refreshTokenExpirationMs - observedAt.toEpochMilli();
+
+        if (rowRemainingMs < 1000) return;
+
+        operations.update(
+            query(List.of(
+                where("user_id").is(session.getUserID()),
+                where("bucket").is(bucketOf(session.getSessionPostfix())),
+                where("session_postfix").is(session.getSessionPostfix()),
+                where("created_at").is(session.getCreatedAt())
+            )).queryOptions(UpdateOptions.builder()
+                .ttl((int) MILLISECONDS.toSeconds(rowRemainingMs))
+                .timestamp(observedAt)
+                .build()),
+            SessionColumns.idleDeadlineOf(observedAt.plusMillis(ttlMs)),
+            BucketedSession.class
+        );
+    }
+
+    private int bucketOf(String sessionPostfix) {
+        return Math.floorMod(sessionPostfix.hashCode(), bucketCount);
+    }
+
+    private <T> List<T> fanOut(String userID, Function<Query, CompletableFuture<T>> bucketOperation) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(bucketCount);
+
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            futures.add(bucketOperation.apply(query(List.of(
+                where("user_id").is(userID),
+                where("bucket").is(bucket)
+            ))));
+        }
+
+        return await(futures);
+    }
+
+    private <T> List<T> await(List<CompletableFuture<T>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,193 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.exception.impl.SessionStorageUnavailableException;
+import com.rednet.sessionservice.jfr.RepositoryCallEvent;
+import com.rednet.sessionservice.repository.SessionRepository;
+import com.rednet.sessionservice.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Guards the Cassandra repository with a circuit breaker. While the breaker is open, writes
+ * fail fast and single-session reads are answered from copies of recently read or written
+ * sessions that are no older than the staleness bound.
+ */
+@Primary
+@Repository
+public class CircuitBreakingSessionRepository implements SessionRepository {
+    private final SessionRepository sessionRepository;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache<String, Session> staleSessions;
+
+    public CircuitBreakingSessionRepository(
+        @Qualifier("storage") SessionRepository sessionRepository,
+        CircuitBreaker circuitBreaker,
+        @Value("${rednet.app.session.stale-cache.max-size}") long staleCacheMaxSize,
+        @Value("${rednet.app.session.stale-cache.staleness-ms}") long stalenessMs
+    ) {
+        this.sessionRepository = sessionRepository;
+        this.circuitBreaker = circuitBreaker;
+        this.staleSessions = Caffeine.newBuilder()
+            .maximumSize(staleCacheMaxSize)
+            .expireAfterWrite(Duration.ofMillis(stalenessMs))
+            .build();
+    }
+
+    @Override
+    public Optional<Session> findByID(String userID, String sessionPostfix) {
+        String key = generateKey(userID, sessionPostfix);
+
+        if ( ! circuitBreaker.tryAcquire()) {
+            Session staleSession = staleSessions.getIfPresent(key);
+            RepositoryCallEvent event = new RepositoryCallEvent();
+
+            event.operation = "findByID";
+            event.userID = userID;
+            event.outcome = staleSession == null ? "rejected" : "stale";
+            event.commit();
+
+            if (staleSession == null) throw new SessionStorageUnavailableException();
+
+            return Optional.of(copy(staleSession));
+        }
+
+        Optional<Session> session = call("findByID", userID, () -> sessionRepository.findByID(userID, sessionPostfix));
+
+        session.ifPresentOrElse(
+            foundSession -> staleSessions.put(key, copy(foundSession)),
+            () -> staleSessions.invalidate(key)
+        );
+
+        return session;
+    }
+
+    @Override
+    public List<Session> findAllByUserID(String userID) {
+        return guardedCall("findAllByUserID", userID, () -> sessionRepository.findAllByUserID(userID));
+    }
+
+    @Override
+    public List<Session> findKeysByUserID(String userID) {
+        return guardedCall("findKeysByUserID", userID, () -> sessionRepository.findKeysByUserID(userID));
+    }
+
+    @Override
+    public Session insert(Session session) {
+        Session insertedSession = guardedCall("insert", session.getUserID(), () -> sessionRepository.insert(session));
+
+        staleSessions.put(generateKey(session.getUserID(), session.getSessionPostfix()), copy(insertedSession));
+
+        return insertedSession;
+    }
+
+    @Override
+    public boolean deleteByID(String userID, String sessionPostfix) {
+        return guardedCall("deleteByID", userID, () -> {
+            staleSessions.invalidate(generateKey(userID, sessionPostfix));
+
+            return sessionRepository.deleteByID(userID, sessionPostfix);
+        });
+    }
+
+    @Override
+    public boolean deleteAllByUserID(String userID) {
+        return guardedCall("deleteAllByUserID", userID, () -> {
+            staleSessions.asMap().keySet().removeIf(key -> key.startsWith(userID + "."));
+
+            return sessionRepository.deleteAllByUserID(userID);
+        });
+    }
+
+    @Override
+    public boolean existsByUserID(String userID) {
+        return guardedCall("existsByUserID", userID, () -> sessionRepository.existsByUserID(userID));
+    }
+
+    @Override
+    public List<Long> findExpirationsByUserID(String userID) {
+        return guardedCall(
+            "findExpirationsByUserID",
+            userID,
+            () -> sessionRepository.findExpirationsByUserID(userID)
+        );
+    }
+
+    @Override
+    public void extendExpiration(Session session, long ttlMs, Instant observedAt) {
+        guardedCall("extendExpiration", session.getUserID(), () -> {
+            sessionRepository.extendExpiration(session, ttlMs, observedAt);
+
+            return null;
+        });
+    }
+
+    private <T> T guardedCall(String operationName, String userID, Supplier<T> operation) {
+        if ( ! circuitBreaker.tryAcquire()) {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+
+            event.operation = operationName;
+            event.userID = userID;
+            event.outcome = "rejected";
+            event.commit();
+
+            throw new SessionStorageUnavailableException();
+        }
+
+        return call(operationName, userID, operation);
+    }
+
+    private <T> T call(String operationName, String userID, Supplier<T> operation) {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        T result;
+
+        event.operation = operationName;
+        event.userID = userID;
+        event.begin();
+
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            event.outcome = "failure";
+            event.commit();
+            throw e;
+        }
+
+        circuitBreaker.onSuccess();
+        event.outcome = "success";
+        event.commit();
+
+        return result;
+    }
+
+    private String generateKey(String userID, String sessionPostfix) {
+        return userID + "." + sessionPostfix;
+    }
+
+    private Session copy(Session session) {
+        Session copy = new Session(
+            session.getUserID(),
+            session.getSessionPostfix(),
+            session.getCreatedAt(),
+            session.getRoles(),
+            session.getAccessToken(),
+            session.getRefreshToken(),
+            session.getTokenID()
+        );
+
+        copy.setRoleSetID(session.getRoleSetID());
+
+        return copy;
+    }
+}
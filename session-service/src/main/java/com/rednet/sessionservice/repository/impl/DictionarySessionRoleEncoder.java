@@ -0,0 +1,91 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.sessionservice.entity.RoleSet;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.RoleSetRepository;
+import com.rednet.sessionservice.repository.SessionRoleEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the roles of a session as the ID of a role set kept in the {@code role_sets} table.
+ * Role set IDs are derived from the role names, so every instance computes the same ID for
+ * the same roles and dictionary writes are idempotent. Resolved role sets are cached, and
+ * every decoded session gets its own copy of the roles.
+ */
+@Component
+@ConditionalOnProperty(name = "rednet.app.session.role-sets.dictionary", havingValue = "true")
+public class DictionarySessionRoleEncoder implements SessionRoleEncoder {
+    private final RoleSetRepository roleSetRepository;
+    private final Cache<List<String>, Long> roleSetIDs;
+    private final RoleSetCache roleSets;
+
+    public DictionarySessionRoleEncoder(
+        RoleSetRepository roleSetRepository,
+        @Value("${rednet.app.session.role-sets.cache-size}") long cacheSize
+    ) {
+        this.roleSetRepository = roleSetRepository;
+        this.roleSetIDs = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.roleSets = new RoleSetCache(() -> roleSetRepository, cacheSize);
+    }
+
+    @Override
+    public Session encode(Session session) {
+        if (session.getRoles() == null) return session;
+
+        Long roleSetID = roleSetIDs.get(Arrays.asList(session.getRoles().clone()), this::storeRoleSet);
+        Session encodedSession = new Session(
+            session.getUserID(),
+            session.getSessionPostfix(),
+            session.getCreatedAt(),
+            null,
+            session.getAccessToken(),
+            session.getRefreshToken(),
+            session.getTokenID()
+        );
+
+        encodedSession.setRoleSetID(roleSetID);
+
+        return encodedSession;
+    }
+
+    @Override
+    public Session decode(Session session) {
+        return roleSets.decode(session);
+    }
+
+    private Long storeRoleSet(List<String> roles) {
+        String[] roleArray = roles.toArray(String[]::new);
+        Long roleSetID = generateRoleSetID(roles);
+
+        roleSetRepository.insert(new RoleSet(roleSetID, roleArray));
+        roleSets.put(roleSetID, roleArray);
+
+        return roleSetID;
+    }
+
+    private Long generateRoleSetID(List<String> roles) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            for (String role : roles) {
+                digest.update(String.valueOf(role).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
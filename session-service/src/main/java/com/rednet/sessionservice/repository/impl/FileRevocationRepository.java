@@ -0,0 +1,142 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.RevokedToken;
+import com.rednet.sessionservice.repository.RevocationRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Keeps the revocations of single-node deployments in an append-only file next to the session
+ * log, so revoked access tokens stay revoked across restarts. Each line holds the revocation
+ * time in epoch milliseconds and the revoked key. The file is rewritten without expired lines
+ * on start and whenever it has grown to more than twice the live revocations.
+ */
+@Repository
+@Profile("edge")
+public class FileRevocationRepository implements RevocationRepository, DisposableBean {
+    private static final String FILE_NAME = "revocations.log";
+
+    private final NavigableSet<RevokedToken> revokedTokens = new TreeSet<>(
+        Comparator.comparing(RevokedToken::getRevokedAt).thenComparing(RevokedToken::getKey)
+    );
+    private final Path file;
+    private final long retentionMs;
+
+    private FileChannel channel;
+    private int lineCount;
+
+    public FileRevocationRepository(
+        @Value("${rednet.app.session.mapped-log.directory}") String directory,
+        @Value("${rednet.app.security.access-token.expiration-ms}") long accessTokenExpirationMs,
+        @Value("${rednet.app.security.access-token.allowed-clock-skew-s}") long accessTokenAllowedClockSkewS
+    ) {
+        this.file = Path.of(directory).resolve(FILE_NAME);
+        this.retentionMs = accessTokenExpirationMs + SECONDS.toMillis(accessTokenAllowedClockSkewS);
+
+        try {
+            Files.createDirectories(file.getParent());
+
+            if (Files.exists(file)) {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    int separatorIndex = line.indexOf(' ');
+
+                    if (separatorIndex < 1) continue;
+
+                    revokedTokens.add(new RevokedToken(
+                        line.substring(separatorIndex + 1),
+                        Instant.ofEpochMilli(Long.parseLong(line.substring(0, separatorIndex)))
+                    ));
+                }
+            }
+
+            rewrite();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> insertAll(String userID, List<RevokedToken> revokedTokens) {
+        StringBuilder lines = new StringBuilder();
+
+        for (RevokedToken revokedToken : revokedTokens) {
+            lines.append(revokedToken.getRevokedAt().toEpochMilli()).append(' ').append(revokedToken.getKey()).append('\n');
+        }
+
+        try {
+            channel.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+
+            this.revokedTokens.addAll(revokedTokens);
+            lineCount += revokedTokens.size();
+
+            if (lineCount > 2 * this.revokedTokens.size() + 1024) rewrite();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public synchronized List<RevokedToken> findRevokedSince(Instant since) {
+        removeExpired();
+
+        return List.copyOf(revokedTokens.tailSet(new RevokedToken("", since)));
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        channel.force(true);
+        channel.close();
+    }
+
+    private void rewrite() throws IOException {
+        removeExpired();
+
+        Path temporaryFile = file.resolveSibling(FILE_NAME + ".tmp");
+        StringBuilder lines = new StringBuilder();
+
+        for (RevokedToken revokedToken : revokedTokens) {
+            lines.append(revokedToken.getRevokedAt().toEpochMilli()).append(' ').append(revokedToken.getKey()).append('\n');
+        }
+
+        try (FileChannel temporaryChannel = FileChannel.open(temporaryFile, CREATE, WRITE)) {
+            temporaryChannel.truncate(0);
+            temporaryChannel.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+            temporaryChannel.force(true);
+        }
+
+        if (channel != null) channel.close();
+
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(file, CREATE, WRITE, APPEND);
+        lineCount = revokedTokens.size();
+    }
+
+    private void removeExpired() {
+        revokedTokens.headSet(new RevokedToken("", Instant.now().minusMillis(retentionMs))).clear();
+    }
+}
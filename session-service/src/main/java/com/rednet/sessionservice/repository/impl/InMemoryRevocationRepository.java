@@ -0,0 +1,52 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.RevokedToken;
+import com.rednet.sessionservice.repository.RevocationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Revocation store of the load-test profile. Revocations are lost on restart, which is only
+ * acceptable because that profile runs with throwaway signing keys.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryRevocationRepository implements RevocationRepository {
+    private final NavigableSet<RevokedToken> revokedTokens = new ConcurrentSkipListSet<>(
+        Comparator.comparing(RevokedToken::getRevokedAt).thenComparing(RevokedToken::getKey)
+    );
+    private final long retentionMs;
+
+    public InMemoryRevocationRepository(
+        @Value("${rednet.app.security.access-token.expiration-ms}") long accessTokenExpirationMs,
+        @Value("${rednet.app.security.access-token.allowed-clock-skew-s}") long accessTokenAllowedClockSkewS
+    ) {
+        this.retentionMs = accessTokenExpirationMs + SECONDS.toMillis(accessTokenAllowedClockSkewS);
+    }
+
+    @Override
+    public CompletableFuture<Void> insertAll(String userID, List<RevokedToken> revokedTokens) {
+        this.revokedTokens.addAll(revokedTokens);
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public List<RevokedToken> findRevokedSince(Instant since) {
+        Instant expiredBefore = Instant.now().minusMillis(retentionMs);
+
+        revokedTokens.headSet(new RevokedToken("", expiredBefore)).clear();
+
+        return List.copyOf(revokedTokens.tailSet(new RevokedToken("", since)));
+    }
+}
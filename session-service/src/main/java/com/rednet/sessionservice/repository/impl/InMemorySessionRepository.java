@@ -0,0 +1,255 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.SessionRepository;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Stand-in for the Cassandra repositories used to load-test the service without a cluster.
+ * Sessions are kept per user partition ordered by session postfix, expire after the same TTL
+ * the Cassandra repositories write with, and deletes report success whether or not a row
+ * existed, as unconditional CQL deletes do. Every call is delayed by the configured latency
+ * plus a random jitter to approximate a round trip to the cluster.
+ */
+@Repository
+@Qualifier("storage")
+@Profile("in-memory")
+public class InMemorySessionRepository implements SessionRepository {
+    private final Map<String, NavigableMap<String, StoredSession>> partitions = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepAt = new AtomicLong(System.currentTimeMillis());
+    private final long ttlMs;
+    private final long latencyNanos;
+    private final long latencyJitterNanos;
+    private final long sweepIntervalMs;
+
+    public InMemorySessionRepository(
+        @Value("${rednet.app.security.refresh-token.expiration-ms}") long refreshTokenExpirationMs,
+        @Value("${rednet.app.session.sliding-expiry.idle-timeout-ms}") long idleTimeoutMs,
+        @Value("${rednet.app.session.in-memory.latency-ms}") double latencyMs,
+        @Value("${rednet.app.session.in-memory.latency-jitter-ms}") double latencyJitterMs,
+        @Value("${rednet.app.session.in-memory.sweep-interval-ms}") long sweepIntervalMs
+    ) {
+        this.ttlMs = MILLISECONDS.toSeconds(
+            idleTimeoutMs > 0 ? Math.min(idleTimeoutMs, refreshTokenExpirationMs) : refreshTokenExpirationMs
+        ) * 1000 + 10000;
+        this.latencyNanos = (long) (latencyMs * 1_000_000);
+        this.latencyJitterNanos = (long) (latencyJitterMs * 1_000_000);
+        this.sweepIntervalMs = sweepIntervalMs;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findByID"})
+    public Optional<Session> findByID(String userID, String sessionPostfix) {
+        simulateLatency();
+
+        NavigableMap<String, StoredSession> partition = partitions.get(userID);
+        StoredSession storedSession = partition == null ? null : partition.get(sessionPostfix);
+        long now = System.currentTimeMillis();
+
+        if (storedSession == null || storedSession.isExpired(now)) return Optional.empty();
+
+        return Optional.of(copy(storedSession.session()));
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findAllByUserID"})
+    public List<Session> findAllByUserID(String userID) {
+        simulateLatency();
+
+        NavigableMap<String, StoredSession> partition = partitions.get(userID);
+        List<Session> sessions = new ArrayList<>();
+
+        if (partition == null) return sessions;
+
+        long now = System.currentTimeMillis();
+
+        for (StoredSession storedSession : partition.values()) {
+            if ( ! storedSession.isExpired(now)) sessions.add(copy(storedSession.session()));
+        }
+
+        return sessions;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findKeysByUserID"})
+    public List<Session> findKeysByUserID(String userID) {
+        simulateLatency();
+
+        NavigableMap<String, StoredSession> partition = partitions.get(userID);
+        List<Session> sessions = new ArrayList<>();
+
+        if (partition == null) return sessions;
+
+        long now = System.currentTimeMillis();
+
+        for (StoredSession storedSession : partition.values()) {
+            if (storedSession.isExpired(now)) continue;
+
+            Session session = storedSession.session();
+
+            sessions.add(new Session(
+                session.getUserID(),
+                session.getSessionPostfix(),
+                session.getCreatedAt(),
+                null,
+                null,
+                null,
+                session.getTokenID()
+            ));
+        }
+
+        return sessions;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "insert"})
+    public Session insert(Session session) {
+        simulateLatency();
+
+        long now = System.currentTimeMillis();
+
+        partitions.compute(session.getUserID(), (userID, partition) -> {
+            NavigableMap<String, StoredSession> target = partition == null ? new ConcurrentSkipListMap<>() : partition;
+
+            target.put(session.getSessionPostfix(), new StoredSession(copy(session), now + ttlMs));
+
+            return target;
+        });
+
+        sweepExpired(now);
+
+        return session;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "deleteByID"})
+    public boolean deleteByID(String userID, String sessionPostfix) {
+        simulateLatency();
+
+        partitions.computeIfPresent(userID, (key, partition) -> {
+            partition.remove(sessionPostfix);
+
+            return partition.isEmpty() ? null : partition;
+        });
+
+        return true;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "deleteAllByUserID"})
+    public boolean deleteAllByUserID(String userID) {
+        simulateLatency();
+
+        partitions.remove(userID);
+
+        return true;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "existsByUserID"})
+    public boolean existsByUserID(String userID) {
+        simulateLatency();
+
+        NavigableMap<String, StoredSession> partition = partitions.get(userID);
+
+        if (partition == null) return false;
+
+        long now = System.currentTimeMillis();
+
+        return partition.values().stream().anyMatch(storedSession -> ! storedSession.isExpired(now));
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findExpirationsByUserID"})
+    public List<Long> findExpirationsByUserID(String userID) {
+        simulateLatency();
+
+        NavigableMap<String, StoredSession> partition = partitions.get(userID);
+
+        if (partition == null) return List.of();
+
+        long now = System.currentTimeMillis();
+
+        return partition.values().stream()
+            .filter(storedSession -> ! storedSession.isExpired(now))
+            .map(StoredSession::expiresAt)
+            .toList();
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "extendExpiration"})
+    public void extendExpiration(Session session, long ttlMs, Instant observedAt) {
+        simulateLatency();
+
+        long now = System.currentTimeMillis();
+
+        partitions.computeIfPresent(session.getUserID(), (userID, partition) -> {
+            partition.computeIfPresent(session.getSessionPostfix(), (sessionPostfix, storedSession) ->
+                storedSession.isExpired(now) || ! storedSession.session().getTokenID().equals(session.getTokenID())
+                    ? storedSession
+                    : new StoredSession(storedSession.session(), now + ttlMs)
+            );
+
+            return partition;
+        });
+    }
+
+    private void simulateLatency() {
+        long delay = latencyNanos;
+
+        if (latencyJitterNanos > 0) delay += ThreadLocalRandom.current().nextLong(latencyJitterNanos);
+        if (delay > 0) LockSupport.parkNanos(delay);
+    }
+
+    private void sweepExpired(long now) {
+        long previousSweepAt = lastSweepAt.get();
+
+        if (now - previousSweepAt < sweepIntervalMs || ! lastSweepAt.compareAndSet(previousSweepAt, now)) return;
+
+        partitions.keySet().forEach(userID -> partitions.computeIfPresent(userID, (key, partition) -> {
+            partition.values().removeIf(storedSession -> storedSession.isExpired(now));
+
+            return partition.isEmpty() ? null : partition;
+        }));
+    }
+
+    private Session copy(Session session) {
+        Session copy = new Session(
+            session.getUserID(),
+            session.getSessionPostfix(),
+            session.getCreatedAt(),
+            session.getRoles() == null ? null : session.getRoles().clone(),
+            session.getAccessToken(),
+            session.getRefreshToken(),
+            session.getTokenID()
+        );
+
+        copy.setRoleSetID(session.getRoleSetID());
+
+        return copy;
+    }
+
+    private record StoredSession(Session session, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
@@ -0,0 +1,618 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.SessionRepository;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Keeps sessions in a memory-mapped append-only log for deployments without Cassandra. Two
+ * off-heap hash indexes point into the log: one by session ID, and one by user ID that leads
+ * to the newest record of the user, from which older records are chained. Neither sessions nor
+ * index entries live on the heap between calls, so millions of sessions add no GC pressure.
+ *
+ * <p>Deletes append tombstones. Once dead and superseded records make up enough of the log,
+ * or the compaction interval has passed, a background thread copies live unexpired records
+ * into the next generation of segment files. Writers pass through a separate mutation lock
+ * that compaction holds while copying, so writes wait for it but reads keep being served from
+ * the current generation; the read-write lock is only taken exclusively to swap generations.
+ * The generation in use is recorded in a manifest that is replaced atomically, and the log of
+ * that generation is replayed on start. Writes reach the page cache immediately, so they
+ * survive a process crash, and are forced to disk on compaction and shutdown.
+ */
+@Repository
+@Qualifier("storage")
+@Profile("edge")
+public class MappedLogSessionRepository implements SessionRepository, DisposableBean {
+    private static final String MANIFEST = "MANIFEST";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock mutationLock = new ReentrantLock();
+    private final ExecutorService compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mapped-log-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Path directory;
+    private final int segmentSize;
+    private final int indexCapacity;
+    private final long ttlMs;
+    private final double compactionGarbageRatio;
+    private final long compactionMinBytes;
+    private final long compactionIntervalMs;
+
+    private SessionLog log;
+    private OffHeapHashIndex sessionIndex;
+    private OffHeapHashIndex userIndex;
+    private long liveBytes;
+    private long lastCompactedAt = System.currentTimeMillis();
+    private long lastCompactionFailedAt;
+    private boolean compactionScheduled;
+
+    public MappedLogSessionRepository(
+        @Value("${rednet.app.session.mapped-log.directory}") String directory,
+        @Value("${rednet.app.session.mapped-log.segment-size-mb}") int segmentSizeMb,
+        @Value("${rednet.app.session.mapped-log.index-capacity}") int indexCapacity,
+        @Value("${rednet.app.session.mapped-log.compaction-garbage-ratio}") double compactionGarbageRatio,
+        @Value("${rednet.app.session.mapped-log.compaction-min-mb}") long compactionMinMb,
+        @Value("${rednet.app.session.mapped-log.compaction-interval-ms}") long compactionIntervalMs,
+        @Value("${rednet.app.security.refresh-token.expiration-ms}") long refreshTokenExpirationMs,
+        @Value("${rednet.app.session.sliding-expiry.idle-timeout-ms}") long idleTimeoutMs
+    ) {
+        if (segmentSizeMb < 1 || segmentSizeMb > 1024) {
+            throw new IllegalArgumentException("Segment size should be between 1 and 1024 MB");
+        }
+
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeMb << 20;
+        this.indexCapacity = indexCapacity;
+        this.ttlMs = MILLISECONDS.toSeconds(
+            idleTimeoutMs > 0 ? Math.min(idleTimeoutMs, refreshTokenExpirationMs) : refreshTokenExpirationMs
+        ) * 1000 + 10000;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+        this.compactionMinBytes = compactionMinMb << 20;
+        this.compactionIntervalMs = compactionIntervalMs;
+
+        recover();
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findByID"})
+    public Optional<Session> findByID(String userID, String sessionPostfix) {
+        lock.readLock().lock();
+
+        try {
+            int slot = findSessionSlot(userID, sessionPostfix);
+
+            if (slot < 0 || sessionIndex.expiresAtAt(slot) <= System.currentTimeMillis()) return Optional.empty();
+
+            return Optional.of(readSession(sessionIndex.offsetAt(slot)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findAllByUserID"})
+    public List<Session> findAllByUserID(String userID) {
+        List<Session> sessions = new ArrayList<>();
+
+        lock.readLock().lock();
+
+        try {
+            long now = System.currentTimeMillis();
+
+            forEachUserRecord(userID, offset -> {
+                Session session = readSession(offset);
+                int slot = findSessionSlot(userID, session.getSessionPostfix());
+
+                if (slot >= 0 && sessionIndex.offsetAt(slot) == offset && sessionIndex.expiresAtAt(slot) > now) {
+                    sessions.add(session);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        sessions.sort(Comparator.comparing(Session::getSessionPostfix));
+
+        return sessions;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findKeysByUserID"})
+    public List<Session> findKeysByUserID(String userID) {
+        List<Session> sessions = new ArrayList<>();
+
+        lock.readLock().lock();
+
+        try {
+            long now = System.currentTimeMillis();
+
+            forEachUserRecord(userID, offset -> {
+                Session session = readSessionKey(offset);
+                int slot = findSessionSlot(userID, session.getSessionPostfix());
+
+                if (slot >= 0 && sessionIndex.offsetAt(slot) == offset && sessionIndex.expiresAtAt(slot) > now) {
+                    sessions.add(session);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return sessions;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "insert"})
+    public Session insert(Session session) {
+        return mutate(() -> {
+            put(session, System.currentTimeMillis() + ttlMs);
+
+            return session;
+        });
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "deleteByID"})
+    public boolean deleteByID(String userID, String sessionPostfix) {
+        return mutate(() -> {
+            if (findSessionSlot(userID, sessionPostfix) < 0) return true;
+
+            log.append(SessionLog.DELETE, 0, OffHeapHashIndex.NONE, writer -> {
+                writer.putString(userID);
+                writer.putString(sessionPostfix);
+            });
+
+            applyDelete(userID, sessionPostfix);
+            compactIfNeeded();
+
+            return true;
+        });
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "deleteAllByUserID"})
+    public boolean deleteAllByUserID(String userID) {
+        return mutate(() -> {
+            if (userHeadOffset(userID) == OffHeapHashIndex.NONE) return true;
+
+            log.append(SessionLog.DELETE_USER, 0, OffHeapHashIndex.NONE, writer -> writer.putString(userID));
+
+            applyDeleteUser(userID);
+            compactIfNeeded();
+
+            return true;
+        });
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "existsByUserID"})
+    public boolean existsByUserID(String userID) {
+        return ! findAllByUserID(userID).isEmpty();
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findExpirationsByUserID"})
+    public List<Long> findExpirationsByUserID(String userID) {
+        List<Long> expirations = new ArrayList<>();
+
+        lock.readLock().lock();
+
+        try {
+            long now = System.currentTimeMillis();
+
+            forEachUserRecord(userID, offset -> {
+                SessionLog.Reader payload = log.reader(offset);
+
+                payload.skipStringEqualTo(userID);
+
+                int slot = findSessionSlot(userID, payload.getString());
+
+                if (slot >= 0 && sessionIndex.offsetAt(slot) == offset && sessionIndex.expiresAtAt(slot) > now) {
+                    expirations.add(sessionIndex.expiresAtAt(slot));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return expirations;
+    }
+
+    /**
+     * Appends the current version of the session again with the new expiry. Only the record
+     * header differs from the one it supersedes, which is reclaimed by the next compaction.
+     */
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "extendExpiration"})
+    public void extendExpiration(Session session, long ttlMs, Instant observedAt) {
+        mutate(() -> {
+            long now = System.currentTimeMillis();
+            int slot = findSessionSlot(session.getUserID(), session.getSessionPostfix());
+
+            if (slot < 0 || sessionIndex.expiresAtAt(slot) <= now) return null;
+
+            Session currentSession = readSession(sessionIndex.offsetAt(slot));
+
+            if (currentSession.getTokenID().equals(session.getTokenID())) put(currentSession, now + ttlMs);
+
+            return null;
+        });
+    }
+
+    /**
+     * Waits for a running compaction to finish before forcing the log to disk.
+     */
+    @Override
+    public void destroy() {
+        compactionExecutor.shutdown();
+
+        try {
+            compactionExecutor.awaitTermination(1, MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        mutate(() -> {
+            log.force();
+
+            return null;
+        });
+    }
+
+    private <T> T mutate(Supplier<T> mutation) {
+        mutationLock.lock();
+        lock.writeLock().lock();
+
+        try {
+            return mutation.get();
+        } finally {
+            lock.writeLock().unlock();
+            mutationLock.unlock();
+        }
+    }
+
+    private void put(Session session, long expiresAt) {
+        long offset = log.append(SessionLog.PUT, expiresAt, userHeadOffset(session.getUserID()), encode(session));
+
+        applyPut(offset, expiresAt, session.getUserID(), session.getSessionPostfix());
+        compactIfNeeded();
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+
+            Path manifest = directory.resolve(MANIFEST);
+            long generation = Files.exists(manifest) ? Long.parseLong(Files.readString(manifest).trim()) : 0;
+
+            deleteOtherGenerations(generation);
+
+            log = new SessionLog(directory, generation, segmentSize);
+            sessionIndex = new OffHeapHashIndex(indexCapacity);
+            userIndex = new OffHeapHashIndex(indexCapacity / 4);
+            liveBytes = 0;
+
+            log.replay((offset, type, expiresAt, length, payload) -> {
+                String userID = payload.getString();
+
+                switch (type) {
+                    case SessionLog.PUT -> applyPut(offset, expiresAt, userID, payload.getString());
+                    case SessionLog.DELETE -> applyDelete(userID, payload.getString());
+                    case SessionLog.DELETE_USER -> applyDeleteUser(userID);
+                    default -> throw new IllegalStateException("Unknown record type " + type + " at " + offset);
+                }
+            });
+
+            if ( ! Files.exists(manifest)) writeManifest(generation);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void applyPut(long offset, long expiresAt, String userID, String sessionPostfix) {
+        long previousOffset = sessionIndex.put(
+            hash(userID, sessionPostfix),
+            offset,
+            expiresAt,
+            candidate -> isRecordOf(candidate, userID, sessionPostfix)
+        );
+
+        if (previousOffset != OffHeapHashIndex.NONE) liveBytes -= log.lengthAt(previousOffset);
+
+        liveBytes += log.lengthAt(offset);
+        userIndex.put(hash(userID), offset, 0, candidate -> isRecordOf(candidate, userID, null));
+    }
+
+    private void applyDelete(String userID, String sessionPostfix) {
+        long previousOffset = sessionIndex.remove(
+            hash(userID, sessionPostfix),
+            candidate -> isRecordOf(candidate, userID, sessionPostfix)
+        );
+
+        if (previousOffset != OffHeapHashIndex.NONE) liveBytes -= log.lengthAt(previousOffset);
+    }
+
+    private void applyDeleteUser(String userID) {
+        forEachUserRecord(userID, offset -> {
+            SessionLog.Reader payload = log.reader(offset);
+
+            payload.skipStringEqualTo(userID);
+
+            long hash = hash(userID, payload.getString());
+
+            if (sessionIndex.remove(hash, candidate -> candidate == offset) != OffHeapHashIndex.NONE) {
+                liveBytes -= log.lengthAt(offset);
+            }
+        });
+
+        userIndex.remove(hash(userID), candidate -> isRecordOf(candidate, userID, null));
+    }
+
+    /**
+     * Schedules a compaction when one is due. Called by writers, which hold the mutation lock
+     * that guards the scheduling state.
+     */
+    private void compactIfNeeded() {
+        long now = System.currentTimeMillis();
+        long garbageBytes = log.size() - liveBytes;
+        boolean garbageExceeded = log.size() >= compactionMinBytes && garbageBytes >= log.size() * compactionGarbageRatio;
+        boolean intervalPassed = now - lastCompactedAt >= compactionIntervalMs;
+        boolean failedRecently = now - lastCompactionFailedAt < compactionIntervalMs;
+
+        if (compactionScheduled || failedRecently || compactionExecutor.isShutdown()) return;
+        if ( ! garbageExceeded && ! intervalPassed) return;
+
+        compactionScheduled = true;
+        compactionExecutor.execute(this::compact);
+    }
+
+    /**
+     * Builds the next generation under the mutation lock alone, so readers keep using the
+     * current one, and then swaps the generations under the exclusive lock. If building fails,
+     * the partial generation is discarded and compaction is not retried for an interval.
+     */
+    private void compact() {
+        mutationLock.lock();
+
+        long now = System.currentTimeMillis();
+        SessionLog nextLog = new SessionLog(directory, log.generation() + 1, segmentSize);
+
+        try {
+            OffHeapHashIndex nextSessionIndex = new OffHeapHashIndex(Math.max(indexCapacity, sessionIndex.size() * 2));
+            OffHeapHashIndex nextUserIndex = new OffHeapHashIndex(Math.max(indexCapacity / 4, userIndex.size() * 2));
+            long[] nextLiveBytes = {0};
+
+            nextLog.create();
+
+            sessionIndex.forEach((hash, offset, expiresAt) -> {
+                if (expiresAt <= now) return;
+
+                Session session = readSession(log, offset);
+                String userID = session.getUserID();
+                int userSlot = nextUserIndex.find(hash(userID), candidate -> isRecordOf(nextLog, candidate, userID, null));
+                long nextOffset = nextLog.append(
+                    SessionLog.PUT,
+                    expiresAt,
+                    userSlot < 0 ? OffHeapHashIndex.NONE : nextUserIndex.offsetAt(userSlot),
+                    encode(session)
+                );
+
+                nextSessionIndex.put(hash, nextOffset, expiresAt, candidate -> false);
+                nextUserIndex.put(hash(userID), nextOffset, 0, candidate -> isRecordOf(nextLog, candidate, userID, null));
+                nextLiveBytes[0] += nextLog.lengthAt(nextOffset);
+            });
+
+            nextLog.force();
+
+            SessionLog previousLog = log;
+
+            lock.writeLock().lock();
+
+            try {
+                writeManifest(nextLog.generation());
+
+                log = nextLog;
+                sessionIndex = nextSessionIndex;
+                userIndex = nextUserIndex;
+                liveBytes = nextLiveBytes[0];
+                lastCompactedAt = now;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            previousLog.delete();
+        } catch (RuntimeException e) {
+            if (log != nextLog) nextLog.delete();
+
+            lastCompactionFailedAt = now;
+        } finally {
+            compactionScheduled = false;
+            mutationLock.unlock();
+        }
+    }
+
+    private SessionLog.Payload encode(Session session) {
+        return writer -> {
+            writer.putString(session.getUserID());
+            writer.putString(session.getSessionPostfix());
+            writer.putLong(session.getCreatedAt() == null ? Long.MIN_VALUE : session.getCreatedAt().getEpochSecond());
+            writer.putInt(session.getCreatedAt() == null ? 0 : session.getCreatedAt().getNano());
+            writer.putInt(session.getRoles() == null ? -1 : session.getRoles().length);
+
+            if (session.getRoles() != null) {
+                for (String role : session.getRoles()) writer.putString(role);
+            }
+
+            writer.putString(session.getAccessToken());
+            writer.putString(session.getRefreshToken());
+            writer.putString(session.getTokenID());
+            writer.putLong(session.getRoleSetID() == null ? Long.MIN_VALUE : session.getRoleSetID());
+        };
+    }
+
+    private int findSessionSlot(String userID, String sessionPostfix) {
+        return sessionIndex.find(hash(userID, sessionPostfix), offset -> isRecordOf(offset, userID, sessionPostfix));
+    }
+
+    private long userHeadOffset(String userID) {
+        int slot = userIndex.find(hash(userID), offset -> isRecordOf(offset, userID, null));
+
+        return slot < 0 ? OffHeapHashIndex.NONE : userIndex.offsetAt(slot);
+    }
+
+    private void forEachUserRecord(String userID, LongConsumer action) {
+        for (long offset = userHeadOffset(userID); offset != OffHeapHashIndex.NONE; offset = log.previousOffsetAt(offset)) {
+            action.accept(offset);
+        }
+    }
+
+    private boolean isRecordOf(long offset, String userID, String sessionPostfix) {
+        return isRecordOf(log, offset, userID, sessionPostfix);
+    }
+
+    private boolean isRecordOf(SessionLog source, long offset, String userID, String sessionPostfix) {
+        SessionLog.Reader payload = source.reader(offset);
+
+        return payload.skipStringEqualTo(userID) && (sessionPostfix == null || payload.skipStringEqualTo(sessionPostfix));
+    }
+
+    private Session readSession(long offset) {
+        return readSession(log, offset);
+    }
+
+    private Session readSession(SessionLog source, long offset) {
+        SessionLog.Reader payload = source.reader(offset);
+        String userID = payload.getString();
+        String sessionPostfix = payload.getString();
+        long createdAtSeconds = payload.getLong();
+        int createdAtNanos = payload.getInt();
+        int roleCount = payload.getInt();
+        String[] roles = roleCount < 0 ? null : new String[roleCount];
+
+        for (int i = 0; i < roleCount; i++) roles[i] = payload.getString();
+
+        Session session = new Session(
+            userID,
+            sessionPostfix,
+            createdAtSeconds == Long.MIN_VALUE ? null : Instant.ofEpochSecond(createdAtSeconds, createdAtNanos),
+            roles,
+            payload.getString(),
+            payload.getString(),
+            payload.getString()
+        );
+        long roleSetID = payload.getLong();
+
+        session.setRoleSetID(roleSetID == Long.MIN_VALUE ? null : roleSetID);
+
+        return session;
+    }
+
+    /**
+     * Reads the key and token ID of the record, skipping the tokens and roles in between.
+     */
+    private Session readSessionKey(long offset) {
+        SessionLog.Reader payload = log.reader(offset);
+        String userID = payload.getString();
+        String sessionPostfix = payload.getString();
+        long createdAtSeconds = payload.getLong();
+        int createdAtNanos = payload.getInt();
+        int roleCount = payload.getInt();
+
+        for (int i = 0; i < roleCount; i++) payload.skipString();
+
+        payload.skipString();
+        payload.skipString();
+
+        return new Session(
+            userID,
+            sessionPostfix,
+            createdAtSeconds == Long.MIN_VALUE ? null : Instant.ofEpochSecond(createdAtSeconds, createdAtNanos),
+            null,
+            null,
+            null,
+            payload.getString()
+        );
+    }
+
+    private void writeManifest(long generation) {
+        try {
+            Path temporaryManifest = directory.resolve(MANIFEST + ".tmp");
+
+            Files.writeString(temporaryManifest, Long.toString(generation), StandardCharsets.UTF_8);
+            Files.move(
+                temporaryManifest,
+                directory.resolve(MANIFEST),
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteOtherGenerations(long generation) throws IOException {
+        String currentPrefix = "sessions-" + generation + "-";
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+
+                if (name.startsWith("sessions-") && ! name.startsWith(currentPrefix)) Files.delete(file);
+            }
+        }
+    }
+
+    private static long hash(String userID) {
+        return mix(feed(FNV_OFFSET_BASIS, userID));
+    }
+
+    private static long hash(String userID, String sessionPostfix) {
+        return mix(feed((feed(FNV_OFFSET_BASIS, userID) ^ '.') * FNV_PRIME, sessionPostfix));
+    }
+
+    private static long feed(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,154 @@
+package com.rednet.sessionservice.repository.impl;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing hash table kept in a direct buffer, mapping 64-bit key hashes to log offsets
+ * and expiry timestamps. Keys themselves live in the log, so lookups take a predicate that
+ * confirms a candidate offset really holds the key, which resolves hash collisions. Not
+ * thread-safe; callers guard it with the repository lock.
+ */
+final class OffHeapHashIndex {
+    static final long NONE = -1;
+
+    private static final int ENTRY_BYTES = 24;
+    private static final long DELETED = -2;
+    private static final double MAX_LOAD = 0.75;
+
+    private ByteBuffer table;
+    private int mask;
+    private int size;
+    private int occupied;
+
+    OffHeapHashIndex(int minCapacity) {
+        allocate(Integer.highestOneBit(Math.max(16, minCapacity - 1)) << 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the slot holding a key matching the predicate, or {@code -1}.
+     */
+    int find(long hash, LongPredicate matches) {
+        for (int slot = slotOf(hash); ; slot = (slot + 1) & mask) {
+            long offset = offsetAt(slot);
+
+            if (offset == NONE) return -1;
+            if (offset != DELETED && hashAt(slot) == hash && matches.test(offset)) return slot;
+        }
+    }
+
+    long offsetAt(int slot) {
+        return table.getLong(slot * ENTRY_BYTES + 8);
+    }
+
+    long expiresAtAt(int slot) {
+        return table.getLong(slot * ENTRY_BYTES + 16);
+    }
+
+    /**
+     * Points the key matching the predicate at a new offset and returns the previous offset,
+     * or {@link #NONE} when the key was absent.
+     */
+    long put(long hash, long offset, long expiresAt, LongPredicate matches) {
+        int slot = find(hash, matches);
+
+        if (slot >= 0) {
+            long previousOffset = offsetAt(slot);
+
+            write(slot, hash, offset, expiresAt);
+
+            return previousOffset;
+        }
+
+        if (occupied + 1 > (mask + 1) * MAX_LOAD) resize(size + 1 > (mask + 1) * MAX_LOAD / 2 ? (mask + 1) << 1 : mask + 1);
+
+        insert(hash, offset, expiresAt);
+        size++;
+
+        return NONE;
+    }
+
+    /**
+     * Removes the key matching the predicate and returns its offset, or {@link #NONE}.
+     */
+    long remove(long hash, LongPredicate matches) {
+        int slot = find(hash, matches);
+
+        if (slot < 0) return NONE;
+
+        long offset = offsetAt(slot);
+
+        table.putLong(slot * ENTRY_BYTES + 8, DELETED);
+        size--;
+
+        return offset;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot <= mask; slot++) {
+            long offset = offsetAt(slot);
+
+            if (offset >= 0) consumer.accept(hashAt(slot), offset, expiresAtAt(slot));
+        }
+    }
+
+    private void insert(long hash, long offset, long expiresAt) {
+        int slot = slotOf(hash);
+
+        while (offsetAt(slot) >= 0) slot = (slot + 1) & mask;
+
+        if (offsetAt(slot) == NONE) occupied++;
+
+        write(slot, hash, offset, expiresAt);
+    }
+
+    private void resize(int capacity) {
+        ByteBuffer previousTable = table;
+        int previousCapacity = mask + 1;
+
+        allocate(capacity);
+
+        for (int slot = 0; slot < previousCapacity; slot++) {
+            long offset = previousTable.getLong(slot * ENTRY_BYTES + 8);
+
+            if (offset >= 0) {
+                insert(previousTable.getLong(slot * ENTRY_BYTES), offset, previousTable.getLong(slot * ENTRY_BYTES + 16));
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        if (capacity > Integer.MAX_VALUE / ENTRY_BYTES) throw new IllegalStateException("Index capacity exceeded");
+
+        table = ByteBuffer.allocateDirect(capacity * ENTRY_BYTES);
+        mask = capacity - 1;
+        occupied = 0;
+
+        for (int slot = 0; slot < capacity; slot++) table.putLong(slot * ENTRY_BYTES + 8, NONE);
+    }
+
+    private void write(int slot, long hash, long offset, long expiresAt) {
+        int position = slot * ENTRY_BYTES;
+
+        table.putLong(position, hash);
+        table.putLong(position + 8, offset);
+        table.putLong(position + 16, expiresAt);
+    }
+
+    private long hashAt(int slot) {
+        return table.getLong(slot * ENTRY_BYTES);
+    }
+
+    private int slotOf(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long hash, long offset, long expiresAt);
+    }
+}
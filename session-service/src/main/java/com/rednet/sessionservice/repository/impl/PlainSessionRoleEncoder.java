@@ -0,0 +1,37 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.RoleSetRepository;
+import com.rednet.sessionservice.repository.SessionRoleEncoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores roles inline. Sessions written while the role-set dictionary was enabled still carry
+ * only a role set ID, so those are resolved through the dictionary and dictionary mode can be
+ * turned off again without breaking existing sessions.
+ */
+@Component
+@ConditionalOnProperty(name = "rednet.app.session.role-sets.dictionary", havingValue = "false", matchIfMissing = true)
+public class PlainSessionRoleEncoder implements SessionRoleEncoder {
+    private final RoleSetCache roleSets;
+
+    public PlainSessionRoleEncoder(
+        ObjectProvider<RoleSetRepository> roleSetRepository,
+        @Value("${rednet.app.session.role-sets.cache-size}") long cacheSize
+    ) {
+        this.roleSets = new RoleSetCache(roleSetRepository::getIfAvailable, cacheSize);
+    }
+
+    @Override
+    public Session encode(Session session) {
+        return session;
+    }
+
+    @Override
+    public Session decode(Session session) {
+        return roleSets.decode(session);
+    }
+}
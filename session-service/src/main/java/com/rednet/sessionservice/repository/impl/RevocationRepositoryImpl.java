@@ -0,0 +1,147 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.rednet.sessionservice.entity.RevokedToken;
+import com.rednet.sessionservice.repository.RevocationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.cassandra.core.AsyncCassandraOperations;
+import org.springframework.data.cassandra.core.cql.AsyncSessionCallback;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.data.cassandra.core.query.Criteria.where;
+import static org.springframework.data.cassandra.core.query.Query.query;
+
+/**
+ * Stores revoked tokens in partitions of one time bucket and one shard each, so every instance
+ * can read the revocations since its last poll from a few buckets, while the writes of a bucket
+ * are spread over several partitions instead of all landing on one. The shard is derived from
+ * the user ID, so the revocations of one user are written as one unlogged batch per bucket,
+ * with an insert prepared on the first write, and reads fan out to all shards of each bucket in
+ * parallel. Rows expire once the revoked access tokens can no longer be accepted. The bucket
+ * after the current one is read as well, in case the instance that wrote a revocation has a
+ * clock running ahead.
+ */
+@Repository
+@Profile("!in-memory & !edge")
+public class RevocationRepositoryImpl implements RevocationRepository {
+    private static final String INSERT_REVOKED_TOKEN =
+        "INSERT INTO revoked_tokens (bucket, shard, revoked_at, token_key) VALUES (?, ?, ?, ?) USING TTL ?";
+
+    private final AsyncCassandraOperations asyncOperations;
+    private final int ttlSeconds;
+    private final long bucketMs;
+    private final int shardCount;
+    private final AtomicReference<CompletableFuture<PreparedStatement>> insertRevokedToken = new AtomicReference<>();
+
+    public RevocationRepositoryImpl(
+        AsyncCassandraOperations asyncOperations,
+        @Value("${rednet.app.security.access-token.expiration-ms}") long accessTokenExpirationMs,
+        @Value("${rednet.app.security.access-token.allowed-clock-skew-s}") long accessTokenAllowedClockSkewS,
+        @Value("${rednet.app.session.revocation.bucket-ms}") long bucketMs,
+        @Value("${rednet.app.session.revocation.shard-count}") int shardCount
+    ) {
+        if (shardCount < 1) throw new IllegalArgumentException("Revocation shard count should be positive");
+
+        this.asyncOperations = asyncOperations;
+        this.bucketMs = bucketMs;
+        this.shardCount = shardCount;
+        this.ttlSeconds = (int) (MILLISECONDS.toSeconds(accessTokenExpirationMs) + accessTokenAllowedClockSkewS) + 1;
+    }
+
+    @Override
+    public CompletableFuture<Void> insertAll(String userID, List<RevokedToken> revokedTokens) {
+        int shard = Math.floorMod(userID.hashCode(), shardCount);
+
+        return prepareInsertRevokedToken().thenCompose(statement -> insertAll(statement, shard, revokedTokens));
+    }
+
+    @Override
+    public List<RevokedToken> findRevokedSince(Instant since) {
+        List<CompletableFuture<List<RevokedToken>>> futures = new ArrayList<>();
+        long lastBucket = System.currentTimeMillis() / bucketMs + 1;
+
+        for (long bucket = since.toEpochMilli() / bucketMs; bucket <= lastBucket; bucket++) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                futures.add(asyncOperations.select(query(List.of(
+                    where("bucket").is(bucket),
+                    where("shard").is(shard),
+                    where("revoked_at").gte(since)
+                )), RevokedToken.class));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+
+        List<RevokedToken> revokedTokens = new ArrayList<>();
+
+        futures.forEach(future -> revokedTokens.addAll(future.join()));
+
+        return revokedTokens;
+    }
+
+    private CompletableFuture<Void> insertAll(
+        PreparedStatement insertRevokedToken,
+        int shard,
+        List<RevokedToken> revokedTokens
+    ) {
+        Map<Long, BatchStatementBuilder> batches = new LinkedHashMap<>();
+
+        for (RevokedToken revokedToken : revokedTokens) {
+            revokedToken.setBucket(revokedToken.getRevokedAt().toEpochMilli() / bucketMs);
+            revokedToken.setShard(shard);
+
+            batches
+                .computeIfAbsent(revokedToken.getBucket(), bucket -> BatchStatement.builder(DefaultBatchType.UNLOGGED))
+                .addStatement(insertRevokedToken.bind(
+                    revokedToken.getBucket(),
+                    shard,
+                    revokedToken.getRevokedAt(),
+                    revokedToken.getKey(),
+                    ttlSeconds
+                ));
+        }
+
+        return CompletableFuture.allOf(batches.values().stream()
+            .map(batch -> asyncOperations.getAsyncCqlOperations().execute(batch.build()))
+            .toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<PreparedStatement> prepareInsertRevokedToken() {
+        CompletableFuture<PreparedStatement> prepared = insertRevokedToken.get();
+
+        if (prepared != null && ! prepared.isCompletedExceptionally()) return prepared;
+
+        CompletableFuture<PreparedStatement> preparing = new CompletableFuture<>();
+
+        if ( ! insertRevokedToken.compareAndSet(prepared, preparing)) return insertRevokedToken.get();
+
+        asyncOperations.getAsyncCqlOperations()
+            .execute((AsyncSessionCallback<PreparedStatement>) session ->
+                session.prepareAsync(INSERT_REVOKED_TOKEN).toCompletableFuture())
+            .whenComplete((statement, error) -> {
+                if (error == null) preparing.complete(statement);
+                else preparing.completeExceptionally(error);
+            });
+
+        return preparing;
+    }
+}
@@ -0,0 +1,50 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.rednet.sessionservice.entity.RoleSet;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.RoleSetRepository;
+
+import java.util.function.Supplier;
+
+/**
+ * Resolves role set IDs to role names through the {@code role_sets} table. Callers get their own
+ * copy of the cached roles, so a session changing its roles cannot alter other sessions.
+ */
+class RoleSetCache {
+    private final Supplier<RoleSetRepository> roleSetRepository;
+    private final LoadingCache<Long, String[]> roleSets;
+
+    RoleSetCache(Supplier<RoleSetRepository> roleSetRepository, long cacheSize) {
+        this.roleSetRepository = roleSetRepository;
+        this.roleSets = Caffeine.newBuilder().maximumSize(cacheSize).build(this::loadRoleSet);
+    }
+
+    String[] get(Long roleSetID) {
+        return roleSets.get(roleSetID).clone();
+    }
+
+    void put(Long roleSetID, String[] roles) {
+        roleSets.put(roleSetID, roles.clone());
+    }
+
+    Session decode(Session session) {
+        if (session.getRoles() == null && session.getRoleSetID() != null) {
+            session.setRoles(get(session.getRoleSetID()));
+        }
+
+        return session;
+    }
+
+    private String[] loadRoleSet(Long roleSetID) {
+        RoleSetRepository repository = roleSetRepository.get();
+
+        if (repository == null) throw new IllegalStateException("role set " + roleSetID + " cannot be resolved");
+
+        return repository
+            .findByID(roleSetID)
+            .map(RoleSet::getRoles)
+            .orElseThrow(() -> new IllegalStateException("role set " + roleSetID + " not found"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.RoleSet;
+import com.rednet.sessionservice.repository.RoleSetRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.cassandra.core.CassandraOperations;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+@Profile("!in-memory & !edge")
+public class RoleSetRepositoryImpl implements RoleSetRepository {
+    private final CassandraOperations operations;
+
+    public RoleSetRepositoryImpl(CassandraOperations operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public Optional<RoleSet> findByID(Long id) {
+        return Optional.ofNullable(operations.selectOneById(id, RoleSet.class));
+    }
+
+    @Override
+    public RoleSet insert(RoleSet roleSet) {
+        return operations.insert(roleSet);
+    }
+}
@@ -0,0 +1,110 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.rednet.sessionservice.repository.SessionActivityRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.cassandra.core.AsyncCassandraOperations;
+import org.springframework.data.cassandra.core.cql.AsyncSessionCallback;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Writes the last-seen timestamps of one user as unlogged batches, which stay on a single
+ * partition and so cost one round trip to its replicas. Every cell is written with its
+ * last-seen time as the write timestamp, so when several instances flush the same session
+ * the latest activity wins regardless of the order the writes arrive in. Rows expire with
+ * the longest possible session lifetime. The update is prepared on the first flush and
+ * prepared again only if that failed.
+ */
+@Repository
+@Profile("!in-memory & !edge")
+public class SessionActivityRepositoryImpl implements SessionActivityRepository {
+    private static final String UPDATE_LAST_SEEN =
+        "UPDATE session_activity USING TTL ? AND TIMESTAMP ? SET last_seen = ? WHERE user_id = ? AND session_postfix = ?";
+    private static final int MAX_BATCH_STATEMENTS = 50;
+
+    private final AsyncCassandraOperations asyncOperations;
+    private final int ttlSeconds;
+    private final AtomicReference<CompletableFuture<PreparedStatement>> updateLastSeen = new AtomicReference<>();
+
+    public SessionActivityRepositoryImpl(
+        AsyncCassandraOperations asyncOperations,
+        @Value("${rednet.app.security.refresh-token.expiration-ms}") long refreshTokenExpirationMs
+    ) {
+        this.asyncOperations = asyncOperations;
+        this.ttlSeconds = (int) MILLISECONDS.toSeconds(refreshTokenExpirationMs) + 10;
+    }
+
+    @Override
+    public CompletableFuture<Void> saveLastSeen(String userID, Map<String, Instant> lastSeenBySessionPostfix) {
+        return prepareUpdateLastSeen().thenCompose(statement -> saveLastSeen(statement, userID, lastSeenBySessionPostfix));
+    }
+
+    private CompletableFuture<Void> saveLastSeen(
+        PreparedStatement updateLastSeen,
+        String userID,
+        Map<String, Instant> lastSeenBySessionPostfix
+    ) {
+        ByteBuffer routingKey = TypeCodecs.TEXT.encode(userID, ProtocolVersion.DEFAULT);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        BatchStatementBuilder batch = BatchStatement.builder(DefaultBatchType.UNLOGGED).setRoutingKey(routingKey);
+
+        for (Map.Entry<String, Instant> lastSeen : lastSeenBySessionPostfix.entrySet()) {
+            Instant seenAt = lastSeen.getValue();
+
+            batch.addStatement(updateLastSeen.bind(
+                ttlSeconds,
+                seenAt.getEpochSecond() * 1_000_000 + seenAt.getNano() / 1000,
+                seenAt,
+                userID,
+                lastSeen.getKey()
+            ));
+
+            if (batch.getStatementsCount() == MAX_BATCH_STATEMENTS) {
+                futures.add(asyncOperations.getAsyncCqlOperations().execute(batch.build()));
+                batch = BatchStatement.builder(DefaultBatchType.UNLOGGED).setRoutingKey(routingKey);
+            }
+        }
+
+        if (batch.getStatementsCount() > 0) {
+            futures.add(asyncOperations.getAsyncCqlOperations().execute(batch.build()));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<PreparedStatement> prepareUpdateLastSeen() {
+        CompletableFuture<PreparedStatement> prepared = updateLastSeen.get();
+
+        if (prepared != null && ! prepared.isCompletedExceptionally()) return prepared;
+
+        CompletableFuture<PreparedStatement> preparing = new CompletableFuture<>();
+
+        if ( ! updateLastSeen.compareAndSet(prepared, preparing)) return updateLastSeen.get();
+
+        asyncOperations.getAsyncCqlOperations()
+            .execute((AsyncSessionCallback<PreparedStatement>) session ->
+                session.prepareAsync(UPDATE_LAST_SEEN).toCompletableFuture())
+            .whenComplete((statement, error) -> {
+                if (error == null) preparing.complete(statement);
+                else preparing.completeExceptionally(error);
+            });
+
+        return preparing;
+    }
+}
@@ -0,0 +1,47 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.rednet.sessionservice.entity.Session;
+import org.springframework.data.cassandra.core.query.Columns;
+import org.springframework.data.cassandra.core.query.Update;
+
+import java.time.Instant;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Builds the CQL updates shared by the Cassandra session repositories.
+ */
+final class SessionColumns {
+    static final Columns KEYS = Columns.from("user_id", "session_postfix", "created_at", "token_id");
+
+    private SessionColumns() {
+    }
+
+    /**
+     * Sets only the idle deadline of a session, so extending an active session writes one
+     * narrow cell instead of rewriting the tokens with a new TTL.
+     */
+    static Update idleDeadlineOf(Instant activeUntil) {
+        return Update.empty().set("active_until", activeUntil);
+    }
+
+    /**
+     * Tells whether a stored session is still within its idle deadline. Sessions written while
+     * the idle timeout was disabled have no deadline and live as long as their row.
+     */
+    static boolean isActive(Session session, Instant now) {
+        return session.getActiveUntil() == null || session.getActiveUntil().isAfter(now);
+    }
+
+    /**
+     * Reads when a session expires, in epoch milliseconds, from a row selecting the TTL of its
+     * token ID and its idle deadline, in that order.
+     */
+    static long expirationOf(Row row, long now) {
+        long expiresAt = row.isNull(0) ? Long.MAX_VALUE : now + SECONDS.toMillis(row.getInt(0));
+        Instant activeUntil = row.getInstant(1);
+
+        return activeUntil == null ? expiresAt : Math.min(expiresAt, activeUntil.toEpochMilli());
+    }
+}
@@ -0,0 +1,358 @@
+package com.rednet.sessionservice.repository.impl;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only record log split into fixed-size memory-mapped segment files. A record never
+ * spans two segments and is addressed by its global offset. Every record carries a CRC, so a
+ * record torn by a crash is detected on replay and the log is truncated in front of it.
+ *
+ * <p>Record layout: length (int, whole record), CRC32C (int, over the rest of the record),
+ * type (byte), expiry (long, epoch ms), offset of the previous record of the same user (long),
+ * then the payload. Not thread-safe; callers guard it with the repository lock.
+ */
+final class SessionLog {
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final byte DELETE_USER = 3;
+    static final int HEADER_BYTES = 25;
+
+    private final Path directory;
+    private final long generation;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(4096);
+    private long writeOffset;
+
+    SessionLog(Path directory, long generation, int segmentSize) {
+        this.directory = directory;
+        this.generation = generation;
+        this.segmentSize = segmentSize;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    long size() {
+        return writeOffset;
+    }
+
+    /**
+     * Maps the existing segments of this generation and hands every intact record to the
+     * visitor in log order. Everything after the first corrupt or incomplete record is erased.
+     */
+    void replay(RecordVisitor visitor) {
+        List<Path> files = listSegmentFiles();
+
+        for (Path file : files) segments.add(map(file));
+
+        if (segments.isEmpty()) {
+            segments.add(map(segmentFile(0)));
+            return;
+        }
+
+        for (int segmentIndex = 0; segmentIndex < segments.size(); segmentIndex++) {
+            MappedByteBuffer segment = segments.get(segmentIndex);
+            int position = 0;
+
+            while (true) {
+                int length = position + 4 <= segmentSize ? segment.getInt(position) : 0;
+
+                if (length == 0) break;
+
+                if ( ! isIntact(segment, position, length)) {
+                    truncate(segmentIndex, position);
+                    return;
+                }
+
+                long offset = (long) segmentIndex * segmentSize + position;
+
+                visitor.visit(
+                    offset,
+                    segment.get(position + 8),
+                    segment.getLong(position + 9),
+                    length,
+                    reader(offset)
+                );
+
+                position += length;
+            }
+
+            writeOffset = (long) segmentIndex * segmentSize + position;
+        }
+    }
+
+    /**
+     * Discards any segments left over for this generation and maps an empty first segment.
+     */
+    void create() {
+        delete();
+        segments.add(map(segmentFile(0)));
+    }
+
+    long append(byte type, long expiresAt, long previousOffset, Payload payload) {
+        recordBuffer.clear().position(HEADER_BYTES);
+        payload.writeTo(this);
+
+        int length = recordBuffer.position();
+
+        if (length > segmentSize) throw new IllegalArgumentException("Record of " + length + " bytes exceeds segment");
+
+        recordBuffer
+            .putInt(0, length)
+            .put(8, type)
+            .putLong(9, expiresAt)
+            .putLong(17, previousOffset);
+
+        crc.reset();
+        crc.update(recordBuffer.array(), 8, length - 8);
+        recordBuffer.putInt(4, (int) crc.getValue());
+
+        int segmentIndex = (int) (writeOffset / segmentSize);
+        int position = (int) (writeOffset % segmentSize);
+
+        if (position + length > segmentSize) {
+            segmentIndex++;
+            position = 0;
+        }
+
+        if (segmentIndex == segments.size()) segments.add(map(segmentFile(segmentIndex)));
+
+        long offset = (long) segmentIndex * segmentSize + position;
+
+        segments.get(segmentIndex).put(position, recordBuffer.array(), 0, length);
+        writeOffset = offset + length;
+
+        return offset;
+    }
+
+    void putString(String value) {
+        if (value == null) {
+            ensureCapacity(4);
+            recordBuffer.putInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        ensureCapacity(4 + bytes.length);
+        recordBuffer.putInt(bytes.length).put(bytes);
+    }
+
+    void putInt(int value) {
+        ensureCapacity(4);
+        recordBuffer.putInt(value);
+    }
+
+    void putLong(long value) {
+        ensureCapacity(8);
+        recordBuffer.putLong(value);
+    }
+
+    int lengthAt(long offset) {
+        return segmentOf(offset).getInt(positionOf(offset));
+    }
+
+    long previousOffsetAt(long offset) {
+        return segmentOf(offset).getLong(positionOf(offset) + 17);
+    }
+
+    Reader reader(long offset) {
+        return new Reader(segmentOf(offset), positionOf(offset) + HEADER_BYTES);
+    }
+
+    void force() {
+        segments.forEach(MappedByteBuffer::force);
+    }
+
+    void delete() {
+        for (Path file : listSegmentFiles()) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private boolean isIntact(MappedByteBuffer segment, int position, int length) {
+        if (length < HEADER_BYTES || position + length > segmentSize) return false;
+
+        crc.reset();
+        crc.update(segment.slice(position + 8, length - 8));
+
+        return segment.getInt(position + 4) == (int) crc.getValue();
+    }
+
+    private void truncate(int segmentIndex, int position) {
+        MappedByteBuffer segment = segments.get(segmentIndex);
+
+        for (int i = position; i < segmentSize; i++) segment.put(i, (byte) 0);
+
+        while (segments.size() > segmentIndex + 1) {
+            segments.remove(segments.size() - 1);
+
+            try {
+                Files.deleteIfExists(segmentFile(segments.size()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        writeOffset = (long) segmentIndex * segmentSize + position;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (recordBuffer.remaining() >= bytes) return;
+
+        ByteBuffer expanded = ByteBuffer.allocate(Math.max(recordBuffer.capacity() * 2, recordBuffer.position() + bytes));
+
+        expanded.put(recordBuffer.flip());
+        recordBuffer = expanded;
+    }
+
+    private MappedByteBuffer segmentOf(long offset) {
+        return segments.get((int) (offset / segmentSize));
+    }
+
+    private int positionOf(long offset) {
+        return (int) (offset % segmentSize);
+    }
+
+    private MappedByteBuffer map(Path file) {
+        try (RandomAccessFile segmentFile = new RandomAccessFile(file.toFile(), "rw")) {
+            segmentFile.setLength(segmentSize);
+
+            return segmentFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> listSegmentFiles() {
+        String prefix = "sessions-" + generation + "-";
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith(prefix))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentFile(int segmentIndex) {
+        return directory.resolve(String.format("sessions-%d-%06d.log", generation, segmentIndex));
+    }
+
+    @FunctionalInterface
+    interface Payload {
+        void writeTo(SessionLog log);
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(long offset, byte type, long expiresAt, int length, Reader payload);
+    }
+
+    /**
+     * Sequential reader over a record payload, reading straight from the mapped segment.
+     */
+    static final class Reader {
+        private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[1024]);
+
+        private final ByteBuffer segment;
+        private int position;
+
+        private Reader(ByteBuffer segment, int position) {
+            this.segment = segment;
+            this.position = position;
+        }
+
+        String getString() {
+            int length = getInt();
+
+            if (length < 0) return null;
+
+            byte[] bytes = SCRATCH.get();
+
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+                SCRATCH.set(bytes);
+            }
+
+            segment.get(position, bytes, 0, length);
+            position += length;
+
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Compares the next string with the expected value without decoding it, consuming it
+         * either way.
+         */
+        boolean skipStringEqualTo(String expected) {
+            int length = getInt();
+            int start = position;
+
+            position += Math.max(length, 0);
+
+            if (length < 0) return expected == null;
+            if (expected == null || length < expected.length()) return false;
+
+            for (int i = 0; i < expected.length(); i++) {
+                char c = expected.charAt(i);
+
+                if (c >= 0x80) return expected.equals(new String(bytesAt(start, length), StandardCharsets.UTF_8));
+                if (i >= length || segment.get(start + i) != c) return false;
+            }
+
+            return length == expected.length();
+        }
+
+        void skipString() {
+            int length = getInt();
+
+            position += Math.max(length, 0);
+        }
+
+        int getInt() {
+            int value = segment.getInt(position);
+
+            position += 4;
+
+            return value;
+        }
+
+        long getLong() {
+            long value = segment.getLong(position);
+
+            position += 8;
+
+            return value;
+        }
+
+        private byte[] bytesAt(int start, int length) {
+            byte[] bytes = new byte[length];
+
+            segment.get(start, bytes);
+
+            return bytes;
+        }
+    }
+}
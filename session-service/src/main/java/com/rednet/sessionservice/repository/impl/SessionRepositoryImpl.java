@@ -2,11 +2,18 @@ package com.rednet.sessionservice.repository.impl;
 
 import com.rednet.sessionservice.entity.Session;
 import com.rednet.sessionservice.repository.SessionRepository;
+import com.rednet.sessionservice.repository.SessionRoleEncoder;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.cassandra.core.CassandraOperations;
 import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.UpdateOptions;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,16 +21,33 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.springframework.data.cassandra.core.query.Criteria.where;
 import static org.springframework.data.cassandra.core.query.Query.query;
 
+/**
+ * Stores a user's sessions in one partition. Rows live as long as their refresh token. When the
+ * idle timeout is set, every session also carries an idle deadline in a cell of its own, which
+ * extending an active session moves forward without touching the rest of the row, and sessions
+ * past their deadline are not returned.
+ */
 @Repository
+@Qualifier("storage")
+@Profile("!in-memory & !edge")
+@ConditionalOnProperty(name = "rednet.app.session.partition.bucketed", havingValue = "false", matchIfMissing = true)
 public class SessionRepositoryImpl implements SessionRepository {
     private final CassandraOperations operations;
+    private final SessionRoleEncoder roleEncoder;
     private final InsertOptions insertOptions;
+    private final long refreshTokenExpirationMs;
+    private final long idleTimeoutMs;
 
     public SessionRepositoryImpl(
         CassandraOperations operations,
-        @Value("${rednet.app.security.refresh-token.expiration-ms}") long refreshTokenExpirationMs
+        SessionRoleEncoder roleEncoder,
+        @Value("${rednet.app.security.refresh-token.expiration-ms}") long refreshTokenExpirationMs,
+        @Value("${rednet.app.session.sliding-expiry.idle-timeout-ms}") long idleTimeoutMs
     ) {
         this.operations = operations;
+        this.roleEncoder = roleEncoder;
+        this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+        this.idleTimeoutMs = idleTimeoutMs;
 
         this.insertOptions = InsertOptions.builder()
             .ttl((int) MILLISECONDS.toSeconds(refreshTokenExpirationMs) + 10)
@@ -31,24 +55,50 @@ public class SessionRepositoryImpl implements SessionRepository {
     }
 
     @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findByID"})
     public Optional<Session> findByID(String userID, String sessionPostfix) {
         return Optional.ofNullable(operations.selectOne(query(List.of(
             where("user_id").is(userID),
             where("session_postfix").is(sessionPostfix)
-        )).limit(1), Session.class));
+        )).limit(1), Session.class))
+            .filter(session -> SessionColumns.isActive(session, Instant.now()))
+            .map(roleEncoder::decode);
     }
 
     @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findAllByUserID"})
     public List<Session> findAllByUserID(String userID) {
-        return operations.select(query(where("user_id").is(userID)), Session.class);
+        Instant now = Instant.now();
+        List<Session> sessions = operations.select(query(where("user_id").is(userID)), Session.class);
+
+        sessions.removeIf(session -> ! SessionColumns.isActive(session, now));
+        sessions.forEach(roleEncoder::decode);
+
+        return sessions;
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findKeysByUserID"})
+    public List<Session> findKeysByUserID(String userID) {
+        return operations.select(query(where("user_id").is(userID)).columns(SessionColumns.KEYS), Session.class);
     }
 
     @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "insert"})
     public Session insert(Session session) {
-        return operations.insert(session, insertOptions).getEntity();
+        Session encodedSession = roleEncoder.encode(session);
+
+        if (idleTimeoutMs > 0) {
+            encodedSession.setActiveUntil(
+                encodedSession.getCreatedAt().plusMillis(Math.min(idleTimeoutMs, refreshTokenExpirationMs))
+            );
+        }
+
+        return roleEncoder.decode(operations.insert(encodedSession, insertOptions).getEntity());
     }
 
     @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "deleteByID"})
     public boolean deleteByID(String userID, String sessionPostfix) {
         return operations.delete(query(List.of(
             where("user_id").is(userID),
@@ -57,12 +107,49 @@ public class SessionRepositoryImpl implements SessionRepository {
     }
 
     @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "deleteAllByUserID"})
     public boolean deleteAllByUserID(String userID) {
         return operations.delete(query(where("user_id").is(userID)),Session.class);
     }
 
     @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "existsByUserID"})
     public boolean existsByUserID(String userID) {
         return operations.exists(query(where("user_id").is(userID)), Session.class);
     }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "findExpirationsByUserID"})
+    public List<Long> findExpirationsByUserID(String userID) {
+        long now = System.currentTimeMillis();
+
+        return operations.getCqlOperations().query(
+            "SELECT TTL(token_id), active_until FROM sessions WHERE user_id = ?",
+            (row, rowNum) -> SessionColumns.expirationOf(row, now),
+            userID
+        );
+    }
+
+    @Override
+    @Observed(name = "sessions.repository", lowCardinalityKeyValues = {"operation", "extendExpiration"})
+    public void extendExpiration(Session session, long ttlMs, Instant observedAt) {
+        long rowRemainingMs = session.getCreatedAt().toEpochMilli() + refreshTokenExpirationMs - observedAt.toEpochMilli();
+
+        if (rowRemainingMs < 1000) return;
+
+        // the deadline expires with the refresh token, before the row, so a late touch never
+        // leaves a row holding only a deadline
+        operations.update(
+            query(List.of(
+                where("user_id").is(session.getUserID()),
+                where("session_postfix").is(session.getSessionPostfix()),
+                where("created_at").is(session.getCreatedAt())
+            )).queryOptions(UpdateOptions.builder()
+                .ttl((int) MILLISECONDS.toSeconds(rowRemainingMs))
+                .timestamp(observedAt)
+                .build()),
+            SessionColumns.idleDeadlineOf(observedAt.plusMillis(ttlMs)),
+            Session.class
+        );
+    }
 }
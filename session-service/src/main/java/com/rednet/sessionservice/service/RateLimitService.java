@@ -0,0 +1,11 @@
+package com.rednet.sessionservice.service;
+
+public interface RateLimitService {
+    void    checkClient (Operation operation, String clientID);
+    void    checkUser   (Operation operation, String userID);
+
+    enum Operation {
+        CREATE,
+        REFRESH
+    }
+}
@@ -0,0 +1,13 @@
+package com.rednet.sessionservice.service;
+
+import com.rednet.sessionservice.payload.response.RevocationDeltasResponseBody;
+import com.rednet.sessionservice.payload.response.RevocationFilterResponseBody;
+
+import java.util.Map;
+
+public interface RevocationService {
+    void                            revoke          (String userID, String sessionID, String tokenID);
+    void                            revokeAll       (String userID, Map<String, String> tokenIDsBySessionID);
+    RevocationFilterResponseBody    getFilter       ();
+    RevocationDeltasResponseBody    getDeltasSince  (String feedID, long version);
+}
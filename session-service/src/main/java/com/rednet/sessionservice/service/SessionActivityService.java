@@ -0,0 +1,8 @@
+package com.rednet.sessionservice.service;
+
+import java.time.Instant;
+
+public interface SessionActivityService {
+    void recordActivity(String userID, String sessionPostfix, Instant seenAt);
+    void flush();
+}
@@ -0,0 +1,12 @@
+package com.rednet.sessionservice.service;
+
+import com.rednet.sessionservice.payload.response.HeavyUserResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SessionDistributionService {
+    void                        recordCreated   (String userID, Instant createdAt);
+    void                        recordDeleted   (String userID, Instant createdAt);
+    List<HeavyUserResponseBody> getHeavyUsers   (int limit);
+}
@@ -1,14 +1,18 @@
 package com.rednet.sessionservice.service;
 
 import com.rednet.sessionservice.entity.Session;
+import io.jsonwebtoken.Claims;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface SessionService {
-    Session         createSession           (String userID, String[] roles);
-    Session         getSession              (String sessionID);
-    List<Session>   getSessionsByUserID     (String userID);
-    Session         refreshSession          (String refreshToken);
-    void            deleteSession           (String refreshToken);
-    void            deleteSessionsByUserID  (String userID);
+    Session             createSession           (String userID, String[] roles);
+    Session             getSession              (String sessionID);
+    List<Session>       getSessionsByUserID     (String userID);
+    long                countSessionsByUserID   (String userID);
+    Session             refreshSession          (String refreshToken);
+    void                deleteSession           (String refreshToken);
+    void                deleteSessionsByUserID  (String userID);
+    Optional<Claims>    introspectAccessToken   (String accessToken);
 }
@@ -0,0 +1,10 @@
+package com.rednet.sessionservice.service;
+
+import com.rednet.sessionservice.entity.Session;
+
+import java.time.Instant;
+
+public interface SlidingExpiryService {
+    void touch(Session session, Instant observedAt);
+    void touch(String userID, String sessionPostfix);
+}
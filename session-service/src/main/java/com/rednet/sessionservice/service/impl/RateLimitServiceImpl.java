@@ -0,0 +1,78 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.rednet.sessionservice.exception.impl.RateLimitExceededException;
+import com.rednet.sessionservice.service.RateLimitService;
+import com.rednet.sessionservice.util.RateLimiter;
+import com.rednet.sessionservice.util.impl.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.rednet.sessionservice.service.RateLimitService.Operation.CREATE;
+import static com.rednet.sessionservice.service.RateLimitService.Operation.REFRESH;
+
+@Service
+public class RateLimitServiceImpl implements RateLimitService {
+    private final Map<Operation, RateLimiter> clientLimiters = new EnumMap<>(Operation.class);
+    private final Map<Operation, RateLimiter> userLimiters = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> clientRejections = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> userRejections = new EnumMap<>(Operation.class);
+
+    public RateLimitServiceImpl(
+        @Value("${rednet.app.rate-limit.max-tracked-keys}") long maxTrackedKeys,
+        @Value("${rednet.app.rate-limit.create.client.capacity}") long createClientCapacity,
+        @Value("${rednet.app.rate-limit.create.client.refill-per-second}") double createClientRefillPerSecond,
+        @Value("${rednet.app.rate-limit.create.user.capacity}") long createUserCapacity,
+        @Value("${rednet.app.rate-limit.create.user.refill-per-second}") double createUserRefillPerSecond,
+        @Value("${rednet.app.rate-limit.refresh.client.capacity}") long refreshClientCapacity,
+        @Value("${rednet.app.rate-limit.refresh.client.refill-per-second}") double refreshClientRefillPerSecond,
+        @Value("${rednet.app.rate-limit.refresh.user.capacity}") long refreshUserCapacity,
+        @Value("${rednet.app.rate-limit.refresh.user.refill-per-second}") double refreshUserRefillPerSecond,
+        MeterRegistry meterRegistry
+    ) {
+        clientLimiters.put(CREATE, new TokenBucketRateLimiter(
+            createClientCapacity, createClientRefillPerSecond, maxTrackedKeys
+        ));
+        clientLimiters.put(REFRESH, new TokenBucketRateLimiter(
+            refreshClientCapacity, refreshClientRefillPerSecond, maxTrackedKeys
+        ));
+        userLimiters.put(CREATE, new TokenBucketRateLimiter(
+            createUserCapacity, createUserRefillPerSecond, maxTrackedKeys
+        ));
+        userLimiters.put(REFRESH, new TokenBucketRateLimiter(
+            refreshUserCapacity, refreshUserRefillPerSecond, maxTrackedKeys
+        ));
+
+        for (Operation operation : Operation.values()) {
+            clientRejections.put(operation, generateRejectionCounter(meterRegistry, operation, "client"));
+            userRejections.put(operation, generateRejectionCounter(meterRegistry, operation, "user"));
+        }
+    }
+
+    @Override
+    public void checkClient(Operation operation, String clientID) {
+        if ( ! clientLimiters.get(operation).tryAcquire(clientID)) {
+            clientRejections.get(operation).increment();
+            throw new RateLimitExceededException(operation);
+        }
+    }
+
+    @Override
+    public void checkUser(Operation operation, String userID) {
+        if ( ! userLimiters.get(operation).tryAcquire(userID)) {
+            userRejections.get(operation).increment();
+            throw new RateLimitExceededException(operation);
+        }
+    }
+
+    private Counter generateRejectionCounter(MeterRegistry meterRegistry, Operation operation, String scope) {
+        return Counter.builder("sessions.rate-limit.rejections")
+            .tag("operation", operation.name().toLowerCase())
+            .tag("scope", scope)
+            .register(meterRegistry);
+    }
+}
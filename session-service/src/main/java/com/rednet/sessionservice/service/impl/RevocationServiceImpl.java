@@ -0,0 +1,393 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.rednet.sessionservice.entity.RevokedToken;
+import com.rednet.sessionservice.exception.impl.SessionStorageUnavailableException;
+import com.rednet.sessionservice.payload.response.RevocationDeltasResponseBody;
+import com.rednet.sessionservice.payload.response.RevocationFilterResponseBody;
+import com.rednet.sessionservice.repository.RevocationRepository;
+import com.rednet.sessionservice.service.RevocationService;
+import com.rednet.sessionservice.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Serves the access tokens revoked by any instance for as long as they could still be accepted,
+ * i.e. for the access token lifetime plus the allowed clock skew. Revocations are served from
+ * memory as soon as they are made and written to the shared revocation store behind the
+ * requests, so a slow or unavailable store never fails the request that revoked a token. The
+ * revocations of a user are written together, every interval, early once the buffer is half
+ * full, and until the buffer is empty or the shutdown timeout has passed on shutdown. Failed
+ * writes are put back for the next flush, and revocations that find the buffer full are only
+ * served by this instance. Every instance polls the store for revocations made elsewhere,
+ * loading all unexpired ones on start.
+ *
+ * <p>The version of the feed is the revocation time in epoch milliseconds, so versions mean the
+ * same on every instance and across restarts. An instance only publishes versions up to its
+ * last poll minus the settle time, by which revocations written by other instances are assumed
+ * to be readable. A buffered revocation is stamped again with the time it is written at, so
+ * the settle time only has to cover the write itself. A client is asked to reload the snapshot only when it follows another feed or
+ * when more revocations than fit into one deltas response happened since its version.
+ */
+@Service
+public class RevocationServiceImpl implements RevocationService, DisposableBean {
+    private static final String FEED_ID = "revocations";
+    private static final long SHUTDOWN_RETRY_PAUSE_MS = 50;
+
+    private final RevocationRepository revocationRepository;
+    private final NavigableSet<RevokedToken> revokedTokens = new ConcurrentSkipListSet<>(
+        Comparator.comparing(RevokedToken::getRevokedAt).thenComparing(RevokedToken::getKey)
+    );
+    private final long retentionMs;
+    private final long snapshotIntervalMs;
+    private final double falsePositiveProbability;
+    private final long settleMs;
+    private final int maxDeltas;
+    private final int maxBufferedRevocations;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final AtomicInteger bufferedRevocations = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService pollExecutor;
+    private final ScheduledExecutorService flushExecutor;
+    private final Object snapshotLock = new Object();
+    private final Object bufferLock = new Object();
+    private final Object flushLock = new Object();
+    private final Counter writtenBatches;
+    private final Counter failedBatches;
+    private final Counter droppedRevocations;
+
+    private volatile long publishedVersion = -1;
+    private volatile Snapshot snapshot;
+    private long lastPolledAt;
+    private Map<String, List<RevokedToken>> pendingRevocations = new HashMap<>();
+
+    public RevocationServiceImpl(
+        RevocationRepository revocationRepository,
+        @Value("${rednet.app.security.access-token.expiration-ms}") long accessTokenExpirationMs,
+        @Value("${rednet.app.security.access-token.allowed-clock-skew-s}") long accessTokenAllowedClockSkewS,
+        @Value("${rednet.app.session.revocation.snapshot-interval-ms}") long snapshotIntervalMs,
+        @Value("${rednet.app.session.revocation.false-positive-probability}") double falsePositiveProbability,
+        @Value("${rednet.app.session.revocation.poll-interval-ms}") long pollIntervalMs,
+        @Value("${rednet.app.session.revocation.settle-ms}") long settleMs,
+        @Value("${rednet.app.session.revocation.max-deltas}") int maxDeltas,
+        @Value("${rednet.app.session.revocation.max-buffered-revocations}") int maxBufferedRevocations,
+        @Value("${rednet.app.session.revocation.flush-interval-ms}") long flushIntervalMs,
+        @Value("${rednet.app.session.revocation.shutdown-timeout-ms}") long shutdownTimeoutMs,
+        MeterRegistry meterRegistry
+    ) {
+        if (flushIntervalMs < 1) throw new IllegalArgumentException("Revocation flush interval should be positive");
+
+        this.revocationRepository = revocationRepository;
+        this.retentionMs = accessTokenExpirationMs + SECONDS.toMillis(accessTokenAllowedClockSkewS);
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.settleMs = settleMs;
+        this.maxDeltas = maxDeltas;
+        this.maxBufferedRevocations = maxBufferedRevocations;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        Gauge.builder("sessions.revocation.buffered", bufferedRevocations, AtomicInteger::get)
+            .description("Revocations waiting to be written to the revocation store")
+            .register(meterRegistry);
+
+        this.writtenBatches = generateBatchCounter(meterRegistry, "written");
+        this.failedBatches = generateBatchCounter(meterRegistry, "failed");
+        this.droppedRevocations = Counter.builder("sessions.revocation.dropped")
+            .description("Revocations not written to the revocation store because the buffer was full")
+            .register(meterRegistry);
+
+        this.pollExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revocation-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pollExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                synchronize();
+            } catch (RuntimeException e) {
+                // the next poll reads the same revocations again, and published versions wait for it
+            }
+        }, 0, pollIntervalMs, MILLISECONDS);
+
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revocation-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, MILLISECONDS);
+    }
+
+    @Override
+    public void revoke(String userID, String sessionID, String tokenID) {
+        revokeAll(userID, Map.of(sessionID, tokenID));
+    }
+
+    @Override
+    public void revokeAll(String userID, Map<String, String> tokenIDsBySessionID) {
+        Instant revokedAt = Instant.ofEpochMilli(System.currentTimeMillis());
+        List<RevokedToken> revoked = new ArrayList<>(tokenIDsBySessionID.size());
+
+        tokenIDsBySessionID.forEach((sessionID, tokenID) ->
+            revoked.add(new RevokedToken(generateRevocationKey(sessionID, tokenID), revokedAt)));
+
+        revokedTokens.addAll(revoked);
+
+        if ( ! buffer(userID, revoked)) {
+            requestFlush();
+        } else if (bufferedRevocations.get() >= maxBufferedRevocations / 2) {
+            requestFlush();
+        }
+    }
+
+    @Override
+    public RevocationFilterResponseBody getFilter() {
+        requireLoaded();
+
+        Snapshot current = snapshot;
+
+        if (current == null || current.builtAt() + snapshotIntervalMs <= System.currentTimeMillis()) {
+            current = buildSnapshot();
+        }
+
+        return current.body();
+    }
+
+    @Override
+    public RevocationDeltasResponseBody getDeltasSince(String feedID, long version) {
+        long published = requireLoaded();
+
+        if ( ! FEED_ID.equals(feedID)) {
+            return new RevocationDeltasResponseBody(FEED_ID, version, published, true, List.of());
+        }
+
+        if (version >= published) {
+            return new RevocationDeltasResponseBody(FEED_ID, version, version, false, List.of());
+        }
+
+        List<String> revoked = new ArrayList<>();
+
+        for (RevokedToken revokedToken : revokedTokens.subSet(bound(version + 1), bound(published + 1))) {
+            if (revoked.size() == maxDeltas) {
+                return new RevocationDeltasResponseBody(FEED_ID, version, published, true, List.of());
+            }
+
+            revoked.add(revokedToken.getKey());
+        }
+
+        return new RevocationDeltasResponseBody(FEED_ID, version, published, false, revoked);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        long deadline = System.nanoTime() + MILLISECONDS.toNanos(shutdownTimeoutMs);
+
+        pollExecutor.shutdownNow();
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(shutdownTimeoutMs, MILLISECONDS);
+
+        while (true) {
+            flush(Math.max(NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+
+            if (bufferedRevocations.get() == 0 || System.nanoTime() - deadline >= 0) return;
+
+            Thread.sleep(SHUTDOWN_RETRY_PAUSE_MS);
+        }
+    }
+
+    void flush() {
+        flush(flushIntervalMs);
+    }
+
+    /**
+     * Reads the revocations made since the previous poll, overlapping it by the settle time,
+     * and publishes everything revoked before this poll minus the settle time.
+     */
+    synchronized void synchronize() {
+        long startedAt = System.currentTimeMillis();
+        long since = publishedVersion < 0 ? startedAt - retentionMs : lastPolledAt - settleMs;
+
+        revokedTokens.addAll(revocationRepository.findRevokedSince(Instant.ofEpochMilli(since)));
+        revokedTokens.headSet(bound(startedAt - retentionMs)).clear();
+
+        lastPolledAt = startedAt;
+        publishedVersion = startedAt - settleMs - 1;
+    }
+
+    private void flush(long maxWaitMs) {
+        synchronized (flushLock) {
+            flushRequested.set(false);
+
+            Map<String, List<RevokedToken>> pending;
+
+            synchronized (bufferLock) {
+                if (pendingRevocations.isEmpty()) return;
+
+                pending = pendingRevocations;
+                pendingRevocations = new HashMap<>();
+            }
+
+            List<CompletableFuture<Void>> writes = new ArrayList<>(pending.size());
+
+            pending.forEach((userID, revoked) -> {
+                bufferedRevocations.addAndGet(-revoked.size());
+                writes.add(write(userID, revoked));
+            });
+
+            try {
+                CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).get(maxWaitMs, MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // writes still running complete or put their revocations back on their own
+            }
+        }
+    }
+
+    private boolean buffer(String userID, List<RevokedToken> revoked) {
+        synchronized (bufferLock) {
+            int accepted = Math.min(revoked.size(), Math.max(maxBufferedRevocations - bufferedRevocations.get(), 0));
+
+            if (accepted > 0) {
+                pendingRevocations.computeIfAbsent(userID, key -> new ArrayList<>()).addAll(revoked.subList(0, accepted));
+                bufferedRevocations.addAndGet(accepted);
+            }
+
+            if (accepted == revoked.size()) return true;
+
+            droppedRevocations.increment(revoked.size() - accepted);
+
+            return false;
+        }
+    }
+
+    private CompletableFuture<Void> write(String userID, List<RevokedToken> revoked) {
+        List<RevokedToken> stamped = restamp(revoked);
+        CompletableFuture<Void> write;
+
+        try {
+            write = revocationRepository.insertAll(userID, stamped);
+        } catch (RuntimeException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+
+        return write.handle((result, error) -> {
+            if (error == null) {
+                writtenBatches.increment();
+            } else {
+                failedBatches.increment();
+                buffer(userID, stamped);
+            }
+
+            return null;
+        });
+    }
+
+    /**
+     * Moves the revocations to the current time, adding the new entries before removing the
+     * old ones so a concurrent snapshot never misses a revoked key.
+     */
+    private List<RevokedToken> restamp(List<RevokedToken> revoked) {
+        Instant writtenAt = Instant.ofEpochMilli(System.currentTimeMillis());
+        List<RevokedToken> stamped = new ArrayList<>(revoked.size());
+
+        for (RevokedToken revokedToken : revoked) {
+            if ( ! revokedToken.getRevokedAt().isBefore(writtenAt)) {
+                stamped.add(revokedToken);
+                continue;
+            }
+
+            RevokedToken stampedToken = new RevokedToken(revokedToken.getKey(), writtenAt);
+
+            revokedTokens.add(stampedToken);
+            revokedTokens.remove(revokedToken);
+            stamped.add(stampedToken);
+        }
+
+        return stamped;
+    }
+
+    private void requestFlush() {
+        if ( ! flushRequested.compareAndSet(false, true)) return;
+
+        try {
+            flushExecutor.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+        }
+    }
+
+    private Counter generateBatchCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("sessions.revocation.batches")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private Snapshot buildSnapshot() {
+        synchronized (snapshotLock) {
+            long now = System.currentTimeMillis();
+
+            if (snapshot != null && snapshot.builtAt() + snapshotIntervalMs > now) return snapshot;
+
+            long published = publishedVersion;
+            BloomFilter filter = BloomFilter.of(
+                revokedTokens.tailSet(bound(now - retentionMs)).stream().map(RevokedToken::getKey).toList(),
+                falsePositiveProbability
+            );
+
+            snapshot = new Snapshot(now, new RevocationFilterResponseBody(
+                FEED_ID,
+                published,
+                filter.getBitCount(),
+                filter.getHashCount(),
+                Base64.getEncoder().encodeToString(filter.toByteArray())
+            ));
+
+            return snapshot;
+        }
+    }
+
+    private long requireLoaded() {
+        long published = publishedVersion;
+
+        if (published < 0) throw new SessionStorageUnavailableException();
+
+        return published;
+    }
+
+    private RevokedToken bound(long version) {
+        return new RevokedToken("", Instant.ofEpochMilli(version));
+    }
+
+    private String generateRevocationKey(String sessionID, String tokenID) {
+        return new StringBuilder(sessionID).append("#").append(tokenID).toString();
+    }
+
+    private record Snapshot(long builtAt, RevocationFilterResponseBody body) {}
+}
@@ -0,0 +1,231 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.rednet.sessionservice.repository.SessionActivityRepository;
+import com.rednet.sessionservice.service.SessionActivityService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Buffers the last activity of sessions and writes it behind the requests. Touches go to one
+ * of several stripes picked by user ID, so a user's sessions always share a stripe and the
+ * flush hands each user to the repository as a single partition write. Repeated touches of a
+ * session between flushes collapse into the latest one. The buffer is flushed every interval,
+ * early once it is half full, and on shutdown; a flush waits for its writes at most one
+ * interval, so activity reaches storage within about two intervals. Failed writes are put
+ * back for the next flush, and touches that find the buffer full are dropped. On shutdown the
+ * buffer is flushed again until it is empty or the shutdown timeout has passed.
+ */
+@Service
+public class SessionActivityServiceImpl implements SessionActivityService, DisposableBean {
+    private static final long SHUTDOWN_RETRY_PAUSE_MS = 50;
+
+    private final SessionActivityRepository sessionActivityRepository;
+    private final Stripe[] stripes;
+    private final int maxBufferedSessions;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final AtomicInteger bufferedSessions = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flushExecutor;
+    private final Timer flushLatency;
+    private final Counter writtenPartitions;
+    private final Counter failedPartitions;
+    private final Counter droppedTouches;
+
+    public SessionActivityServiceImpl(
+        SessionActivityRepository sessionActivityRepository,
+        @Value("${rednet.app.session.last-seen.stripes}") int stripeCount,
+        @Value("${rednet.app.session.last-seen.max-buffered-sessions}") int maxBufferedSessions,
+        @Value("${rednet.app.session.last-seen.flush-interval-ms}") long flushIntervalMs,
+        @Value("${rednet.app.session.last-seen.shutdown-timeout-ms}") long shutdownTimeoutMs,
+        MeterRegistry meterRegistry
+    ) {
+        if (stripeCount < 1 || flushIntervalMs < 1) {
+            throw new IllegalArgumentException("Last-seen stripes and flush interval should be positive");
+        }
+
+        this.sessionActivityRepository = sessionActivityRepository;
+        this.maxBufferedSessions = maxBufferedSessions;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.stripes = new Stripe[stripeCount];
+
+        for (int i = 0; i < stripeCount; i++) stripes[i] = new Stripe();
+
+        Gauge.builder("sessions.last-seen.buffered", bufferedSessions, AtomicInteger::get)
+            .description("Sessions with activity waiting to be flushed")
+            .register(meterRegistry);
+
+        this.flushLatency = Timer.builder("sessions.last-seen.flush")
+            .description("Time to write the buffered activity to storage")
+            .register(meterRegistry);
+        this.writtenPartitions = generatePartitionCounter(meterRegistry, "written");
+        this.failedPartitions = generatePartitionCounter(meterRegistry, "failed");
+        this.droppedTouches = Counter.builder("sessions.last-seen.dropped")
+            .description("Touches dropped because the buffer was full")
+            .register(meterRegistry);
+
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-activity-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, MILLISECONDS);
+    }
+
+    @Override
+    public void recordActivity(String userID, String sessionPostfix, Instant seenAt) {
+        if ( ! buffer(userID, sessionPostfix, seenAt)) {
+            droppedTouches.increment();
+            requestFlush();
+        } else if (bufferedSessions.get() >= maxBufferedSessions / 2) {
+            requestFlush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        flush(flushIntervalMs);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        long deadline = System.nanoTime() + MILLISECONDS.toNanos(shutdownTimeoutMs);
+
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(shutdownTimeoutMs, MILLISECONDS);
+
+        while (true) {
+            flush(Math.max(NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+
+            if (bufferedSessions.get() == 0 || System.nanoTime() - deadline >= 0) return;
+
+            Thread.sleep(SHUTDOWN_RETRY_PAUSE_MS);
+        }
+    }
+
+    private void flush(long maxWaitMs) {
+        synchronized (flushLock) {
+            flushRequested.set(false);
+
+            long startedAt = System.nanoTime();
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+
+            for (Stripe stripe : stripes) {
+                Map<String, Map<String, Instant>> pending;
+
+                synchronized (stripe) {
+                    if (stripe.pending.isEmpty()) continue;
+
+                    pending = stripe.pending;
+                    stripe.pending = new HashMap<>();
+                }
+
+                pending.forEach((userID, lastSeen) -> {
+                    bufferedSessions.addAndGet(-lastSeen.size());
+                    writes.add(write(userID, lastSeen));
+                });
+            }
+
+            if (writes.isEmpty()) return;
+
+            try {
+                CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).get(maxWaitMs, MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // writes still running complete or put their touches back on their own
+            }
+
+            flushLatency.record(System.nanoTime() - startedAt, NANOSECONDS);
+        }
+    }
+
+    private boolean buffer(String userID, String sessionPostfix, Instant seenAt) {
+        Stripe stripe = stripes[Math.floorMod(userID.hashCode(), stripes.length)];
+
+        synchronized (stripe) {
+            Map<String, Instant> lastSeen = stripe.pending.get(userID);
+            Instant previousSeenAt = lastSeen == null ? null : lastSeen.get(sessionPostfix);
+
+            if (previousSeenAt != null) {
+                if (seenAt.isAfter(previousSeenAt)) lastSeen.put(sessionPostfix, seenAt);
+                return true;
+            }
+
+            if (bufferedSessions.get() >= maxBufferedSessions) return false;
+
+            stripe.pending.computeIfAbsent(userID, key -> new HashMap<>()).put(sessionPostfix, seenAt);
+            bufferedSessions.incrementAndGet();
+
+            return true;
+        }
+    }
+
+    private CompletableFuture<Void> write(String userID, Map<String, Instant> lastSeen) {
+        CompletableFuture<Void> write;
+
+        try {
+            write = sessionActivityRepository.saveLastSeen(userID, lastSeen);
+        } catch (RuntimeException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+
+        return write.handle((result, error) -> {
+            if (error == null) {
+                writtenPartitions.increment();
+                return null;
+            }
+
+            failedPartitions.increment();
+            lastSeen.forEach((sessionPostfix, seenAt) -> {
+                if ( ! buffer(userID, sessionPostfix, seenAt)) droppedTouches.increment();
+            });
+
+            return null;
+        });
+    }
+
+    private void requestFlush() {
+        if ( ! flushRequested.compareAndSet(false, true)) return;
+
+        try {
+            flushExecutor.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+        }
+    }
+
+    private Counter generatePartitionCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("sessions.last-seen.partitions")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static class Stripe {
+        private Map<String, Map<String, Instant>> pending = new HashMap<>();
+    }
+}
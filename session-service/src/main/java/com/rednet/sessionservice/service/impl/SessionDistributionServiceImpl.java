@@ -0,0 +1,206 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.rednet.sessionservice.payload.response.HeavyUserResponseBody;
+import com.rednet.sessionservice.service.SessionDistributionService;
+import com.rednet.sessionservice.util.CountMinSketch;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Estimates the number of sessions per user with count-min sketches, so memory stays fixed no
+ * matter how many users there are. Sessions are never observed expiring, so counts are kept in
+ * two windows as long as a session lives: a session counted in the previous window has either
+ * been deleted or expired by the time that window is dropped. A session is counted in and
+ * subtracted from the window its creation time falls into, so no window goes negative and a
+ * deletion of an already dropped session is ignored. Users whose estimate is among the largest
+ * seen are kept as heavy-user candidates; their counts are re-estimated on every read.
+ */
+@Service
+public class SessionDistributionServiceImpl implements SessionDistributionService {
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int trackedUsers;
+    private final long windowMs;
+    private final DistributionSummary sessionsPerUser;
+    private final Map<String, Long> candidates = new HashMap<>();
+
+    private final LongSupplier currentTimeMillis;
+
+    private volatile Window window;
+    private volatile long admissionThreshold = 0;
+
+    @Autowired
+    public SessionDistributionServiceImpl(
+        @Value("${rednet.app.session.distribution.sketch-width}") int sketchWidth,
+        @Value("${rednet.app.session.distribution.sketch-depth}") int sketchDepth,
+        @Value("${rednet.app.session.distribution.tracked-users}") int trackedUsers,
+        @Value("${rednet.app.security.refresh-token.expiration-ms}") long refreshTokenExpirationMs,
+        MeterRegistry meterRegistry
+    ) {
+        this(sketchWidth, sketchDepth, trackedUsers, refreshTokenExpirationMs, meterRegistry, System::currentTimeMillis);
+    }
+
+    SessionDistributionServiceImpl(
+        int sketchWidth,
+        int sketchDepth,
+        int trackedUsers,
+        long refreshTokenExpirationMs,
+        MeterRegistry meterRegistry,
+        LongSupplier currentTimeMillis
+    ) {
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.trackedUsers = trackedUsers;
+        this.windowMs = refreshTokenExpirationMs + 10000;
+        this.currentTimeMillis = currentTimeMillis;
+
+        long now = currentTimeMillis.getAsLong();
+
+        this.window = new Window(
+            new CountMinSketch(sketchWidth, sketchDepth),
+            new CountMinSketch(sketchWidth, sketchDepth),
+            now,
+            now - windowMs
+        );
+
+        this.sessionsPerUser = DistributionSummary.builder("sessions.per-user")
+            .description("Estimated sessions of a user, recorded on every session creation")
+            .register(meterRegistry);
+
+        Gauge.builder("sessions.per-user.heaviest", this, service -> service.getHeavyUsers(1).stream()
+                .mapToLong(HeavyUserResponseBody::estimatedSessions)
+                .findFirst()
+                .orElse(0))
+            .description("Estimated sessions of the heaviest user")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void recordCreated(String userID, Instant createdAt) {
+        Window current = currentWindow();
+        CountMinSketch sessions = current.sessionsCreatedAt(createdAt);
+
+        if (sessions == null) return;
+
+        sessions.add(userID, 1);
+
+        long estimate = current.estimate(userID);
+
+        sessionsPerUser.record(estimate);
+
+        if (estimate > admissionThreshold) admit(userID, estimate);
+    }
+
+    @Override
+    public void recordDeleted(String userID, Instant createdAt) {
+        CountMinSketch sessions = currentWindow().sessionsCreatedAt(createdAt);
+
+        if (sessions != null) sessions.add(userID, -1);
+    }
+
+    @Override
+    public List<HeavyUserResponseBody> getHeavyUsers(int limit) {
+        Window current = currentWindow();
+        List<String> userIDs;
+
+        synchronized (candidates) {
+            userIDs = List.copyOf(candidates.keySet());
+        }
+
+        return userIDs.stream()
+            .map(userID -> new HeavyUserResponseBody(userID, current.estimate(userID)))
+            .filter(user -> user.estimatedSessions() > 0)
+            .sorted(Comparator.comparingLong(HeavyUserResponseBody::estimatedSessions).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    private void admit(String userID, long estimate) {
+        synchronized (candidates) {
+            candidates.put(userID, estimate);
+
+            if (candidates.size() > trackedUsers) {
+                Window current = window;
+
+                candidates.replaceAll((candidate, previousEstimate) -> current.estimate(candidate));
+                candidates.remove(findLightestCandidate());
+            }
+
+            updateAdmissionThreshold();
+        }
+    }
+
+    private Window currentWindow() {
+        Window current = window;
+
+        if (current.startedAt() + windowMs > currentTimeMillis.getAsLong()) return current;
+
+        synchronized (candidates) {
+            current = window;
+
+            long now = currentTimeMillis.getAsLong();
+
+            if (current.startedAt() + windowMs <= now) {
+                boolean previousExpired = current.startedAt() + 2 * windowMs <= now;
+
+                current = new Window(
+                    new CountMinSketch(sketchWidth, sketchDepth),
+                    previousExpired ? new CountMinSketch(sketchWidth, sketchDepth) : current.sessions(),
+                    now,
+                    previousExpired ? now - windowMs : current.startedAt()
+                );
+                window = current;
+
+                Window rotated = current;
+
+                candidates.replaceAll((candidate, previousEstimate) -> rotated.estimate(candidate));
+                candidates.values().removeIf(estimate -> estimate <= 0);
+                updateAdmissionThreshold();
+            }
+
+            return current;
+        }
+    }
+
+    private String findLightestCandidate() {
+        return candidates.entrySet().stream()
+            .min(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElseThrow();
+    }
+
+    private void updateAdmissionThreshold() {
+        admissionThreshold = candidates.size() < trackedUsers ? 0 : candidates.get(findLightestCandidate());
+    }
+
+    private record Window(
+        CountMinSketch sessions,
+        CountMinSketch previousSessions,
+        long startedAt,
+        long previousStartedAt
+    ) {
+        long estimate(String userID) {
+            return Math.max(0, sessions.estimate(userID) + previousSessions.estimate(userID));
+        }
+
+        CountMinSketch sessionsCreatedAt(Instant createdAt) {
+            long createdAtMs = createdAt.toEpochMilli();
+
+            if (createdAtMs >= startedAt) return sessions;
+            if (createdAtMs >= previousStartedAt) return previousSessions;
+
+            return null;
+        }
+    }
+}
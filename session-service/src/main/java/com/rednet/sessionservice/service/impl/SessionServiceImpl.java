@@ -1,74 +1,168 @@
 package com.rednet.sessionservice.service.impl;
 
+import com.rednet.sessionservice.cache.NegativeSessionCache;
+import com.rednet.sessionservice.cache.SessionCountCache;
+import com.rednet.sessionservice.cache.SessionLivenessCache;
 import com.rednet.sessionservice.entity.Session;
 import com.rednet.sessionservice.entity.SessionKey;
 import com.rednet.sessionservice.exception.impl.InvalidTokenException;
+import com.rednet.sessionservice.exception.impl.RateLimitExceededException;
 import com.rednet.sessionservice.exception.impl.SessionNotFoundException;
 import com.rednet.sessionservice.exception.impl.SessionRemovingException;
+import com.rednet.sessionservice.exception.impl.SessionStorageUnavailableException;
 import com.rednet.sessionservice.exception.impl.UserSessionsNotFound;
 import com.rednet.sessionservice.exception.impl.UserSessionsRemovingException;
+import com.rednet.sessionservice.jfr.SessionCreatedEvent;
+import com.rednet.sessionservice.jfr.SessionRefreshedEvent;
 import com.rednet.sessionservice.repository.SessionRepository;
+import com.rednet.sessionservice.service.RateLimitService;
+import com.rednet.sessionservice.service.RevocationService;
+import com.rednet.sessionservice.service.SessionActivityService;
+import com.rednet.sessionservice.service.SessionDistributionService;
 import com.rednet.sessionservice.service.SessionService;
+import com.rednet.sessionservice.service.SlidingExpiryService;
 import com.rednet.sessionservice.util.JwtUtil;
 import com.rednet.sessionservice.util.SessionPostfixGenerator;
 import com.rednet.sessionservice.util.TokenIDGenerator;
+import com.rednet.sessionservice.util.TokenPair;
+import com.rednet.sessionservice.util.TokenSigner;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.rednet.sessionservice.service.RateLimitService.Operation.CREATE;
+import static com.rednet.sessionservice.service.RateLimitService.Operation.REFRESH;
+
 @Service
 public class SessionServiceImpl implements SessionService {
     private final SessionRepository sessionRepository;
     private final JwtUtil jwtUtil;
     private final SessionPostfixGenerator sessionPostfixGenerator;
     private final TokenIDGenerator tokenIDGenerator;
+    private final TokenSigner tokenSigner;
+    private final NegativeSessionCache negativeSessionCache;
+    private final SessionLivenessCache sessionLivenessCache;
+    private final SessionCountCache sessionCountCache;
+    private final RevocationService revocationService;
+    private final RateLimitService rateLimitService;
+    private final SessionDistributionService sessionDistributionService;
+    private final SlidingExpiryService slidingExpiryService;
+    private final SessionActivityService sessionActivityService;
+    private final ObservationRegistry observationRegistry;
 
     public SessionServiceImpl(
         SessionRepository sessionRepository,
         JwtUtil jwtUtil,
         SessionPostfixGenerator sessionPostfixGenerator,
-        TokenIDGenerator tokenIDGenerator
+        TokenIDGenerator tokenIDGenerator,
+        TokenSigner tokenSigner,
+        NegativeSessionCache negativeSessionCache,
+        SessionLivenessCache sessionLivenessCache,
+        SessionCountCache sessionCountCache,
+        RevocationService revocationService,
+        RateLimitService rateLimitService,
+        SessionDistributionService sessionDistributionService,
+        SlidingExpiryService slidingExpiryService,
+        SessionActivityService sessionActivityService,
+        ObservationRegistry observationRegistry
     ) {
         this.sessionRepository = sessionRepository;
         this.jwtUtil = jwtUtil;
         this.sessionPostfixGenerator = sessionPostfixGenerator;
         this.tokenIDGenerator = tokenIDGenerator;
+        this.tokenSigner = tokenSigner;
+        this.negativeSessionCache = negativeSessionCache;
+        this.sessionLivenessCache = sessionLivenessCache;
+        this.sessionCountCache = sessionCountCache;
+        this.revocationService = revocationService;
+        this.rateLimitService = rateLimitService;
+        this.sessionDistributionService = sessionDistributionService;
+        this.slidingExpiryService = slidingExpiryService;
+        this.sessionActivityService = sessionActivityService;
+        this.observationRegistry = observationRegistry;
     }
 
     @Override
+    @Observed(name = "sessions.service", lowCardinalityKeyValues = {"operation", "createSession"})
     public Session createSession(String userID, String[] roles) {
-        String sessionPostfix = sessionPostfixGenerator.generate();
-        String sessionID = generateSessionID(userID,sessionPostfix);
-        String tokenID = tokenIDGenerator.generate();
-
-        return sessionRepository.insert(new Session(
-            userID,
-            sessionPostfix,
-            Instant.now(),
-            roles,
-            generateAccessToken(tokenID, userID, sessionID, roles),
-            generateRefreshToken(tokenID, userID, sessionID, roles),
-            tokenID
-        ));
+        SessionCreatedEvent event = new SessionCreatedEvent();
+
+        event.userID = userID;
+        event.begin();
+
+        try {
+            rateLimitService.checkUser(CREATE, userID);
+
+            String sessionPostfix = sessionPostfixGenerator.generate();
+            String sessionID = generateSessionID(userID,sessionPostfix);
+            String tokenID = tokenIDGenerator.generate();
+
+            TokenPair tokens = tokenSigner.sign(tokenID, userID, sessionID, roles);
+
+            negativeSessionCache.forgetSessionMissing(sessionID);
+
+            Session session = sessionRepository.insert(new Session(
+                userID,
+                sessionPostfix,
+                Instant.now(),
+                roles,
+                tokens.accessToken(),
+                tokens.refreshToken(),
+                tokenID
+            ));
+
+            sessionLivenessCache.markLive(sessionID, tokenID);
+            sessionCountCache.invalidate(userID);
+            sessionDistributionService.recordCreated(userID, session.getCreatedAt());
+
+            event.outcome = "created";
+
+            return session;
+        } catch (RuntimeException e) {
+            event.outcome = resolveOutcome(e);
+            throw e;
+        } finally {
+            event.commit();
+        }
     }
 
     @Override
+    @Observed(name = "sessions.service", lowCardinalityKeyValues = {"operation", "getSession"})
     public Session getSession(String sessionID) {
         SessionKey key = parseSessionID(sessionID).orElseThrow(() -> new SessionNotFoundException(sessionID));
 
-        return sessionRepository
+        if (negativeSessionCache.isSessionMissing(sessionID)) throw new SessionNotFoundException(sessionID);
+
+        Instant observedAt = Instant.now();
+        Session session = sessionRepository
             .findByID(key.getUserID(), key.getSessionPostfix())
-            .orElseThrow(() -> new SessionNotFoundException(sessionID));
+            .orElseThrow(() -> {
+                negativeSessionCache.markSessionMissing(sessionID);
+                return new SessionNotFoundException(sessionID);
+            });
+
+        sessionLivenessCache.markLive(sessionID, session.getTokenID());
+        slidingExpiryService.touch(session, observedAt);
+        sessionActivityService.recordActivity(key.getUserID(), key.getSessionPostfix(), observedAt);
+
+        return session;
     }
 
     @Override
+    @Observed(name = "sessions.service", lowCardinalityKeyValues = {"operation", "getSessionsByUserID"})
     public List<Session> getSessionsByUserID(String userID) {
         List<Session> sessions = sessionRepository.findAllByUserID(userID);
 
@@ -78,40 +172,65 @@ public class SessionServiceImpl implements SessionService {
     }
 
     @Override
+    @Observed(name = "sessions.service", lowCardinalityKeyValues = {"operation", "countSessionsByUserID"})
+    public long countSessionsByUserID(String userID) {
+        return sessionCountCache.getCount(userID, sessionRepository::findExpirationsByUserID);
+    }
+
+    @Override
+    @Observed(name = "sessions.service", lowCardinalityKeyValues = {"operation", "refreshSession"})
     public Session refreshSession(String refreshToken) {
+        SessionRefreshedEvent event = new SessionRefreshedEvent();
+
+        event.begin();
+
         try {
-            Claims claims = jwtUtil.getRefreshTokenParser().parseClaimsJws(refreshToken).getBody();
+            Claims claims = verifyToken(jwtUtil.getRefreshTokenParser(), refreshToken, "refresh");
             String sessionID = claims.get("sid", String.class);
             SessionKey key = parseSessionID(sessionID).orElseThrow(InvalidTokenException::new);
 
-            Session session = sessionRepository
-                .findByID(key.getUserID(), key.getSessionPostfix())
-                .orElseThrow(InvalidTokenException::new);
+            event.userID = key.getUserID();
 
-            if ( ! claims.getId().equals(session.getTokenID())) throw new InvalidTokenException();
+            rateLimitService.checkUser(REFRESH, key.getUserID());
+
+            Session session = findSessionByToken(key, sessionID, claims.getId());
 
             String tokenID = tokenIDGenerator.generate();
 
-            session.setAccessToken(generateAccessToken(
-                tokenID,
-                session.getUserID(),
-                sessionID,
-                session.getRoles()
-            ));
+            TokenPair tokens = tokenSigner.sign(tokenID, session.getUserID(), sessionID, session.getRoles());
 
-            session.setRefreshToken(generateRefreshToken(
-                tokenID,
-                session.getUserID(),
-                sessionID,
-                session.getRoles()
-            ));
+            session.setAccessToken(tokens.accessToken());
+            session.setRefreshToken(tokens.refreshToken());
+
+            String oldTokenID = session.getTokenID();
+            Instant oldCreatedAt = session.getCreatedAt();
 
             session.setTokenID(tokenID);
             session.setCreatedAt(Instant.now());
 
+            long deleteStartedAt = System.nanoTime();
+
             sessionRepository.deleteByID(session.getUserID(), session.getSessionPostfix());
 
-            return sessionRepository.insert(session);
+            long insertStartedAt = System.nanoTime();
+
+            Session refreshedSession = sessionRepository.insert(session);
+
+            event.deleteDuration = insertStartedAt - deleteStartedAt;
+            event.insertDuration = System.nanoTime() - insertStartedAt;
+
+            negativeSessionCache.forgetSessionMissing(sessionID);
+            negativeSessionCache.markTokenSuperseded(sessionID, oldTokenID);
+            negativeSessionCache.forgetTokenSuperseded(sessionID, tokenID);
+            sessionLivenessCache.markLive(sessionID, tokenID);
+            sessionCountCache.invalidate(key.getUserID());
+            sessionDistributionService.recordDeleted(key.getUserID(), oldCreatedAt);
+            sessionDistributionService.recordCreated(key.getUserID(), refreshedSession.getCreatedAt());
+            revocationService.revoke(key.getUserID(), sessionID, oldTokenID);
+
+            event.outcome = "refreshed";
+
+            return refreshedSession;
         } catch (
             SignatureException |
             MalformedJwtException |
@@ -119,26 +238,34 @@ public class SessionServiceImpl implements SessionService {
             UnsupportedJwtException |
             IllegalArgumentException e
         ) {
+            event.outcome = "invalid_token";
             throw new InvalidTokenException();
+        } catch (RuntimeException e) {
+            event.outcome = resolveOutcome(e);
+            throw e;
+        } finally {
+            event.commit();
         }
     }
 
     @Override
+    @Observed(name = "sessions.service", lowCardinalityKeyValues = {"operation", "deleteSession"})
     public void deleteSession(String refreshToken) {
         try {
-            Claims claims = jwtUtil.getRefreshTokenParser().parseClaimsJws(refreshToken).getBody();
+            Claims claims = verifyToken(jwtUtil.getRefreshTokenParser(), refreshToken, "refresh");
             String sessionID = claims.get("sid", String.class);
             SessionKey key = parseSessionID(sessionID).orElseThrow(InvalidTokenException::new);
-
-            Session session = sessionRepository
-                .findByID(key.getUserID(), key.getSessionPostfix())
-                .orElseThrow(InvalidTokenException::new);
-
-            if ( ! claims.getId().equals(session.getTokenID())) throw new InvalidTokenException();
+            Session session = findSessionByToken(key, sessionID, claims.getId());
 
             if ( ! sessionRepository.deleteByID(key.getUserID(), key.getSessionPostfix())) {
                 throw new SessionRemovingException(sessionID);
             }
+
+            negativeSessionCache.markSessionMissing(sessionID);
+            sessionLivenessCache.markRevoked(sessionID);
+            sessionCountCache.invalidate(key.getUserID());
+            revocationService.revoke(key.getUserID(), sessionID, session.getTokenID());
+            sessionDistributionService.recordDeleted(key.getUserID(), session.getCreatedAt());
         }
         catch (
             SignatureException |
@@ -152,16 +279,125 @@ public class SessionServiceImpl implements SessionService {
     }
 
     @Override
+    @Observed(name = "sessions.service", lowCardinalityKeyValues = {"operation", "deleteSessionsByUserID"})
     public void deleteSessionsByUserID(String userID) {
-        if (sessionRepository.existsByUserID(userID)) {
-            if ( ! sessionRepository.deleteAllByUserID(userID)) {
-                throw new UserSessionsRemovingException(userID);
+        List<Session> sessions = sessionRepository.findKeysByUserID(userID);
+
+        if (sessions.isEmpty()) throw new UserSessionsNotFound(userID);
+
+        if ( ! sessionRepository.deleteAllByUserID(userID)) {
+            throw new UserSessionsRemovingException(userID);
+        }
+
+        Map<String, String> tokenIDsBySessionID = new HashMap<>(sessions.size());
+
+        sessions.forEach(session -> {
+            String sessionID = generateSessionID(session.getUserID(), session.getSessionPostfix());
+
+            negativeSessionCache.markSessionMissing(sessionID);
+            sessionLivenessCache.markRevoked(sessionID);
+            sessionDistributionService.recordDeleted(userID, session.getCreatedAt());
+            tokenIDsBySessionID.put(sessionID, session.getTokenID());
+        });
+
+        sessionCountCache.invalidate(userID);
+        revocationService.revokeAll(userID, tokenIDsBySessionID);
+    }
+
+    @Override
+    @Observed(name = "sessions.service", lowCardinalityKeyValues = {"operation", "introspectAccessToken"})
+    public Optional<Claims> introspectAccessToken(String accessToken) {
+        try {
+            Claims claims = verifyToken(jwtUtil.getAccessTokenParser(), accessToken, "access");
+            String sessionID = claims.get("sid", String.class);
+            String tokenID = claims.getId();
+
+            if (sessionID == null || tokenID == null) return Optional.empty();
+
+            if (
+                negativeSessionCache.isSessionMissing(sessionID) ||
+                negativeSessionCache.isTokenSuperseded(sessionID, tokenID)
+            ) {
+                return Optional.empty();
             }
-        } else {
-            throw new UserSessionsNotFound(userID);
+
+            String currentTokenID = sessionLivenessCache.getTokenID(sessionID, this::loadCurrentTokenID);
+
+            if ( ! tokenID.equals(currentTokenID)) return Optional.empty();
+
+            parseSessionID(sessionID).ifPresent(key -> {
+                sessionActivityService.recordActivity(key.getUserID(), key.getSessionPostfix(), Instant.now());
+                slidingExpiryService.touch(key.getUserID(), key.getSessionPostfix());
+            });
+
+            return Optional.of(claims);
+        } catch (
+            SignatureException |
+            MalformedJwtException |
+            ExpiredJwtException |
+            UnsupportedJwtException |
+            IllegalArgumentException e
+        ) {
+            return Optional.empty();
         }
     }
 
+    private Session findSessionByToken(SessionKey key, String sessionID, String tokenID) {
+        if (
+            negativeSessionCache.isSessionMissing(sessionID) ||
+            negativeSessionCache.isTokenSuperseded(sessionID, tokenID)
+        ) {
+            throw new InvalidTokenException();
+        }
+
+        Session session = sessionRepository
+            .findByID(key.getUserID(), key.getSessionPostfix())
+            .orElseThrow(() -> {
+                negativeSessionCache.markSessionMissing(sessionID);
+                return new InvalidTokenException();
+            });
+
+        if ( ! session.getTokenID().equals(tokenID)) {
+            // the read may predate a refresh that issued the presented token, so the presented
+            // token is only known to be superseded when the stored one is the current token
+            if (session.getTokenID().equals(sessionLivenessCache.getCachedTokenID(sessionID))) {
+                negativeSessionCache.markTokenSuperseded(sessionID, tokenID);
+            }
+
+            throw new InvalidTokenException();
+        }
+
+        sessionLivenessCache.markLive(sessionID, session.getTokenID());
+
+        return session;
+    }
+
+    private String loadCurrentTokenID(String sessionID) {
+        Optional<Session> session = parseSessionID(sessionID)
+            .flatMap(key -> sessionRepository.findByID(key.getUserID(), key.getSessionPostfix()));
+
+        if (session.isEmpty()) {
+            negativeSessionCache.markSessionMissing(sessionID);
+            return null;
+        }
+
+        return session.get().getTokenID();
+    }
+
+    private String resolveOutcome(RuntimeException e) {
+        if (e instanceof InvalidTokenException) return "invalid_token";
+        if (e instanceof RateLimitExceededException) return "rate_limited";
+        if (e instanceof SessionStorageUnavailableException) return "unavailable";
+
+        return "failed";
+    }
+
+    private Claims verifyToken(JwtParser parser, String token, String type) {
+        return Observation.createNotStarted("sessions.token.verify", observationRegistry)
+            .lowCardinalityKeyValue("type", type)
+            .observe(() -> parser.parseClaimsJws(token).getBody());
+    }
+
     private String generateSessionID(String userID, String sessionPostfix) {
         return new StringBuilder(userID).append(".").append(sessionPostfix).toString();
     }
@@ -177,22 +413,4 @@ public class SessionServiceImpl implements SessionService {
             builder.substring(separatorIndex + 1)
         ));
     }
-
-    private String generateRefreshToken(String tokenID, String userID, String sessionID, String[] roles) {
-        return jwtUtil.generateRefreshTokenBuilder()
-            .setId(tokenID)
-            .setSubject(userID)
-            .claim("roles", roles)
-            .claim("sid", sessionID)
-            .compact();
-    }
-
-    private String generateAccessToken(String tokenID, String userID, String sessionID, String[] roles) {
-        return jwtUtil.generateAccessTokenBuilder()
-            .setId(tokenID)
-            .setSubject(userID)
-            .claim("roles", roles)
-            .claim("sid", sessionID)
-            .compact();
-    }
 }
@@ -0,0 +1,171 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.sessionservice.cache.SessionCountCache;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.SessionRepository;
+import com.rednet.sessionservice.service.SlidingExpiryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Extends the expiration of active sessions when the idle timeout is set. A session lives for
+ * the idle timeout after its last touch, but never longer than its refresh token. Touches of a
+ * session within the touch window are coalesced into the first one, so an active session costs
+ * at most one write per window. Every write, and the load that touches by session key need
+ * first, runs on a background thread with a bounded queue rather than on the request thread.
+ * Extending is best effort: a failed or dropped write leaves the session with its current
+ * expiration and the next touch tries again.
+ */
+@Service
+public class SlidingExpiryServiceImpl implements SlidingExpiryService, DisposableBean {
+    private final SessionRepository sessionRepository;
+    private final SessionCountCache sessionCountCache;
+    private final Cache<String, Boolean> recentTouches;
+    private final Executor touchExecutor;
+    private final long idleTimeoutMs;
+    private final long refreshTokenExpirationMs;
+    private final Counter extendedTouches;
+    private final Counter coalescedTouches;
+    private final Counter failedTouches;
+    private final Counter droppedTouches;
+
+    @Autowired
+    public SlidingExpiryServiceImpl(
+        SessionRepository sessionRepository,
+        SessionCountCache sessionCountCache,
+        @Value("${rednet.app.session.sliding-expiry.idle-timeout-ms}") long idleTimeoutMs,
+        @Value("${rednet.app.session.sliding-expiry.touch-window-ms}") long touchWindowMs,
+        @Value("${rednet.app.session.sliding-expiry.max-tracked-sessions}") long maxTrackedSessions,
+        @Value("${rednet.app.security.refresh-token.expiration-ms}") long refreshTokenExpirationMs,
+        @Value("${rednet.app.session.sliding-expiry.max-pending-touches}") int maxPendingTouches,
+        MeterRegistry meterRegistry
+    ) {
+        this(
+            sessionRepository,
+            sessionCountCache,
+            idleTimeoutMs,
+            touchWindowMs,
+            maxTrackedSessions,
+            refreshTokenExpirationMs,
+            new ThreadPoolExecutor(1, 1, 0, MILLISECONDS, new ArrayBlockingQueue<>(maxPendingTouches), runnable -> {
+                Thread thread = new Thread(runnable, "sliding-expiry-touch");
+                thread.setDaemon(true);
+                return thread;
+            }),
+            meterRegistry
+        );
+    }
+
+    SlidingExpiryServiceImpl(
+        SessionRepository sessionRepository,
+        SessionCountCache sessionCountCache,
+        long idleTimeoutMs,
+        long touchWindowMs,
+        long maxTrackedSessions,
+        long refreshTokenExpirationMs,
+        Executor touchExecutor,
+        MeterRegistry meterRegistry
+    ) {
+        this.sessionRepository = sessionRepository;
+        this.touchExecutor = touchExecutor;
+        this.sessionCountCache = sessionCountCache;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+        this.recentTouches = Caffeine.newBuilder()
+            .maximumSize(maxTrackedSessions)
+            .expireAfterWrite(Duration.ofMillis(touchWindowMs))
+            .build();
+
+        this.extendedTouches = generateTouchCounter(meterRegistry, "extended");
+        this.coalescedTouches = generateTouchCounter(meterRegistry, "coalesced");
+        this.failedTouches = generateTouchCounter(meterRegistry, "failed");
+        this.droppedTouches = generateTouchCounter(meterRegistry, "dropped");
+    }
+
+    @Override
+    public void touch(Session session, Instant observedAt) {
+        String sessionID = session.getUserID() + "." + session.getSessionPostfix();
+
+        if (idleTimeoutMs <= 0 || ! claim(sessionID)) return;
+
+        submit(sessionID, () -> extend(sessionID, session, observedAt));
+    }
+
+    @Override
+    public void touch(String userID, String sessionPostfix) {
+        String sessionID = userID + "." + sessionPostfix;
+
+        if (idleTimeoutMs <= 0 || ! claim(sessionID)) return;
+
+        Instant observedAt = Instant.now();
+
+        submit(sessionID, () -> {
+            try {
+                sessionRepository.findByID(userID, sessionPostfix)
+                    .ifPresent(session -> extend(sessionID, session, observedAt));
+            } catch (RuntimeException e) {
+                recentTouches.invalidate(sessionID);
+                failedTouches.increment();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (touchExecutor instanceof ExecutorService executorService) executorService.shutdown();
+    }
+
+    private boolean claim(String sessionID) {
+        if (recentTouches.asMap().putIfAbsent(sessionID, Boolean.TRUE) == null) return true;
+
+        coalescedTouches.increment();
+
+        return false;
+    }
+
+    private void submit(String sessionID, Runnable touch) {
+        try {
+            touchExecutor.execute(touch);
+        } catch (RejectedExecutionException e) {
+            recentTouches.invalidate(sessionID);
+            droppedTouches.increment();
+        }
+    }
+
+    private void extend(String sessionID, Session session, Instant observedAt) {
+        long remainingMs = session.getCreatedAt().toEpochMilli() + refreshTokenExpirationMs - observedAt.toEpochMilli();
+
+        if (remainingMs <= 0) return;
+
+        try {
+            sessionRepository.extendExpiration(session, Math.min(idleTimeoutMs, remainingMs) + 10000, observedAt);
+            sessionCountCache.invalidate(session.getUserID());
+            extendedTouches.increment();
+        } catch (RuntimeException e) {
+            recentTouches.invalidate(sessionID);
+            failedTouches.increment();
+        }
+    }
+
+    private Counter generateTouchCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("sessions.sliding-expiry.touches")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,204 @@
+package com.rednet.sessionservice.tracing;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.QueryTrace;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.cql.TraceEvent;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Logs CQL statements slower than a threshold together with the hashed partition key, the
+ * coordinator, the number of retried node attempts and speculative executions, and marks a
+ * sampled share of statements for server-side tracing, logging the fetched trace per replica.
+ * Partition keys are hashed so user IDs do not end up in logs, while the same partition
+ * always produces the same hash.
+ */
+public class StatementDiagnosticsInterceptor implements MethodInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(StatementDiagnosticsInterceptor.class);
+
+    private final long slowThresholdNanos;
+    private final double tracingProbability;
+
+    public StatementDiagnosticsInterceptor(long slowThresholdMs, double tracingProbability) {
+        this.slowThresholdNanos = slowThresholdMs < 0 ? Long.MAX_VALUE : MILLISECONDS.toNanos(slowThresholdMs);
+        this.tracingProbability = tracingProbability;
+    }
+
+    public static CqlSession wrap(CqlSession session, long slowThresholdMs, double tracingProbability) {
+        ProxyFactory proxyFactory = new ProxyFactory(session);
+
+        proxyFactory.addInterface(CqlSession.class);
+        proxyFactory.addAdvice(new StatementDiagnosticsInterceptor(slowThresholdMs, tracingProbability));
+
+        return (CqlSession) proxyFactory.getProxy();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String methodName = invocation.getMethod().getName();
+        Object[] arguments = invocation.getArguments();
+
+        if ( ! methodName.startsWith("execute") || arguments.length != 1 || ! (arguments[0] instanceof Statement<?>)) {
+            return invocation.proceed();
+        }
+
+        Statement<?> statement = (Statement<?>) arguments[0];
+
+        if (tracingProbability > 0 && ThreadLocalRandom.current().nextDouble() < tracingProbability) {
+            statement = statement.setTracing(true);
+            arguments[0] = statement;
+        }
+
+        Statement<?> executedStatement = statement;
+        long startedAt = System.nanoTime();
+        Object result;
+
+        try {
+            result = invocation.proceed();
+        } catch (DriverException e) {
+            onCompleted(executedStatement, startedAt, e.getExecutionInfo(), "failed");
+            throw e;
+        }
+
+        if (result instanceof ResultSet resultSet) {
+            onCompleted(executedStatement, startedAt, resultSet.getExecutionInfo(), "success");
+        } else if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((asyncResult, error) -> {
+                if (asyncResult instanceof AsyncResultSet resultSet) {
+                    onCompleted(executedStatement, startedAt, resultSet.getExecutionInfo(), "success");
+                } else if (error != null) {
+                    ExecutionInfo executionInfo = error.getCause() instanceof DriverException cause
+                        ? cause.getExecutionInfo()
+                        : error instanceof DriverException driverError ? driverError.getExecutionInfo() : null;
+
+                    onCompleted(executedStatement, startedAt, executionInfo, "failed");
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private void onCompleted(Statement<?> statement, long startedAt, ExecutionInfo executionInfo, String outcome) {
+        long elapsed = System.nanoTime() - startedAt;
+
+        if (elapsed >= slowThresholdNanos) {
+            log.warn(
+                "Slow CQL statement {} took {} ms: partition={}, coordinator={}, retries={}, " +
+                "speculative-executions={}, response-bytes={}, outcome={}",
+                describe(statement),
+                NANOSECONDS.toMillis(elapsed),
+                hashPartitionKey(statement),
+                executionInfo == null || executionInfo.getCoordinator() == null
+                    ? "unknown"
+                    : executionInfo.getCoordinator().getEndPoint(),
+                executionInfo == null ? 0 : executionInfo.getErrors().size(),
+                executionInfo == null ? 0 : executionInfo.getSpeculativeExecutionCount(),
+                executionInfo == null ? 0 : executionInfo.getResponseSizeInBytes(),
+                outcome
+            );
+        }
+
+        if (statement.isTracing() && executionInfo != null && executionInfo.getTracingId() != null) {
+            executionInfo.getQueryTraceAsync().whenComplete((trace, error) -> {
+                if (error != null) {
+                    log.debug("Could not fetch CQL trace {}", executionInfo.getTracingId(), error);
+                } else {
+                    logTrace(statement, trace);
+                }
+            });
+        }
+    }
+
+    private void logTrace(Statement<?> statement, QueryTrace trace) {
+        Map<String, Integer> elapsedMicrosByReplica = new TreeMap<>();
+
+        for (TraceEvent event : trace.getEvents()) {
+            elapsedMicrosByReplica.merge(
+                String.valueOf(event.getSourceAddress()),
+                event.getSourceElapsedMicros(),
+                Math::max
+            );
+        }
+
+        log.info(
+            "CQL trace {} for {}: partition={}, coordinator={}, duration={} us, events={}, elapsed-us-by-replica={}",
+            trace.getTracingId(),
+            describe(statement),
+            hashPartitionKey(statement),
+            trace.getCoordinatorAddress(),
+            trace.getDurationMicros(),
+            trace.getEvents().size(),
+            elapsedMicrosByReplica
+        );
+    }
+
+    /**
+     * Reduces a statement to its kind and table, e.g. {@code SELECT sessions}.
+     */
+    static String describe(Statement<?> statement) {
+        String query;
+
+        if (statement instanceof BoundStatement boundStatement) {
+            query = boundStatement.getPreparedStatement().getQuery();
+        } else if (statement instanceof SimpleStatement simpleStatement) {
+            query = simpleStatement.getQuery();
+        } else if (statement instanceof BatchStatement batchStatement) {
+            return "BATCH of " + batchStatement.size();
+        } else {
+            return statement.getClass().getSimpleName();
+        }
+
+        String[] words = query.trim().split("\\s+");
+        String kind = words[0].toUpperCase();
+        String tableKeyword = switch (kind) {
+            case "SELECT", "DELETE" -> "FROM";
+            case "INSERT" -> "INTO";
+            default -> null;
+        };
+
+        for (int i = 1; i < words.length - 1; i++) {
+            if (words[i].equalsIgnoreCase(tableKeyword)) return kind + " " + words[i + 1];
+        }
+
+        return kind.equals("UPDATE") && words.length > 1 ? kind + " " + words[1] : kind;
+    }
+
+    static String hashPartitionKey(Statement<?> statement) {
+        ByteBuffer routingKey = statement.getRoutingKey();
+
+        if (routingKey == null) return "unknown";
+
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = routingKey.position(); i < routingKey.limit(); i++) {
+            hash = (hash ^ (routingKey.get(i) & 0xff)) * 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+
+        return String.format("%016x", hash);
+    }
+}
@@ -0,0 +1,85 @@
+package com.rednet.sessionservice.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Bloom filter over UTF-8 strings. Bit positions are derived from the 64-bit FNV-1a hash of a
+ * value with double hashing: {@code floorMod(h1 + i * h2, bitCount)} in 32-bit arithmetic, where
+ * h1 and h2 are the low and high 32 bits of the hash. Bits are exported as big-endian 64-bit
+ * words, bit {@code n} being bit {@code n % 64} of word {@code n / 64}, so consumers can rebuild
+ * the filter from those rules.
+ */
+public class BloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] words;
+    private final int bitCount;
+    private final int hashCount;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        int insertions = Math.max(expectedInsertions, 1);
+        double ln2 = Math.log(2);
+
+        this.bitCount = Math.max(64, (int) Math.ceil(-insertions * Math.log(falsePositiveProbability) / (ln2 * ln2)));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * ln2));
+        this.words = new long[(bitCount + 63) >>> 6];
+    }
+
+    public static BloomFilter of(Collection<String> values, double falsePositiveProbability) {
+        BloomFilter filter = new BloomFilter(values.size(), falsePositiveProbability);
+        values.forEach(filter::put);
+        return filter;
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            words[bit >>> 6] |= 1L << (bit & 63);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words[bit >>> 6] & (1L << (bit & 63))) == 0) return false;
+        }
+
+        return true;
+    }
+
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+        for (long word : words) buffer.putLong(word);
+        return buffer.array();
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+}
@@ -0,0 +1,14 @@
+package com.rednet.sessionservice.util;
+
+public interface CircuitBreaker {
+    boolean tryAcquire  ();
+    void    onSuccess   ();
+    void    onFailure   ();
+    State   getState    ();
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,13 @@
+package com.rednet.sessionservice.util;
+
+public interface ConcurrencyLimiter {
+    boolean tryAcquire  (Priority priority);
+    void    release     (long latencyNs, boolean failed);
+    int     getLimit    ();
+    int     getInflight ();
+
+    enum Priority {
+        HIGH,
+        LOW
+    }
+}
@@ -0,0 +1,71 @@
+package com.rednet.sessionservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch over UTF-8 strings whose counts can be decremented as well. Each of the
+ * {@code depth} rows picks its counter with {@code floorMod(h1 + row * h2, width)}, h1 and h2
+ * being the halves of the 64-bit FNV-1a hash as in {@link BloomFilter}, with h2 forced odd so
+ * rows never collapse onto one column for power-of-two widths. The estimate is the smallest
+ * counter over all rows; as long as only counted values are decremented it never
+ * underestimates and overestimates by at most {@code e / width} of the total count with
+ * probability {@code 1 - e^-depth}. Counters are clamped at zero, so decrements of values
+ * that were never counted, e.g. deletions of sessions created on another instance, cannot
+ * drive them negative. Safe for concurrent use.
+ */
+public class CountMinSketch {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicIntegerArray counters;
+    private final int width;
+    private final int depth;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) throw new IllegalArgumentException("Sketch width and depth should be positive");
+
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicIntegerArray(width * depth);
+    }
+
+    public void add(String value, int delta) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + Math.floorMod(h1 + row * h2, width);
+            int counter;
+
+            do {
+                counter = counters.get(index);
+            } while ( ! counters.compareAndSet(index, counter, Math.max(0, counter + delta)));
+        }
+    }
+
+    public long estimate(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + Math.floorMod(h1 + row * h2, width)));
+        }
+
+        return estimate;
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+}
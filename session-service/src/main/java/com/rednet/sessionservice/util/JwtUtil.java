@@ -4,6 +4,8 @@ import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtParser;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component
 public interface JwtUtil {
     JwtBuilder generateAccessTokenBuilder();
@@ -11,4 +13,5 @@ public interface JwtUtil {
     JwtParser getApiTokenParser();
     JwtParser getAccessTokenParser();
     JwtParser getRefreshTokenParser();
+    Map<String, Object> getAccessTokenJwks();
 }
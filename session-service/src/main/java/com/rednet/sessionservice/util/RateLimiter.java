@@ -0,0 +1,5 @@
+package com.rednet.sessionservice.util;
+
+public interface RateLimiter {
+    boolean tryAcquire(String key);
+}
@@ -0,0 +1,4 @@
+package com.rednet.sessionservice.util;
+
+public record TokenPair(String accessToken, String refreshToken) {
+}
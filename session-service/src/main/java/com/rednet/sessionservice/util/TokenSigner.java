@@ -0,0 +1,5 @@
+package com.rednet.sessionservice.util;
+
+public interface TokenSigner {
+    TokenPair sign(String tokenID, String userID, String sessionID, String[] roles);
+}
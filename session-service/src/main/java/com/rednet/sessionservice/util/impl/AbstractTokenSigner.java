@@ -0,0 +1,30 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.rednet.sessionservice.util.JwtUtil;
+import com.rednet.sessionservice.util.TokenSigner;
+
+public abstract class AbstractTokenSigner implements TokenSigner {
+    protected final JwtUtil jwtUtil;
+
+    protected AbstractTokenSigner(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    protected String generateAccessToken(String tokenID, String userID, String sessionID, String[] roles) {
+        return jwtUtil.generateAccessTokenBuilder()
+            .setId(tokenID)
+            .setSubject(userID)
+            .claim("roles", roles)
+            .claim("sid", sessionID)
+            .compact();
+    }
+
+    protected String generateRefreshToken(String tokenID, String userID, String sessionID, String[] roles) {
+        return jwtUtil.generateRefreshTokenBuilder()
+            .setId(tokenID)
+            .setSubject(userID)
+            .claim("roles", roles)
+            .claim("sid", sessionID)
+            .compact();
+    }
+}
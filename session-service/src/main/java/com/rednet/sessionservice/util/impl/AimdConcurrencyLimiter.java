@@ -0,0 +1,86 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.rednet.sessionservice.util.ConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Additive-increase/multiplicative-decrease limit on concurrent Cassandra-bound requests. The
+ * limit grows by one for every fast response that found the limiter at least half full and
+ * backs off when a response is slower than the latency threshold or fails. Only a response
+ * that started after the previous backoff can back off again, so a burst of slow responses
+ * queued behind the same stall shrinks the limit once rather than once per response. Low
+ * priority requests may only use a share of the limit, so listing sheds before refresh and
+ * delete do.
+ */
+@Component
+public class AimdConcurrencyLimiter implements ConcurrencyLimiter {
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger limit;
+    private final AtomicLong lastBackoffAt;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNs;
+    private final double backoffRatio;
+    private final double lowPriorityShare;
+
+    public AimdConcurrencyLimiter(
+        @Value("${rednet.app.concurrency-limit.initial-limit}") int initialLimit,
+        @Value("${rednet.app.concurrency-limit.min-limit}") int minLimit,
+        @Value("${rednet.app.concurrency-limit.max-limit}") int maxLimit,
+        @Value("${rednet.app.concurrency-limit.latency-threshold-ms}") long latencyThresholdMs,
+        @Value("${rednet.app.concurrency-limit.backoff-ratio}") double backoffRatio,
+        @Value("${rednet.app.concurrency-limit.low-priority-share}") double lowPriorityShare
+    ) {
+        this.limit = new AtomicInteger(initialLimit);
+        this.lastBackoffAt = new AtomicLong(System.nanoTime() - TimeUnit.DAYS.toNanos(1));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNs = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.backoffRatio = backoffRatio;
+        this.lowPriorityShare = lowPriorityShare;
+    }
+
+    @Override
+    public boolean tryAcquire(Priority priority) {
+        int currentLimit = limit.get();
+        int allowed = priority == Priority.HIGH ? currentLimit : Math.max(1, (int) (currentLimit * lowPriorityShare));
+
+        while (true) {
+            int current = inflight.get();
+
+            if (current >= allowed) return false;
+            if (inflight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    @Override
+    public void release(long latencyNs, boolean failed) {
+        int current = inflight.getAndDecrement();
+
+        if (failed || latencyNs > latencyThresholdNs) {
+            long now = System.nanoTime();
+            long previousBackoffAt = lastBackoffAt.get();
+
+            if (now - latencyNs - previousBackoffAt > 0 && lastBackoffAt.compareAndSet(previousBackoffAt, now)) {
+                limit.updateAndGet(value -> Math.max(minLimit, (int) (value * backoffRatio)));
+            }
+        } else {
+            limit.updateAndGet(value -> current * 2 >= value ? Math.min(maxLimit, value + 1) : value);
+        }
+    }
+
+    @Override
+    public int getLimit() {
+        return limit.get();
+    }
+
+    @Override
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,113 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.rednet.sessionservice.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.rednet.sessionservice.util.CircuitBreaker.State.CLOSED;
+import static com.rednet.sessionservice.util.CircuitBreaker.State.HALF_OPEN;
+import static com.rednet.sessionservice.util.CircuitBreaker.State.OPEN;
+
+/**
+ * Opens after a run of consecutive failures. Once the open period is over, calls are let
+ * through one at a time until enough probes succeed in a row to close again. A failed probe
+ * reopens the breaker for twice as long, up to the configured maximum, so a flapping cluster
+ * is not hit by every waiting request at once.
+ */
+@Component
+public class CircuitBreakerImpl implements CircuitBreaker {
+    private final int failureThreshold;
+    private final int requiredProbes;
+    private final long minOpenDurationNs;
+    private final long maxOpenDurationNs;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile State state = CLOSED;
+    private long openDurationNs;
+    private long openedAt;
+    private int successfulProbes;
+    private boolean probeInFlight;
+
+    public CircuitBreakerImpl(
+        @Value("${rednet.app.session.circuit-breaker.failure-threshold}") int failureThreshold,
+        @Value("${rednet.app.session.circuit-breaker.required-probes}") int requiredProbes,
+        @Value("${rednet.app.session.circuit-breaker.open-duration-ms}") long openDurationMs,
+        @Value("${rednet.app.session.circuit-breaker.max-open-duration-ms}") long maxOpenDurationMs
+    ) {
+        this.failureThreshold = failureThreshold;
+        this.requiredProbes = requiredProbes;
+        this.minOpenDurationNs = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.maxOpenDurationNs = TimeUnit.MILLISECONDS.toNanos(maxOpenDurationMs);
+        this.openDurationNs = minOpenDurationNs;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return state == CLOSED || tryAcquireProbe();
+    }
+
+    @Override
+    public void onSuccess() {
+        if (state == CLOSED) {
+            if (consecutiveFailures.get() != 0) consecutiveFailures.set(0);
+            return;
+        }
+
+        synchronized (this) {
+            if (state != HALF_OPEN) return;
+
+            probeInFlight = false;
+
+            if (++successfulProbes >= requiredProbes) {
+                consecutiveFailures.set(0);
+                openDurationNs = minOpenDurationNs;
+                state = CLOSED;
+            }
+        }
+    }
+
+    @Override
+    public void onFailure() {
+        if (state == CLOSED && consecutiveFailures.incrementAndGet() < failureThreshold) return;
+
+        synchronized (this) {
+            if (state == HALF_OPEN) {
+                openDurationNs = Math.min(maxOpenDurationNs, openDurationNs * 2);
+                open();
+            } else if (state == CLOSED) {
+                open();
+            }
+        }
+    }
+
+    @Override
+    public State getState() {
+        return state;
+    }
+
+    private synchronized boolean tryAcquireProbe() {
+        if (state == CLOSED) return true;
+
+        if (state == OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNs) return false;
+
+            state = HALF_OPEN;
+            successfulProbes = 0;
+            probeInFlight = false;
+        }
+
+        if (probeInFlight) return false;
+
+        probeInFlight = true;
+
+        return true;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        probeInFlight = false;
+        state = OPEN;
+    }
+}
@@ -1,14 +1,39 @@
 package com.rednet.sessionservice.util.impl;
 
+import com.rednet.sessionservice.config.AccessTokenSigningProperties;
+import com.rednet.sessionservice.config.AccessTokenSigningProperties.SigningKey;
 import com.rednet.sessionservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.jackson.io.JacksonSerializer;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static io.jsonwebtoken.SignatureAlgorithm.HS256;
 import static io.jsonwebtoken.io.Decoders.BASE64;
@@ -17,13 +42,17 @@ import static io.jsonwebtoken.io.Decoders.BASE64;
 public class JwtUtilImpl implements JwtUtil {
     private final String accessTokenIssuer;
     private final String refreshTokenIssuer;
-    private final String accessTokenSecretKey;
+    private final Key accessTokenSigningKey;
+    private final SignatureAlgorithm accessTokenSignatureAlgorithm;
+    private final String accessTokenKeyID;
     private final long accessTokenExpirationMs;
-    private final String refreshTokenSecretKey;
+    private final Key refreshTokenSigningKey;
     private final long refreshTokenExpirationMs;
     private final JwtParser accessTokenParser;
     private final JwtParser apiTokenParser;
     private final JwtParser refreshTokenParser;
+    private final Map<String, Object> accessTokenJwks;
+    private final Serializer<Map<String, ?>> jsonSerializer = new JacksonSerializer<>();
 
     public JwtUtilImpl(
         @Value("${rednet.app.security.access-token.issuer}") String accessTokenIssuer,
@@ -36,20 +65,67 @@ public class JwtUtilImpl implements JwtUtil {
         @Value("${rednet.app.security.refresh-token.allowed-clock-skew-s}") long refreshTokenAllowedClockSkewS,
         @Value("${rednet.app.security.api-token.secret-key}") String apiTokenSecretKey,
         @Value("${rednet.app.security.api-token.issuer}") String apiTokenIssuer,
-        @Value("${rednet.app.security.api-token.allowed-clock-skew-s}") long apiTokenAllowedClockSkewS
+        @Value("${rednet.app.security.api-token.allowed-clock-skew-s}") long apiTokenAllowedClockSkewS,
+        AccessTokenSigningProperties accessTokenSigningProperties
     ) {
         this.accessTokenIssuer = accessTokenIssuer;
         this.refreshTokenIssuer = refreshTokenIssuer;
-        this.accessTokenSecretKey = accessTokenSecretKey;
         this.accessTokenExpirationMs = accessTokenExpirationMs;
-        this.refreshTokenSecretKey = refreshTokenSecretKey;
+        this.refreshTokenSigningKey = Keys.hmacShaKeyFor(BASE64.decode(refreshTokenSecretKey));
         this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+        this.accessTokenSignatureAlgorithm = accessTokenSigningProperties.signingAlgorithm();
 
-        this.accessTokenParser = Jwts.parserBuilder()
-            .setSigningKey(Keys.hmacShaKeyFor(BASE64.decode(accessTokenSecretKey)))
-            .requireIssuer(accessTokenIssuer)
-            .setAllowedClockSkewSeconds(accessTokenAllowedClockSkewS)
-            .build();
+        if (accessTokenSignatureAlgorithm.isHmac()) {
+            this.accessTokenSigningKey = Keys.hmacShaKeyFor(BASE64.decode(accessTokenSecretKey));
+            this.accessTokenKeyID = null;
+            this.accessTokenJwks = Map.of("keys", List.of());
+
+            this.accessTokenParser = Jwts.parserBuilder()
+                .setSigningKey(accessTokenSigningKey)
+                .requireIssuer(accessTokenIssuer)
+                .setAllowedClockSkewSeconds(accessTokenAllowedClockSkewS)
+                .build();
+        } else {
+            Map<String, PublicKey> verificationKeys = new HashMap<>();
+            List<Map<String, Object>> jwks = new ArrayList<>();
+            PrivateKey activeSigningKey = null;
+
+            for (SigningKey signingKey : accessTokenSigningProperties.signingKeys()) {
+                PublicKey publicKey = decodePublicKey(signingKey.publicKey());
+
+                verificationKeys.put(signingKey.id(), publicKey);
+                jwks.add(generateJwk(signingKey.id(), publicKey));
+
+                if (signingKey.id().equals(accessTokenSigningProperties.activeKeyId())) {
+                    activeSigningKey = decodePrivateKey(signingKey.privateKey());
+                }
+            }
+
+            if (activeSigningKey == null) {
+                throw new IllegalStateException(
+                    "Active access token key " + accessTokenSigningProperties.activeKeyId() + " is not configured"
+                );
+            }
+
+            this.accessTokenSigningKey = activeSigningKey;
+            this.accessTokenKeyID = accessTokenSigningProperties.activeKeyId();
+            this.accessTokenJwks = Map.of("keys", List.copyOf(jwks));
+
+            this.accessTokenParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        PublicKey key = header.getKeyId() == null ? null : verificationKeys.get(header.getKeyId());
+
+                        if (key == null) throw new SignatureException("unknown key id " + header.getKeyId());
+
+                        return key;
+                    }
+                })
+                .requireIssuer(accessTokenIssuer)
+                .setAllowedClockSkewSeconds(accessTokenAllowedClockSkewS)
+                .build();
+        }
 
         this.apiTokenParser = Jwts.parserBuilder()
             .setSigningKey(Keys.hmacShaKeyFor(BASE64.decode(apiTokenSecretKey)))
@@ -58,7 +134,7 @@ public class JwtUtilImpl implements JwtUtil {
             .build();
 
         this.refreshTokenParser = Jwts.parserBuilder()
-            .setSigningKey(Keys.hmacShaKeyFor(BASE64.decode(refreshTokenSecretKey)))
+            .setSigningKey(refreshTokenSigningKey)
             .requireIssuer(refreshTokenIssuer)
             .setAllowedClockSkewSeconds(refreshTokenAllowedClockSkewS)
             .build();
@@ -66,17 +142,21 @@ public class JwtUtilImpl implements JwtUtil {
 
     @Override
     public JwtBuilder generateAccessTokenBuilder() {
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+            .serializeToJsonWith(jsonSerializer)
             .setIssuer(accessTokenIssuer)
-            .signWith(Keys.hmacShaKeyFor(BASE64.decode(accessTokenSecretKey)), HS256)
+            .signWith(accessTokenSigningKey, accessTokenSignatureAlgorithm)
             .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpirationMs));
+
+        return accessTokenKeyID == null ? builder : builder.setHeaderParam(JwsHeader.KEY_ID, accessTokenKeyID);
     }
 
     @Override
     public JwtBuilder generateRefreshTokenBuilder() {
         return Jwts.builder()
+            .serializeToJsonWith(jsonSerializer)
             .setIssuer(refreshTokenIssuer)
-            .signWith(Keys.hmacShaKeyFor(BASE64.decode(refreshTokenSecretKey)), HS256)
+            .signWith(refreshTokenSigningKey, HS256)
             .setExpiration(new Date(System.currentTimeMillis() + refreshTokenExpirationMs));
     }
 
@@ -94,4 +174,67 @@ public class JwtUtilImpl implements JwtUtil {
     public JwtParser getRefreshTokenParser() {
         return refreshTokenParser;
     }
+
+    @Override
+    public Map<String, Object> getAccessTokenJwks() {
+        return accessTokenJwks;
+    }
+
+    private PublicKey decodePublicKey(String encodedKey) {
+        try {
+            return getKeyFactory().generatePublic(new X509EncodedKeySpec(BASE64.decode(encodedKey)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid access token public key", e);
+        }
+    }
+
+    private PrivateKey decodePrivateKey(String encodedKey) {
+        if (encodedKey == null) throw new IllegalStateException("Active access token key has no private key");
+
+        try {
+            return getKeyFactory().generatePrivate(new PKCS8EncodedKeySpec(BASE64.decode(encodedKey)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid access token private key", e);
+        }
+    }
+
+    private KeyFactory getKeyFactory() throws GeneralSecurityException {
+        return KeyFactory.getInstance(accessTokenSignatureAlgorithm.isEllipticCurve() ? "EC" : "RSA");
+    }
+
+    private Map<String, Object> generateJwk(String keyID, PublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+
+        jwk.put("kid", keyID);
+        jwk.put("use", "sig");
+        jwk.put("alg", accessTokenSignatureAlgorithm.getValue());
+
+        if (publicKey instanceof ECPublicKey ecKey) {
+            int fieldSize = ecKey.getParams().getCurve().getField().getFieldSize();
+            int coordinateLength = (fieldSize + 7) / 8;
+
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-" + fieldSize);
+            jwk.put("x", encodeUnsigned(ecKey.getW().getAffineX(), coordinateLength));
+            jwk.put("y", encodeUnsigned(ecKey.getW().getAffineY(), coordinateLength));
+        } else if (publicKey instanceof RSAPublicKey rsaKey) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", encodeUnsigned(rsaKey.getModulus(), (rsaKey.getModulus().bitLength() + 7) / 8));
+            jwk.put("e", encodeUnsigned(rsaKey.getPublicExponent(), (rsaKey.getPublicExponent().bitLength() + 7) / 8));
+        } else {
+            throw new IllegalStateException("Unsupported access token key type " + publicKey.getAlgorithm());
+        }
+
+        return jwk;
+    }
+
+    private String encodeUnsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        byte[] unsigned = new byte[length];
+        int copyLength = Math.min(bytes.length, length);
+
+        System.arraycopy(bytes, bytes.length - copyLength, unsigned, length - copyLength, copyLength);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(unsigned);
+    }
 }
@@ -0,0 +1,78 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.rednet.sessionservice.util.JwtUtil;
+import com.rednet.sessionservice.util.TokenPair;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Signs the refresh token on a core-sized signing pool while the request thread signs the
+ * access token, so issuing a pair takes about one signature. When the bounded queue is full
+ * the request thread signs both tokens itself, which throttles callers instead of letting
+ * signing work pile up.
+ */
+@Component
+@ConditionalOnProperty(name = "rednet.app.security.token-signing.mode", havingValue = "parallel")
+public class ParallelTokenSigner extends AbstractTokenSigner implements DisposableBean {
+    private final ThreadPoolExecutor signingExecutor;
+
+    public ParallelTokenSigner(
+        JwtUtil jwtUtil,
+        @Value("${rednet.app.security.token-signing.queue-capacity}") int queueCapacity
+    ) {
+        super(jwtUtil);
+
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "token-signing-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.signingExecutor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60,
+            SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory,
+            (task, executor) -> task.run()
+        );
+    }
+
+    @Override
+    @Observed(name = "sessions.token.sign", lowCardinalityKeyValues = {"mode", "parallel"})
+    public TokenPair sign(String tokenID, String userID, String sessionID, String[] roles) {
+        CompletableFuture<String> refreshToken = CompletableFuture.supplyAsync(
+            () -> generateRefreshToken(tokenID, userID, sessionID, roles),
+            signingExecutor
+        );
+
+        String accessToken = generateAccessToken(tokenID, userID, sessionID, roles);
+
+        try {
+            return new TokenPair(accessToken, refreshToken.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        signingExecutor.shutdown();
+    }
+}
@@ -0,0 +1,28 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.rednet.sessionservice.util.JwtUtil;
+import com.rednet.sessionservice.util.TokenPair;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(
+    name = "rednet.app.security.token-signing.mode",
+    havingValue = "sequential",
+    matchIfMissing = true
+)
+public class SequentialTokenSigner extends AbstractTokenSigner {
+    public SequentialTokenSigner(JwtUtil jwtUtil) {
+        super(jwtUtil);
+    }
+
+    @Override
+    @Observed(name = "sessions.token.sign", lowCardinalityKeyValues = {"mode", "sequential"})
+    public TokenPair sign(String tokenID, String userID, String sessionID, String[] roles) {
+        return new TokenPair(
+            generateAccessToken(tokenID, userID, sessionID, roles),
+            generateRefreshToken(tokenID, userID, sessionID, roles)
+        );
+    }
+}
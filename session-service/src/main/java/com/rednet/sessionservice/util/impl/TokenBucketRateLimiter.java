@@ -0,0 +1,56 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.rednet.sessionservice.util.RateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per key, kept as a single theoretical arrival time (GCRA) so acquiring is one
+ * compare-and-set without locks. A bucket left idle long enough to refill completely is
+ * indistinguishable from a new one, so keys expire after that time and the number of tracked
+ * keys is bounded. A key evicted for size before its bucket refilled may come back, and
+ * starting it with a full bucket would let many distinct keys reset each other's limits, so
+ * until the buckets evicted for size would have refilled, keys not tracked start at the limit.
+ * Maintenance runs on the calling thread, so an eviction is seen by the next acquire.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+    private final long refillIntervalNs;
+    private final long burstToleranceNs;
+    private final Cache<String, AtomicLong> buckets;
+    private final AtomicLong evictedRefilledAt = new AtomicLong(System.nanoTime());
+
+    public TokenBucketRateLimiter(long capacity, double refillPerSecond, long maxTrackedKeys) {
+        this.refillIntervalNs = (long) (1_000_000_000L / refillPerSecond);
+        this.burstToleranceNs = refillIntervalNs * capacity;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxTrackedKeys)
+            .expireAfterAccess(Duration.ofNanos(burstToleranceNs))
+            .evictionListener((String key, AtomicLong arrivalTime, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE && arrivalTime != null) {
+                    evictedRefilledAt.accumulateAndGet(arrivalTime.get(), (a, b) -> b - a > 0 ? b : a);
+                }
+            })
+            .executor(Runnable::run)
+            .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong arrivalTime = buckets.get(key, k -> new AtomicLong(
+            evictedRefilledAt.get() - now > 0 ? now + burstToleranceNs : now
+        ));
+
+        while (true) {
+            long current = arrivalTime.get();
+            long next = Math.max(current, now) + refillIntervalNs;
+
+            if (next - now > burstToleranceNs) return false;
+            if (arrivalTime.compareAndSet(current, next)) return true;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.rednet.sessionservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.rednet.sessionservice.config.WebConfig;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.service.SessionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SessionControllerTest {
+    SessionService sessionService = mock(SessionService.class);
+    ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    Session expectedSession = new Session(
+        "user", "123456", Instant.ofEpochMilli(1000), new String[]{"USER"}, "access", "refresh", "111111"
+    );
+
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new SessionController(sessionService))
+        .setMessageConverters(
+            new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+            new WebConfig().cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json())
+        )
+        .build();
+
+    @Test
+    void createSession_CborRequestAndAccept_RespondsWithCbor() throws Exception {
+        when(sessionService.createSession(eq("user"), aryEq(new String[]{"USER"}))).thenReturn(expectedSession);
+
+        MvcResult result = mockMvc.perform(post("/sessions")
+                .contentType(APPLICATION_CBOR)
+                .accept(APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(Map.of("userID", "user", "roles", List.of("USER")))))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_CBOR))
+            .andReturn();
+
+        Map<?, ?> session = cborMapper.readValue(result.getResponse().getContentAsByteArray(), Map.class);
+
+        assertEquals("user", session.get("userID"));
+        assertEquals("123456", session.get("sessionPostfix"));
+        assertEquals("111111", session.get("tokenID"));
+        assertEquals(List.of("USER"), session.get("roles"));
+    }
+
+    @Test
+    void getSession_JsonAccept_RespondsWithJson() throws Exception {
+        when(sessionService.getSession("user.123456")).thenReturn(expectedSession);
+
+        mockMvc.perform(get("/sessions/by-id").param("id", "user.123456").accept(APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,98 @@
+package com.rednet.sessionservice.filter;
+
+import com.rednet.sessionservice.config.AccessTokenSigningProperties;
+import com.rednet.sessionservice.util.impl.JwtUtilImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.io.Decoders.BASE64;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ApiTokenFilterTest {
+    String
+        secretKey = "suF25ZudSgyzQSS9QgpaSyUt5XZZGtTayc22RlLe5IX1erTOz64mN5BarqeiPV2s",
+        cookieName = "api-token";
+
+    FilterChain filterChain = mock(FilterChain.class);
+
+    ApiTokenFilter filter = new ApiTokenFilter(
+        cookieName,
+        new JwtUtilImpl(
+            "access", secretKey, 900000, 0,
+            "refresh", secretKey, 86400000, 0,
+            secretKey, "api", 0,
+            new AccessTokenSigningProperties(HS256, null, List.of())
+        ),
+        ObservationRegistry.NOOP
+    );
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ValidApiTokenWithRoles_Authenticates() throws Exception {
+        filter.doFilter(generateRequest(generateApiToken()), new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        assertEquals("gateway", authentication.getName());
+        assertEquals(
+            List.of("ROLE_SERVICE", "ROLE_ADMIN"),
+            authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList()
+        );
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_TamperedApiToken_LeavesRequestUnauthenticated() throws Exception {
+        String apiToken = generateApiToken();
+
+        filter.doFilter(
+            generateRequest(apiToken.substring(0, apiToken.length() - 2) + "xx"),
+            new MockHttpServletResponse(),
+            filterChain
+        );
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    private MockHttpServletRequest generateRequest(String apiToken) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/sessions/by-id");
+
+        request.setCookies(new Cookie("JSESSIONID", "1"), new Cookie(cookieName, apiToken));
+
+        return request;
+    }
+
+    private String generateApiToken() {
+        return Jwts.builder()
+            .setIssuer("api")
+            .setSubject("gateway")
+            .claim("roles", new String[]{"ROLE_SERVICE", "ROLE_ADMIN"})
+            .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+            .signWith(Keys.hmacShaKeyFor(BASE64.decode(secretKey)), HS256)
+            .compact();
+    }
+}
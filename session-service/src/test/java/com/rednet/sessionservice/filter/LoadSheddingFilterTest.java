@@ -0,0 +1,83 @@
+package com.rednet.sessionservice.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.sessionservice.exception.ErrorResponseEncoder;
+import com.rednet.sessionservice.util.ConcurrencyLimiter;
+import com.rednet.sessionservice.util.ConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LoadSheddingFilterTest {
+    ConcurrencyLimiter concurrencyLimiter = mock(ConcurrencyLimiter.class);
+    FilterChain filterChain = mock(FilterChain.class);
+
+    LoadSheddingFilter filter = new LoadSheddingFilter(
+        concurrencyLimiter,
+        new ErrorResponseEncoder(new ObjectMapper()),
+        new SimpleMeterRegistry()
+    );
+
+    @Test
+    void doFilter_Introspection_AcquiresHighPriority() throws Exception {
+        when(concurrencyLimiter.tryAcquire(Priority.HIGH)).thenReturn(true);
+
+        filter.doFilter(generateRequest("POST", "/sessions/introspection"), new MockHttpServletResponse(), filterChain);
+
+        verify(concurrencyLimiter).tryAcquire(Priority.HIGH);
+        verify(concurrencyLimiter).release(anyLong(), anyBoolean());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_CountByUserID_AcquiresLowPriority() throws Exception {
+        when(concurrencyLimiter.tryAcquire(Priority.LOW)).thenReturn(true);
+
+        filter.doFilter(generateRequest("GET", "/sessions/by-user-id/count"), new MockHttpServletResponse(), filterChain);
+
+        verify(concurrencyLimiter).tryAcquire(Priority.LOW);
+        verify(concurrencyLimiter).release(anyLong(), anyBoolean());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_LimitReached_RejectsWithServiceUnavailable() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(concurrencyLimiter.tryAcquire(Priority.LOW)).thenReturn(false);
+
+        filter.doFilter(generateRequest("GET", "/sessions/by-user-id/count"), response, filterChain);
+
+        assertEquals(503, response.getStatus());
+        verify(concurrencyLimiter, never()).release(anyLong(), anyBoolean());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void doFilter_UnguardedPath_SkipsLimiter() throws Exception {
+        filter.doFilter(generateRequest("GET", "/.well-known/jwks.json"), new MockHttpServletResponse(), filterChain);
+
+        verifyNoInteractions(concurrencyLimiter);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    private MockHttpServletRequest generateRequest(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+
+        request.setServletPath(path);
+
+        return request;
+    }
+}
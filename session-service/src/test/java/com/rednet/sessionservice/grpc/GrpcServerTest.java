@@ -0,0 +1,104 @@
+package com.rednet.sessionservice.grpc;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.grpc.proto.GetSessionRequest;
+import com.rednet.sessionservice.grpc.proto.SessionServiceGrpc;
+import com.rednet.sessionservice.service.SessionService;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GrpcServerTest {
+    SessionService sessionService = mock(SessionService.class);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    Session expectedSession = new Session(
+        "user", "123456", Instant.ofEpochMilli(1000), new String[]{"USER"}, "access", "refresh", "111111"
+    );
+
+    GrpcServer grpcServer;
+    ManagedChannel channel;
+
+    @BeforeEach
+    void startServer() {
+        String serverName = InProcessServerBuilder.generateName();
+
+        grpcServer = new GrpcServer(
+            InProcessServerBuilder.forName(serverName),
+            List.of(new SessionGrpcService(sessionService)),
+            List.of(),
+            1,
+            1,
+            1000,
+            meterRegistry
+        );
+        grpcServer.start();
+
+        channel = InProcessChannelBuilder.forName(serverName).build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        channel.shutdownNow();
+        grpcServer.stop();
+    }
+
+    @Test
+    void call_ExecutorQueueFull_RefusedWithUnavailable() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(sessionService.getSession("user.123456")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return expectedSession;
+        });
+
+        SessionServiceGrpc.SessionServiceFutureStub stub = SessionServiceGrpc.newFutureStub(channel);
+        GetSessionRequest request = GetSessionRequest.newBuilder().setSessionId("user.123456").build();
+
+        ListenableFuture<com.rednet.sessionservice.grpc.proto.Session> running = stub.getSession(request);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        ListenableFuture<com.rednet.sessionservice.grpc.proto.Session> queued = stub.getSession(request);
+        awaitQueued(1);
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> SessionServiceGrpc
+            .newBlockingStub(channel)
+            .getSession(request));
+
+        release.countDown();
+
+        assertEquals(Status.Code.UNAVAILABLE, exception.getStatus().getCode());
+        assertEquals("111111", running.get(5, TimeUnit.SECONDS).getTokenId());
+        assertEquals("111111", queued.get(5, TimeUnit.SECONDS).getTokenId());
+        assertEquals(1, meterRegistry.get("grpc.executor.refused").counter().count());
+    }
+
+    private void awaitQueued(int tasks) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (meterRegistry.get("grpc.executor.queued").gauge().value() < tasks) {
+            if (System.nanoTime() > deadline) throw new AssertionError("task was not queued");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.rednet.sessionservice.grpc;
+
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.exception.impl.SessionStorageUnavailableException;
+import com.rednet.sessionservice.grpc.proto.GetSessionRequest;
+import com.rednet.sessionservice.grpc.proto.ListSessionsRequest;
+import com.rednet.sessionservice.grpc.proto.SessionServiceGrpc;
+import com.rednet.sessionservice.service.SessionService;
+import com.rednet.sessionservice.util.ConcurrencyLimiter;
+import com.rednet.sessionservice.util.ConcurrencyLimiter.Priority;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LoadSheddingInterceptorTest {
+    SessionService sessionService = mock(SessionService.class);
+    ConcurrencyLimiter concurrencyLimiter = mock(ConcurrencyLimiter.class);
+
+    Session expectedSession = new Session(
+        "user", "123456", Instant.ofEpochMilli(1000), new String[]{"USER"}, "access", "refresh", "111111"
+    );
+
+    Server server;
+    ManagedChannel channel;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+
+        server = InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(ServerInterceptors.intercept(
+                new SessionGrpcService(sessionService),
+                new LoadSheddingInterceptor(concurrencyLimiter, new SimpleMeterRegistry())
+            ))
+            .build()
+            .start();
+
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void interceptCall_LimitReached_RejectsWithUnavailable() {
+        when(concurrencyLimiter.tryAcquire(Priority.HIGH)).thenReturn(false);
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> SessionServiceGrpc
+            .newBlockingStub(channel)
+            .getSession(GetSessionRequest.newBuilder().setSessionId("user.123456").build()));
+
+        assertEquals(Status.Code.UNAVAILABLE, exception.getStatus().getCode());
+        verifyNoInteractions(sessionService);
+        verify(concurrencyLimiter, never()).release(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void interceptCall_SuccessfulCall_ReleasesOnce() {
+        when(concurrencyLimiter.tryAcquire(Priority.HIGH)).thenReturn(true);
+        when(sessionService.getSession("user.123456")).thenReturn(expectedSession);
+
+        SessionServiceGrpc.newBlockingStub(channel)
+            .getSession(GetSessionRequest.newBuilder().setSessionId("user.123456").build());
+
+        verify(concurrencyLimiter).release(anyLong(), eq(false));
+    }
+
+    @Test
+    void interceptCall_StorageUnavailable_ReleasesAsFailed() {
+        when(concurrencyLimiter.tryAcquire(Priority.LOW)).thenReturn(true);
+        when(sessionService.getSessionsByUserID("user")).thenThrow(new SessionStorageUnavailableException());
+
+        assertThrows(StatusRuntimeException.class, () -> SessionServiceGrpc.newBlockingStub(channel)
+            .listSessions(ListSessionsRequest.newBuilder().setUserId("user").build())
+            .hasNext());
+
+        verify(concurrencyLimiter).release(anyLong(), eq(true));
+    }
+
+    @Test
+    void interceptCall_ListSessions_AcquiresLowPriority() {
+        when(concurrencyLimiter.tryAcquire(Priority.LOW)).thenReturn(true);
+        when(sessionService.getSessionsByUserID("user")).thenReturn(List.of(expectedSession));
+
+        SessionServiceGrpc.newBlockingStub(channel)
+            .listSessions(ListSessionsRequest.newBuilder().setUserId("user").build())
+            .forEachRemaining(session -> { });
+
+        verify(concurrencyLimiter).tryAcquire(Priority.LOW);
+        verify(concurrencyLimiter).release(anyLong(), eq(false));
+    }
+}
@@ -0,0 +1,202 @@
+package com.rednet.sessionservice.grpc;
+
+import com.rednet.sessionservice.config.AccessTokenSigningProperties;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.exception.impl.RateLimitExceededException;
+import com.rednet.sessionservice.grpc.proto.CreateSessionRequest;
+import com.rednet.sessionservice.grpc.proto.GetSessionRequest;
+import com.rednet.sessionservice.grpc.proto.RefreshSessionRequest;
+import com.rednet.sessionservice.grpc.proto.RefreshSessionResult;
+import com.rednet.sessionservice.grpc.proto.SessionServiceGrpc;
+import com.rednet.sessionservice.service.RateLimitService;
+import com.rednet.sessionservice.service.RateLimitService.Operation;
+import com.rednet.sessionservice.service.SessionService;
+import com.rednet.sessionservice.util.impl.JwtUtilImpl;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.io.Decoders.BASE64;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RateLimitInterceptorTest {
+    String
+        secretKey = "suF25ZudSgyzQSS9QgpaSyUt5XZZGtTayc22RlLe5IX1erTOz64mN5BarqeiPV2s",
+        apiTokenName = "api-token";
+
+    SessionService sessionService = mock(SessionService.class);
+    RateLimitService rateLimitService = mock(RateLimitService.class);
+
+    Session expectedSession = new Session(
+        "user", "123456", Instant.ofEpochMilli(1000), new String[]{"USER"}, "access", "refresh", "111111"
+    );
+
+    Server server;
+    ManagedChannel channel;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+
+        server = InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(ServerInterceptors.interceptForward(
+                new SessionGrpcService(sessionService),
+                new ApiTokenInterceptor(
+                    apiTokenName,
+                    new JwtUtilImpl(
+                        "access", secretKey, 900000, 0,
+                        "refresh", secretKey, 86400000, 0,
+                        secretKey, "api", 0,
+                        new AccessTokenSigningProperties(HS256, null, List.of())
+                    ),
+                    ObservationRegistry.NOOP
+                ),
+                new RateLimitInterceptor(rateLimitService)
+            ))
+            .build()
+            .start();
+
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void interceptCall_ValidApiToken_ChargesTokenSubject() {
+        Metadata headers = new Metadata();
+
+        headers.put(Metadata.Key.of(apiTokenName, Metadata.ASCII_STRING_MARSHALLER), generateApiToken());
+        when(sessionService.createSession(eq("user"), any())).thenReturn(expectedSession);
+
+        SessionServiceGrpc.newBlockingStub(channel)
+            .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+            .createSession(CreateSessionRequest.newBuilder().setUserId("user").addRoles("USER").build());
+
+        verify(rateLimitService).checkClient(Operation.CREATE, "gateway");
+    }
+
+    @Test
+    void interceptCall_NoApiToken_ChargesRemoteAddress() {
+        when(sessionService.createSession(eq("user"), any())).thenReturn(expectedSession);
+
+        SessionServiceGrpc.newBlockingStub(channel)
+            .createSession(CreateSessionRequest.newBuilder().setUserId("user").addRoles("USER").build());
+
+        verify(rateLimitService).checkClient(eq(Operation.CREATE), anyString());
+        verify(rateLimitService, never()).checkClient(Operation.CREATE, "gateway");
+    }
+
+    @Test
+    void interceptCall_ClientOverLimit_RejectsWithResourceExhausted() {
+        doThrow(new RateLimitExceededException(Operation.CREATE)).when(rateLimitService).checkClient(eq(Operation.CREATE), any());
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> SessionServiceGrpc
+            .newBlockingStub(channel)
+            .createSession(CreateSessionRequest.newBuilder().setUserId("user").addRoles("USER").build()));
+
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, exception.getStatus().getCode());
+        verifyNoInteractions(sessionService);
+    }
+
+    @Test
+    void interceptCall_GetSession_NotCharged() {
+        when(sessionService.getSession("user.123456")).thenReturn(expectedSession);
+
+        SessionServiceGrpc.newBlockingStub(channel)
+            .getSession(GetSessionRequest.newBuilder().setSessionId("user.123456").build());
+
+        verifyNoInteractions(rateLimitService);
+    }
+
+    @Test
+    void interceptCall_BatchedRefreshOverLimit_ClosesStream() throws Exception {
+        when(sessionService.refreshSession("refresh")).thenReturn(expectedSession);
+        doNothing()
+            .doThrow(new RateLimitExceededException(Operation.REFRESH))
+            .when(rateLimitService).checkClient(eq(Operation.REFRESH), any());
+
+        List<RefreshSessionResult> results = new ArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch completed = new CountDownLatch(1);
+
+        StreamObserver<RefreshSessionRequest> requests = SessionServiceGrpc.newStub(channel).refreshSessions(
+            new StreamObserver<>() {
+                @Override
+                public void onNext(RefreshSessionResult result) {
+                    results.add(result);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    error.set(throwable);
+                    completed.countDown();
+                }
+
+                @Override
+                public void onCompleted() {
+                    completed.countDown();
+                }
+            }
+        );
+
+        requests.onNext(RefreshSessionRequest.newBuilder().setRefreshToken("refresh").build());
+        requests.onNext(RefreshSessionRequest.newBuilder().setRefreshToken("refresh").build());
+        requests.onNext(RefreshSessionRequest.newBuilder().setRefreshToken("refresh").build());
+        requests.onCompleted();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, results.size());
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(error.get()).getCode());
+        verify(sessionService, times(1)).refreshSession("refresh");
+    }
+
+    private String generateApiToken() {
+        return Jwts.builder()
+            .setIssuer("api")
+            .setSubject("gateway")
+            .claim("roles", new String[]{"ROLE_SERVICE"})
+            .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+            .signWith(Keys.hmacShaKeyFor(BASE64.decode(secretKey)), HS256)
+            .compact();
+    }
+}
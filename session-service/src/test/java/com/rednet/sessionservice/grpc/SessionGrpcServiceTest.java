@@ -0,0 +1,163 @@
+package com.rednet.sessionservice.grpc;
+
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.exception.impl.InvalidTokenException;
+import com.rednet.sessionservice.exception.impl.SessionNotFoundException;
+import com.rednet.sessionservice.grpc.proto.CreateSessionRequest;
+import com.rednet.sessionservice.grpc.proto.GetSessionRequest;
+import com.rednet.sessionservice.grpc.proto.ListSessionsRequest;
+import com.rednet.sessionservice.grpc.proto.RefreshSessionRequest;
+import com.rednet.sessionservice.grpc.proto.RefreshSessionResult;
+import com.rednet.sessionservice.grpc.proto.SessionServiceGrpc;
+import com.rednet.sessionservice.service.SessionService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SessionGrpcServiceTest {
+    SessionService sessionService = mock(SessionService.class);
+
+    Session
+        expectedSession = new Session(
+            "user", "123456", Instant.ofEpochMilli(1000), new String[]{"USER"}, "access", "refresh", "111111"
+        ),
+        secondSession = new Session(
+            "user", "654321", Instant.ofEpochMilli(2000), new String[]{"USER"}, "access2", "refresh2", "222222"
+        );
+
+    Server server;
+    ManagedChannel channel;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+
+        server = InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(new SessionGrpcService(sessionService))
+            .build()
+            .start();
+
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void createSession() {
+        when(sessionService.createSession("user", new String[]{"USER"})).thenReturn(expectedSession);
+
+        com.rednet.sessionservice.grpc.proto.Session actualSession = SessionServiceGrpc
+            .newBlockingStub(channel)
+            .createSession(CreateSessionRequest.newBuilder().setUserId("user").addRoles("USER").build());
+
+        assertEquals("user", actualSession.getUserId());
+        assertEquals("123456", actualSession.getSessionPostfix());
+        assertEquals(1000, actualSession.getCreatedAtMs());
+        assertEquals(List.of("USER"), actualSession.getRolesList());
+        assertEquals("access", actualSession.getAccessToken());
+        assertEquals("refresh", actualSession.getRefreshToken());
+        assertEquals("111111", actualSession.getTokenId());
+    }
+
+    @Test
+    void createSession_NoRoles() {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+            SessionServiceGrpc.newBlockingStub(channel).createSession(CreateSessionRequest.newBuilder()
+                .setUserId("user")
+                .build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        verifyNoInteractions(sessionService);
+    }
+
+    @Test
+    void getSession_NotFound() {
+        when(sessionService.getSession("user.123456")).thenThrow(new SessionNotFoundException("user.123456"));
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+            SessionServiceGrpc.newBlockingStub(channel).getSession(GetSessionRequest.newBuilder()
+                .setSessionId("user.123456")
+                .build()));
+
+        assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+    }
+
+    @Test
+    void listSessions() {
+        when(sessionService.getSessionsByUserID("user")).thenReturn(List.of(expectedSession, secondSession));
+
+        Iterator<com.rednet.sessionservice.grpc.proto.Session> sessions = SessionServiceGrpc
+            .newBlockingStub(channel)
+            .listSessions(ListSessionsRequest.newBuilder().setUserId("user").build());
+
+        assertEquals("123456", sessions.next().getSessionPostfix());
+        assertEquals("654321", sessions.next().getSessionPostfix());
+        assertFalse(sessions.hasNext());
+    }
+
+    @Test
+    void refreshSessions() throws Exception {
+        when(sessionService.refreshSession("refresh")).thenReturn(expectedSession);
+        when(sessionService.refreshSession("invalid")).thenThrow(new InvalidTokenException());
+
+        List<RefreshSessionResult> results = new ArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+
+        StreamObserver<RefreshSessionRequest> requests = SessionServiceGrpc.newStub(channel).refreshSessions(
+            new StreamObserver<>() {
+                @Override
+                public void onNext(RefreshSessionResult result) {
+                    results.add(result);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completed.countDown();
+                }
+
+                @Override
+                public void onCompleted() {
+                    completed.countDown();
+                }
+            }
+        );
+
+        requests.onNext(RefreshSessionRequest.newBuilder().setRefreshToken("refresh").build());
+        requests.onNext(RefreshSessionRequest.newBuilder().setRefreshToken("invalid").build());
+        requests.onNext(RefreshSessionRequest.newBuilder().setRefreshToken("refresh").build());
+        requests.onCompleted();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(3, results.size());
+        assertEquals("111111", results.get(0).getSession().getTokenId());
+        assertEquals(Status.Code.INVALID_ARGUMENT.value(), results.get(1).getError().getCode());
+        assertEquals("111111", results.get(2).getSession().getTokenId());
+    }
+}
@@ -0,0 +1,77 @@
+package com.rednet.sessionservice.payload.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rednet.sessionservice.entity.BucketedSession;
+import com.rednet.sessionservice.entity.Session;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SessionSerializerTest {
+    private final ObjectMapper reflectiveMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ObjectMapper streamingMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .registerModule(new SimpleModule().addSerializer(new SessionSerializer()))
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory())
+        .registerModule(new JavaTimeModule())
+        .registerModule(new SimpleModule().addSerializer(new SessionSerializer()))
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void serialize_MatchesReflectiveSerializer() throws Exception {
+        Session session = new Session(
+            "user",
+            "123456",
+            Instant.parse("2023-08-01T10:15:30.123Z"),
+            new String[]{"USER", "ADMIN"},
+            "access\"token",
+            "refresh-token",
+            "654321"
+        );
+
+        assertEquals(reflectiveMapper.writeValueAsString(session), streamingMapper.writeValueAsString(session));
+    }
+
+    @Test
+    void serialize_SessionList_NullFields_MatchesReflectiveSerializer() throws Exception {
+        Session session = new Session("user", "123456", null, null, null, null, null);
+        BucketedSession bucketedSession = new BucketedSession(
+            new Session("user", "654321", Instant.EPOCH, new String[0], "access", "refresh", "111111"),
+            3
+        );
+
+        List<Session> sessions = List.of(session, bucketedSession);
+
+        assertEquals(reflectiveMapper.writeValueAsString(sessions), streamingMapper.writeValueAsString(sessions));
+    }
+
+    @Test
+    void serialize_Cbor_MatchesJsonDocument() throws Exception {
+        Session session = new Session(
+            "user",
+            "123456",
+            Instant.parse("2023-08-01T10:15:30Z"),
+            new String[]{"USER"},
+            "access-token",
+            "refresh-token",
+            "654321"
+        );
+
+        assertEquals(
+            reflectiveMapper.readTree(reflectiveMapper.writeValueAsBytes(session)),
+            cborMapper.readTree(cborMapper.writeValueAsBytes(session))
+        );
+    }
+}
@@ -0,0 +1,197 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.BucketedSession;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.SessionRoleEncoder;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.cassandra.core.AsyncCassandraOperations;
+import org.springframework.data.cassandra.core.CassandraOperations;
+import org.springframework.data.cassandra.core.query.CriteriaDefinition;
+import org.springframework.data.cassandra.core.query.Query;
+import org.springframework.data.cassandra.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BucketedSessionRepositoryImplTest {
+    int bucketCount = 16;
+
+    String
+        userID = "user",
+        sessionPostfix = "123456";
+
+    CassandraOperations operations = mock(CassandraOperations.class);
+    AsyncCassandraOperations asyncOperations = mock(AsyncCassandraOperations.class);
+    SessionRoleEncoder roleEncoder = mock(SessionRoleEncoder.class);
+
+    BucketedSessionRepositoryImpl sessionRepository = new BucketedSessionRepositoryImpl(
+        operations, asyncOperations, roleEncoder, 86400000, 0, bucketCount
+    );
+
+    @Test
+    void findByID_ReadsOnlyTheSessionBucket() {
+        BucketedSession session = generateSession(sessionPostfix);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+
+        when(operations.selectOne(query.capture(), eq(BucketedSession.class))).thenReturn(session);
+        when(roleEncoder.decode(any())).then(returnsFirstArg());
+
+        assertEquals(Optional.of(session), sessionRepository.findByID(userID, sessionPostfix));
+        assertEquals(Math.floorMod(sessionPostfix.hashCode(), bucketCount), valueOf(query.getValue(), "bucket"));
+        assertEquals(sessionPostfix, valueOf(query.getValue(), "session_postfix"));
+        verifyNoInteractions(asyncOperations);
+    }
+
+    @Test
+    void findByID_PastIdleDeadline_ReturnsEmpty() {
+        BucketedSession session = generateSession(sessionPostfix);
+
+        session.setActiveUntil(Instant.now().minusSeconds(1));
+
+        when(operations.selectOne(any(Query.class), eq(BucketedSession.class))).thenReturn(session);
+        when(roleEncoder.decode(any())).then(returnsFirstArg());
+
+        assertEquals(Optional.empty(), sessionRepository.findByID(userID, sessionPostfix));
+    }
+
+    @Test
+    void extendExpiration_WritesOnlyTheIdleDeadline() {
+        BucketedSession session = generateSession(sessionPostfix);
+        Instant observedAt = session.getCreatedAt().plusSeconds(60);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+
+        sessionRepository.extendExpiration(session, 1800000, observedAt);
+
+        verify(operations).update(any(Query.class), update.capture(), eq(BucketedSession.class));
+        assertEquals(
+            List.of("active_until"),
+            update.getValue().getUpdateOperations().stream()
+                .map(operation -> operation.getColumnName().toCql())
+                .toList()
+        );
+    }
+
+    @Test
+    void deleteByID_DeletesFromTheSessionBucket() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+
+        when(operations.delete(query.capture(), eq(BucketedSession.class))).thenReturn(true);
+
+        assertTrue(sessionRepository.deleteByID(userID, sessionPostfix));
+        assertEquals(Math.floorMod(sessionPostfix.hashCode(), bucketCount), valueOf(query.getValue(), "bucket"));
+    }
+
+    @Test
+    void findAllByUserID_QueriesEveryBucketAndMergesSessions() {
+        BucketedSession first = generateSession("111111");
+        BucketedSession second = generateSession("222222");
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+
+        when(asyncOperations.select(queries.capture(), eq(BucketedSession.class))).thenAnswer(invocation -> {
+            Object bucket = valueOf(invocation.getArgument(0), "bucket");
+
+            if (bucket.equals(3)) return CompletableFuture.completedFuture(List.of(first));
+            if (bucket.equals(11)) return CompletableFuture.completedFuture(List.of(second));
+
+            return CompletableFuture.completedFuture(List.of());
+        });
+        when(roleEncoder.decode(any())).then(returnsFirstArg());
+
+        assertEquals(List.of(first, second), sessionRepository.findAllByUserID(userID));
+        assertEquals(
+            IntStream.range(0, bucketCount).boxed().toList(),
+            queries.getAllValues().stream().map(query -> valueOf(query, "bucket")).toList()
+        );
+        verify(roleEncoder, times(2)).decode(any());
+    }
+
+    @Test
+    void findAllByUserID_BucketFailed_ThrowsCause() {
+        IllegalStateException failure = new IllegalStateException("bucket unavailable");
+
+        when(asyncOperations.select(any(Query.class), eq(BucketedSession.class)))
+            .thenReturn(CompletableFuture.completedFuture(List.of()))
+            .thenReturn(CompletableFuture.failedFuture(failure));
+
+        assertEquals(failure, assertThrows(IllegalStateException.class, () -> sessionRepository.findAllByUserID(userID)));
+    }
+
+    @Test
+    void deleteAllByUserID_DeletesEveryBucket() {
+        when(asyncOperations.delete(any(Query.class), eq(BucketedSession.class)))
+            .thenReturn(CompletableFuture.completedFuture(true));
+
+        assertTrue(sessionRepository.deleteAllByUserID(userID));
+        verify(asyncOperations, times(bucketCount)).delete(any(Query.class), eq(BucketedSession.class));
+    }
+
+    @Test
+    void deleteAllByUserID_BucketNotDeleted_ReturnsFalse() {
+        when(asyncOperations.delete(any(Query.class), eq(BucketedSession.class)))
+            .thenReturn(CompletableFuture.completedFuture(true))
+            .thenReturn(CompletableFuture.completedFuture(false))
+            .thenReturn(CompletableFuture.completedFuture(true));
+
+        assertFalse(sessionRepository.deleteAllByUserID(userID));
+        verify(asyncOperations, times(bucketCount)).delete(any(Query.class), eq(BucketedSession.class));
+    }
+
+    @Test
+    void existsByUserID_SessionInOneBucket_ReturnsTrue() {
+        when(asyncOperations.exists(any(Query.class), eq(BucketedSession.class))).thenAnswer(invocation ->
+            CompletableFuture.completedFuture(valueOf(invocation.getArgument(0), "bucket").equals(7))
+        );
+
+        assertTrue(sessionRepository.existsByUserID(userID));
+        verify(asyncOperations, times(bucketCount)).exists(any(Query.class), eq(BucketedSession.class));
+    }
+
+    @Test
+    void existsByUserID_NoSessions_ReturnsFalse() {
+        when(asyncOperations.exists(any(Query.class), eq(BucketedSession.class)))
+            .thenReturn(CompletableFuture.completedFuture(false));
+
+        assertFalse(sessionRepository.existsByUserID(userID));
+    }
+
+    private Object valueOf(Query query, String column) {
+        return StreamSupport.stream(query.getCriteriaDefinitions().spliterator(), false)
+            .filter(criteria -> criteria.getColumnName().toCql().equals(column))
+            .map(CriteriaDefinition::getPredicate)
+            .map(CriteriaDefinition.Predicate::getValue)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private BucketedSession generateSession(String sessionPostfix) {
+        Session session = new Session(
+            userID,
+            sessionPostfix,
+            Instant.now(),
+            new String[]{"USER"},
+            "a-token",
+            "r-token",
+            "100000"
+        );
+
+        return new BucketedSession(session, Math.floorMod(sessionPostfix.hashCode(), bucketCount));
+    }
+}
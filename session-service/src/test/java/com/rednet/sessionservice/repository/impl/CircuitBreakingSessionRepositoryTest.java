@@ -0,0 +1,102 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.exception.impl.SessionStorageUnavailableException;
+import com.rednet.sessionservice.repository.SessionRepository;
+import com.rednet.sessionservice.util.CircuitBreaker;
+import com.rednet.sessionservice.util.impl.CircuitBreakerImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakingSessionRepositoryTest {
+    String
+        userID = "user",
+        sessionPostfix = "123456",
+        missingSessionPostfix = "654321";
+
+    Session expectedSession = new Session(
+        userID, sessionPostfix, Instant.now(), new String[]{"role"}, "access", "refresh", "111111"
+    );
+
+    SessionRepository sessionRepository = mock(SessionRepository.class);
+    CircuitBreaker circuitBreaker = new CircuitBreakerImpl(2, 2, 50, 1000);
+
+    CircuitBreakingSessionRepository repository = new CircuitBreakingSessionRepository(
+        sessionRepository,
+        circuitBreaker,
+        100,
+        60000
+    );
+
+    @Test
+    void findByID_OpenCircuit_ServedFromCache() {
+        when(sessionRepository.findByID(userID, sessionPostfix)).thenReturn(Optional.of(expectedSession));
+
+        repository.findByID(userID, sessionPostfix);
+        openCircuit();
+
+        Session actualSession = repository.findByID(userID, sessionPostfix).orElseThrow();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(expectedSession.getTokenID(), actualSession.getTokenID());
+        assertNotSame(expectedSession, actualSession);
+        assertThrows(SessionStorageUnavailableException.class, () ->
+            repository.findByID(userID, missingSessionPostfix));
+    }
+
+    @Test
+    void insert_OpenCircuit_FailsFast() {
+        openCircuit();
+
+        assertThrows(SessionStorageUnavailableException.class, () -> repository.insert(expectedSession));
+        assertThrows(SessionStorageUnavailableException.class, () -> repository.deleteByID(userID, sessionPostfix));
+
+        verify(sessionRepository, never()).insert(any(Session.class));
+        verify(sessionRepository, never()).deleteByID(userID, sessionPostfix);
+    }
+
+    @Test
+    void findByID_HalfOpenCircuit_ClosesAfterSuccessfulProbes() throws InterruptedException {
+        openCircuit();
+        when(sessionRepository.findByID(userID, sessionPostfix)).thenReturn(Optional.of(expectedSession));
+
+        Thread.sleep(100);
+
+        repository.findByID(userID, sessionPostfix);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        repository.findByID(userID, sessionPostfix);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void findByID_HalfOpenCircuit_ReopensAfterFailedProbe() throws InterruptedException {
+        openCircuit();
+
+        Thread.sleep(100);
+
+        assertThrows(QueryTimeoutException.class, () -> repository.findByID(userID, missingSessionPostfix));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void openCircuit() {
+        when(sessionRepository.findByID(userID, missingSessionPostfix)).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> repository.findByID(userID, missingSessionPostfix));
+        assertThrows(QueryTimeoutException.class, () -> repository.findByID(userID, missingSessionPostfix));
+    }
+}
@@ -0,0 +1,78 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.RoleSet;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.RoleSetRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DictionarySessionRoleEncoderTest {
+    String[] roles = new String[]{"USER", "ADMIN"};
+
+    RoleSetRepository roleSetRepository = mock(RoleSetRepository.class);
+    DictionarySessionRoleEncoder roleEncoder = new DictionarySessionRoleEncoder(roleSetRepository, 100);
+
+    @Test
+    void encode_SameRoles_StoresRoleSetOnce() {
+        Session firstSession = roleEncoder.encode(generateSession(roles.clone()));
+        Session secondSession = roleEncoder.encode(generateSession(roles.clone()));
+
+        assertNull(firstSession.getRoles());
+        assertNotNull(firstSession.getRoleSetID());
+        assertEquals(firstSession.getRoleSetID(), secondSession.getRoleSetID());
+        verify(roleSetRepository, times(1)).insert(argThat(roleSet ->
+            roleSet.getId().equals(firstSession.getRoleSetID())
+        ));
+    }
+
+    @Test
+    void decode_EncodedSession_RestoresRoles() {
+        Session decodedSession = roleEncoder.decode(roleEncoder.encode(generateSession(roles.clone())));
+
+        assertArrayEquals(roles, decodedSession.getRoles());
+        verify(roleSetRepository, never()).findByID(any());
+    }
+
+    @Test
+    void decode_UncachedRoleSet_LoadsFromRepository() {
+        Session session = generateSession(null);
+
+        session.setRoleSetID(42L);
+
+        when(roleSetRepository.findByID(42L)).thenReturn(Optional.of(new RoleSet(42L, roles.clone())));
+
+        assertArrayEquals(roles, roleEncoder.decode(session).getRoles());
+    }
+
+    @Test
+    void decode_DecodedRolesModified_DoesNotAffectOtherSessions() {
+        Session encodedSession = roleEncoder.encode(generateSession(roles.clone()));
+        Session firstSession = generateSession(null);
+        Session secondSession = generateSession(null);
+
+        firstSession.setRoleSetID(encodedSession.getRoleSetID());
+        secondSession.setRoleSetID(encodedSession.getRoleSetID());
+
+        roleEncoder.decode(firstSession).getRoles()[0] = "CHANGED";
+
+        assertArrayEquals(roles, roleEncoder.decode(secondSession).getRoles());
+    }
+
+    private Session generateSession(String[] roles) {
+        return new Session("user", "123456", Instant.now(), roles, "a-token", "r-token", "654321");
+    }
+}
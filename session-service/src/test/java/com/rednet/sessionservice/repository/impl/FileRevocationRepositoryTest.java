@@ -0,0 +1,43 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.RevokedToken;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileRevocationRepositoryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void findRevokedSince_AfterRestart_ReturnsUnexpiredRevocations() throws IOException {
+        Instant now = Instant.ofEpochMilli(System.currentTimeMillis());
+        FileRevocationRepository repository = new FileRevocationRepository(directory.toString(), 60000, 0);
+
+        repository.insertAll("user", List.of(
+            new RevokedToken("user.123456#expired", now.minusSeconds(120)),
+            new RevokedToken("user.123456#111111", now.minusSeconds(10))
+        )).join();
+        repository.insertAll("user", List.of(new RevokedToken("user.123456#222222", now))).join();
+        repository.destroy();
+
+        FileRevocationRepository restartedRepository = new FileRevocationRepository(directory.toString(), 60000, 0);
+
+        assertEquals(
+            List.of("user.123456#111111", "user.123456#222222"),
+            restartedRepository.findRevokedSince(now.minusSeconds(300)).stream().map(RevokedToken::getKey).toList()
+        );
+        assertEquals(
+            List.of("user.123456#222222"),
+            restartedRepository.findRevokedSince(now).stream().map(RevokedToken::getKey).toList()
+        );
+
+        restartedRepository.destroy();
+    }
+}
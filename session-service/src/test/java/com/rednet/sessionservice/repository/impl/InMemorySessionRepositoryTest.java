@@ -0,0 +1,72 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.Session;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemorySessionRepositoryTest {
+    String
+        userID = "user",
+        otherUserID = "other",
+        sessionPostfix = "222222",
+        otherSessionPostfix = "111111";
+
+    InMemorySessionRepository repository = new InMemorySessionRepository(86400000, 0, 0, 0, 10000);
+
+    @Test
+    void findAllByUserID_SeveralPartitions_ReturnsOnlyUserSessionsOrderedByPostfix() {
+        repository.insert(generateSession(userID, sessionPostfix));
+        repository.insert(generateSession(userID, otherSessionPostfix));
+        repository.insert(generateSession(otherUserID, sessionPostfix));
+
+        List<Session> sessions = repository.findAllByUserID(userID);
+
+        assertEquals(List.of(otherSessionPostfix, sessionPostfix), sessions.stream()
+            .map(Session::getSessionPostfix)
+            .toList());
+    }
+
+    @Test
+    void findByID_StoredSession_ReturnsCopy() {
+        Session session = generateSession(userID, sessionPostfix);
+
+        repository.insert(session);
+
+        Session foundSession = repository.findByID(userID, sessionPostfix).orElseThrow();
+
+        assertNotSame(session, foundSession);
+        assertEquals(session.getTokenID(), foundSession.getTokenID());
+    }
+
+    @Test
+    void deleteByID_MissingSession_ReportsSuccess() {
+        repository.insert(generateSession(userID, sessionPostfix));
+
+        assertTrue(repository.deleteByID(userID, otherSessionPostfix));
+        assertTrue(repository.deleteByID(userID, sessionPostfix));
+        assertFalse(repository.existsByUserID(userID));
+    }
+
+    @Test
+    void findByID_ExpiredSession_ReturnsEmpty() {
+        // a refresh token lifetime of -10s leaves no TTL once the 10s grace period is added
+        InMemorySessionRepository expiringRepository = new InMemorySessionRepository(-10000, 0, 0, 0, 10000);
+
+        expiringRepository.insert(generateSession(userID, sessionPostfix));
+
+        assertTrue(expiringRepository.findByID(userID, sessionPostfix).isEmpty());
+        assertTrue(expiringRepository.findAllByUserID(userID).isEmpty());
+        assertFalse(expiringRepository.existsByUserID(userID));
+    }
+
+    private Session generateSession(String userID, String sessionPostfix) {
+        return new Session(userID, sessionPostfix, Instant.now(), new String[]{"role"}, "access", "refresh", "333333");
+    }
+}
@@ -0,0 +1,220 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedLogSessionRepositoryTest {
+    String
+        userID = "user",
+        otherUserID = "other",
+        sessionPostfix = "222222",
+        otherSessionPostfix = "111111";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findByID_Reopened_RecoversStateFromLog() {
+        MappedLogSessionRepository repository = openRepository(0.9);
+
+        repository.insert(generateSession(userID, sessionPostfix, "333333"));
+        repository.insert(generateSession(userID, otherSessionPostfix, "444444"));
+        repository.insert(generateSession(otherUserID, sessionPostfix, "555555"));
+        repository.deleteByID(userID, otherSessionPostfix);
+        repository.deleteAllByUserID(otherUserID);
+        repository.destroy();
+
+        MappedLogSessionRepository reopenedRepository = openRepository(0.9);
+        Session session = reopenedRepository.findByID(userID, sessionPostfix).orElseThrow();
+
+        assertEquals("333333", session.getTokenID());
+        assertArrayEquals(new String[]{"role"}, session.getRoles());
+        assertTrue(reopenedRepository.findByID(userID, otherSessionPostfix).isEmpty());
+        assertFalse(reopenedRepository.existsByUserID(otherUserID));
+    }
+
+    @Test
+    void findByID_TornLastRecord_TruncatesLogBeforeIt() throws IOException {
+        MappedLogSessionRepository repository = openRepository(0.9);
+
+        repository.insert(generateSession(userID, sessionPostfix, "333333"));
+        repository.insert(generateSession(userID, otherSessionPostfix, "444444"));
+        repository.destroy();
+        corruptLastWrittenByte();
+
+        MappedLogSessionRepository recoveredRepository = openRepository(0.9);
+
+        assertTrue(recoveredRepository.findByID(userID, sessionPostfix).isPresent());
+        assertTrue(recoveredRepository.findByID(userID, otherSessionPostfix).isEmpty());
+
+        recoveredRepository.insert(generateSession(userID, otherSessionPostfix, "555555"));
+        recoveredRepository.destroy();
+
+        assertEquals(2, openRepository(0.9).findAllByUserID(userID).size());
+    }
+
+    @Test
+    void insert_GarbageRatioExceeded_CompactsIntoNextGeneration() throws IOException {
+        MappedLogSessionRepository repository = openRepository(0.5);
+
+        repository.insert(generateSession(userID, sessionPostfix, "333333"));
+        repository.insert(generateSession(userID, sessionPostfix, "444444"));
+        repository.insert(generateSession(userID, otherSessionPostfix, "555555"));
+        repository.destroy();
+
+        assertEquals("1", Files.readString(directory.resolve("MANIFEST")));
+        assertTrue(listSegmentFiles().stream().allMatch(file -> file.getFileName().toString().startsWith("sessions-1-")));
+
+        List<Session> sessions = openRepository(0.5).findAllByUserID(userID);
+
+        assertEquals(List.of("555555", "444444"), sessions.stream().map(Session::getTokenID).toList());
+    }
+
+    @Test
+    void findByID_DuringBackgroundCompactions_AlwaysFindsLiveSessions() throws Exception {
+        MappedLogSessionRepository repository = openRepository(0.1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) repository.insert(generateSession(userID, String.format("%06d", i), "333333"));
+
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                for (int i = 0; i < 100; i++) {
+                    if (repository.findByID(userID, String.format("%06d", i)).isEmpty()) misses.incrementAndGet();
+                }
+
+                if (repository.findAllByUserID(userID).size() != 100) misses.incrementAndGet();
+            }
+        });
+
+        reader.start();
+
+        for (int i = 0; i < 2000; i++) repository.insert(generateSession(otherUserID, sessionPostfix, Integer.toString(i)));
+
+        writing.set(false);
+        reader.join();
+        repository.destroy();
+
+        assertEquals(0, misses.get());
+        assertTrue(Long.parseLong(Files.readString(directory.resolve("MANIFEST"))) > 0);
+        assertEquals("1999", openRepository(0.1).findByID(otherUserID, sessionPostfix).orElseThrow().getTokenID());
+    }
+
+    @Test
+    void findAllByUserID_SupersededAndDeletedSessions_ReturnsLiveSessionsOrderedByPostfix() {
+        MappedLogSessionRepository repository = openRepository(0.9);
+
+        repository.insert(generateSession(userID, sessionPostfix, "333333"));
+        repository.insert(generateSession(userID, otherSessionPostfix, "444444"));
+        repository.insert(generateSession(userID, sessionPostfix, "555555"));
+        repository.insert(generateSession(userID, "999999", "666666"));
+        repository.deleteByID(userID, "999999");
+
+        List<Session> sessions = repository.findAllByUserID(userID);
+
+        assertEquals(List.of(otherSessionPostfix, sessionPostfix), sessions.stream()
+            .map(Session::getSessionPostfix)
+            .toList());
+        assertEquals("555555", sessions.get(1).getTokenID());
+        assertEquals(2, repository.findExpirationsByUserID(userID).size());
+    }
+
+    @Test
+    void findKeysByUserID_LiveSessions_ReturnsKeysAndTokenIDsOnly() {
+        MappedLogSessionRepository repository = openRepository(0.9);
+        Session session = repository.insert(generateSession(userID, sessionPostfix, "333333"));
+
+        repository.insert(generateSession(userID, otherSessionPostfix, "444444"));
+        repository.deleteByID(userID, otherSessionPostfix);
+
+        List<Session> sessionKeys = repository.findKeysByUserID(userID);
+
+        assertEquals(1, sessionKeys.size());
+        assertEquals(sessionPostfix, sessionKeys.get(0).getSessionPostfix());
+        assertEquals(session.getCreatedAt(), sessionKeys.get(0).getCreatedAt());
+        assertEquals("333333", sessionKeys.get(0).getTokenID());
+        assertNull(sessionKeys.get(0).getAccessToken());
+    }
+
+    @Test
+    void findByID_ExpiredSession_ReturnsEmpty() {
+        // a refresh token lifetime of -10s leaves no TTL once the 10s grace period is added
+        MappedLogSessionRepository repository = new MappedLogSessionRepository(
+            directory.toString(), 1, 16, 0.9, 0, 3600000, -10000, 0
+        );
+
+        repository.insert(generateSession(userID, sessionPostfix, "333333"));
+
+        assertTrue(repository.findByID(userID, sessionPostfix).isEmpty());
+        assertFalse(repository.existsByUserID(userID));
+    }
+
+    @Test
+    void extendExpiration_CurrentSession_ExtendedExpirySurvivesReopen() {
+        // an idle timeout below one second leaves only the 10s grace period as the initial TTL
+        MappedLogSessionRepository repository = new MappedLogSessionRepository(
+            directory.toString(), 1, 16, 0.9, 0, 3600000, 86400000, 1
+        );
+        Session session = repository.insert(generateSession(userID, sessionPostfix, "333333"));
+        Instant extendedFrom = Instant.now();
+
+        repository.extendExpiration(generateSession(userID, sessionPostfix, "444444"), 3600000, extendedFrom);
+
+        assertTrue(repository.findExpirationsByUserID(userID).get(0) < extendedFrom.plusSeconds(60).toEpochMilli());
+
+        repository.extendExpiration(session, 3600000, extendedFrom);
+        repository.destroy();
+
+        List<Long> expirations = openRepository(0.9).findExpirationsByUserID(userID);
+
+        assertEquals(1, expirations.size());
+        assertTrue(expirations.get(0) > extendedFrom.plusSeconds(3500).toEpochMilli());
+    }
+
+    private MappedLogSessionRepository openRepository(double compactionGarbageRatio) {
+        return new MappedLogSessionRepository(
+            directory.toString(), 1, 16, compactionGarbageRatio, 0, 3600000, 86400000, 0
+        );
+    }
+
+    private void corruptLastWrittenByte() throws IOException {
+        try (RandomAccessFile segment = new RandomAccessFile(listSegmentFiles().get(0).toFile(), "rw")) {
+            long position = segment.length() - 1;
+
+            segment.seek(position);
+
+            while (segment.read() == 0) segment.seek(--position);
+
+            segment.seek(position);
+            segment.write(0x7f);
+        }
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private Session generateSession(String userID, String sessionPostfix, String tokenID) {
+        return new Session(userID, sessionPostfix, Instant.now(), new String[]{"role"}, "access", "refresh", tokenID);
+    }
+}
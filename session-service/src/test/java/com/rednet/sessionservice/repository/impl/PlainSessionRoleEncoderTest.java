@@ -0,0 +1,69 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.RoleSet;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.RoleSetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlainSessionRoleEncoderTest {
+    String[] roles = new String[]{"USER", "ADMIN"};
+
+    RoleSetRepository roleSetRepository = mock(RoleSetRepository.class);
+    PlainSessionRoleEncoder roleEncoder = new PlainSessionRoleEncoder(generateProvider(roleSetRepository), 100);
+
+    @Test
+    void encode_KeepsRolesInline() {
+        Session session = generateSession(roles.clone());
+
+        assertSame(session, roleEncoder.encode(session));
+        assertArrayEquals(roles, roleEncoder.decode(session).getRoles());
+        verify(roleSetRepository, never()).findByID(any());
+    }
+
+    @Test
+    void decode_WrittenInDictionaryMode_ResolvesRoleSet() {
+        Session session = generateSession(null);
+
+        session.setRoleSetID(42L);
+
+        when(roleSetRepository.findByID(42L)).thenReturn(Optional.of(new RoleSet(42L, roles.clone())));
+
+        assertArrayEquals(roles, roleEncoder.decode(session).getRoles());
+    }
+
+    @Test
+    void decode_DictionaryRoundTrip_RestoresRoles() {
+        DictionarySessionRoleEncoder dictionaryEncoder = new DictionarySessionRoleEncoder(roleSetRepository, 100);
+        Session encodedSession = dictionaryEncoder.encode(generateSession(roles.clone()));
+
+        when(roleSetRepository.findByID(encodedSession.getRoleSetID()))
+            .thenReturn(Optional.of(new RoleSet(encodedSession.getRoleSetID(), roles.clone())));
+
+        assertArrayEquals(roles, roleEncoder.decode(encodedSession).getRoles());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ObjectProvider<RoleSetRepository> generateProvider(RoleSetRepository roleSetRepository) {
+        ObjectProvider<RoleSetRepository> provider = mock(ObjectProvider.class);
+
+        when(provider.getIfAvailable()).thenReturn(roleSetRepository);
+
+        return provider;
+    }
+
+    private Session generateSession(String[] roles) {
+        return new Session("user", "123456", Instant.now(), roles, "a-token", "r-token", "654321");
+    }
+}
@@ -0,0 +1,93 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.rednet.sessionservice.entity.RevokedToken;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.cassandra.core.AsyncCassandraOperations;
+import org.springframework.data.cassandra.core.cql.AsyncCqlOperations;
+import org.springframework.data.cassandra.core.cql.AsyncSessionCallback;
+import org.springframework.data.cassandra.core.query.CriteriaDefinition;
+import org.springframework.data.cassandra.core.query.Query;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocationRepositoryImplTest {
+    int shardCount = 4;
+    long bucketMs = 60000;
+
+    AsyncCassandraOperations asyncOperations = mock(AsyncCassandraOperations.class);
+    AsyncCqlOperations asyncCqlOperations = mock(AsyncCqlOperations.class);
+    PreparedStatement insertRevokedToken = mock(PreparedStatement.class);
+
+    RevocationRepositoryImpl revocationRepository = new RevocationRepositoryImpl(
+        asyncOperations, 900000, 10, bucketMs, shardCount
+    );
+
+    @Test
+    void findRevokedSince_ReadsEveryShardOfEveryBucket() {
+        Instant since = Instant.ofEpochMilli(System.currentTimeMillis() - bucketMs);
+        long firstBucket = since.toEpochMilli() / bucketMs;
+        long lastBucket = System.currentTimeMillis() / bucketMs + 1;
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+
+        when(asyncOperations.select(any(Query.class), eq(RevokedToken.class)))
+            .thenReturn(CompletableFuture.completedFuture(List.of(new RevokedToken("user.123456#654321", since))));
+
+        List<RevokedToken> revokedTokens = revocationRepository.findRevokedSince(since);
+
+        int partitionCount = (int) (lastBucket - firstBucket + 1) * shardCount;
+
+        verify(asyncOperations, times(partitionCount)).select(queries.capture(), eq(RevokedToken.class));
+        assertEquals(partitionCount, revokedTokens.size());
+
+        Set<String> partitions = new HashSet<>();
+
+        for (Query query : queries.getAllValues()) {
+            List<CriteriaDefinition> criteria = StreamSupport
+                .stream(query.getCriteriaDefinitions().spliterator(), false)
+                .toList();
+
+            partitions.add(criteria.get(0).getPredicate().getValue() + "/" + criteria.get(1).getPredicate().getValue());
+        }
+
+        assertEquals(partitionCount, partitions.size());
+    }
+
+    @Test
+    void insertAll_UserRevocations_WritesOneBatchToUserShard() {
+        String userID = "user";
+        Instant revokedAt = Instant.ofEpochMilli(System.currentTimeMillis());
+        int expectedShard = Math.floorMod(userID.hashCode(), shardCount);
+
+        when(asyncOperations.getAsyncCqlOperations()).thenReturn(asyncCqlOperations);
+        when(asyncCqlOperations.execute(any(AsyncSessionCallback.class)))
+            .thenReturn(CompletableFuture.completedFuture(insertRevokedToken));
+        when(asyncCqlOperations.execute(any(BatchStatement.class))).thenReturn(CompletableFuture.completedFuture(true));
+        when(insertRevokedToken.bind(any(Object[].class))).thenReturn(mock(BoundStatement.class));
+
+        revocationRepository.insertAll(userID, List.of(
+            new RevokedToken("user.123456#111111", revokedAt),
+            new RevokedToken("user.654321#222222", revokedAt)
+        )).join();
+
+        verify(insertRevokedToken, times(2)).bind(anyLong(), eq(expectedShard), eq(revokedAt), any(), any());
+        verify(asyncCqlOperations).execute(any(BatchStatement.class));
+    }
+}
@@ -0,0 +1,38 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.rednet.sessionservice.entity.RoleSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.cassandra.core.CassandraOperations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoleSetRepositoryImplTest {
+    CassandraOperations operations = mock(CassandraOperations.class);
+    RoleSetRepositoryImpl roleSetRepository = new RoleSetRepositoryImpl(operations);
+
+    @Test
+    void findByID() {
+        RoleSet roleSet = new RoleSet(42L, new String[]{"USER"});
+
+        when(operations.selectOneById(42L, RoleSet.class)).thenReturn(roleSet);
+
+        assertEquals(Optional.of(roleSet), roleSetRepository.findByID(42L));
+        assertEquals(Optional.empty(), roleSetRepository.findByID(43L));
+    }
+
+    @Test
+    void insert() {
+        RoleSet roleSet = new RoleSet(42L, new String[]{"USER"});
+
+        when(operations.insert(roleSet)).thenReturn(roleSet);
+
+        assertSame(roleSet, roleSetRepository.insert(roleSet));
+        verify(operations).insert(roleSet);
+    }
+}
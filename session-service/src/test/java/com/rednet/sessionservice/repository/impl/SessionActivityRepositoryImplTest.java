@@ -0,0 +1,74 @@
+package com.rednet.sessionservice.repository.impl;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.cassandra.core.AsyncCassandraOperations;
+import org.springframework.data.cassandra.core.cql.AsyncCqlOperations;
+import org.springframework.data.cassandra.core.cql.AsyncSessionCallback;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionActivityRepositoryImplTest {
+    String
+        userID = "user",
+        sessionPostfix = "123456";
+
+    AsyncCassandraOperations asyncOperations = mock(AsyncCassandraOperations.class);
+    AsyncCqlOperations asyncCqlOperations = mock(AsyncCqlOperations.class);
+    PreparedStatement updateLastSeen = mock(PreparedStatement.class);
+
+    SessionActivityRepositoryImpl sessionActivityRepository = new SessionActivityRepositoryImpl(asyncOperations, 86400000);
+
+    @Test
+    void saveLastSeen_RepeatedFlushes_PreparesUpdateOnce() {
+        Instant seenAt = Instant.now();
+
+        when(asyncOperations.getAsyncCqlOperations()).thenReturn(asyncCqlOperations);
+        when(asyncCqlOperations.execute(any(AsyncSessionCallback.class)))
+            .thenReturn(CompletableFuture.completedFuture(updateLastSeen));
+        when(asyncCqlOperations.execute(any(BatchStatement.class))).thenReturn(CompletableFuture.completedFuture(true));
+        when(updateLastSeen.bind(any(Object[].class))).thenReturn(mock(BoundStatement.class));
+
+        sessionActivityRepository.saveLastSeen(userID, Map.of(sessionPostfix, seenAt)).join();
+        sessionActivityRepository.saveLastSeen(userID, Map.of(sessionPostfix, seenAt.plusSeconds(1))).join();
+
+        verify(asyncCqlOperations).execute(any(AsyncSessionCallback.class));
+        verify(updateLastSeen, times(2)).bind(anyInt(), anyLong(), any(), eq(userID), eq(sessionPostfix));
+        verify(asyncCqlOperations, times(2)).execute(any(BatchStatement.class));
+    }
+
+    @Test
+    void saveLastSeen_PrepareFailed_PreparesAgainOnNextFlush() {
+        Instant seenAt = Instant.now();
+
+        when(asyncOperations.getAsyncCqlOperations()).thenReturn(asyncCqlOperations);
+        when(asyncCqlOperations.execute(any(AsyncSessionCallback.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException()))
+            .thenReturn(CompletableFuture.completedFuture(updateLastSeen));
+        when(asyncCqlOperations.execute(any(BatchStatement.class))).thenReturn(CompletableFuture.completedFuture(true));
+        when(updateLastSeen.bind(any(Object[].class))).thenReturn(mock(BoundStatement.class));
+
+        CompletableFuture<Void> failed = sessionActivityRepository.saveLastSeen(userID, Map.of(sessionPostfix, seenAt));
+
+        assertThrows(RuntimeException.class, failed::join);
+
+        sessionActivityRepository.saveLastSeen(userID, Map.of(sessionPostfix, seenAt)).join();
+
+        verify(asyncCqlOperations, times(2)).execute(any(AsyncSessionCallback.class));
+        verify(asyncCqlOperations).execute(any(BatchStatement.class));
+    }
+}
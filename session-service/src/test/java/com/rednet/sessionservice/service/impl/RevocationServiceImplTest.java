@@ -0,0 +1,216 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.rednet.sessionservice.entity.RevokedToken;
+import com.rednet.sessionservice.payload.response.RevocationDeltasResponseBody;
+import com.rednet.sessionservice.payload.response.RevocationFilterResponseBody;
+import com.rednet.sessionservice.repository.RevocationRepository;
+import com.rednet.sessionservice.repository.impl.InMemoryRevocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocationServiceImplTest {
+    String
+        userID = "user",
+        sessionID = "user.123456",
+        tokenID = "654321";
+
+    RevocationRepository revocationRepository = new InMemoryRevocationRepository(60000, 10);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    RevocationServiceImpl revocationService = generateRevocationService(60000, 10000);
+
+    @Test
+    void getFilter() throws InterruptedException {
+        revocationService.revoke(userID, sessionID, tokenID);
+        synchronizeAfterClockTick(revocationService);
+
+        RevocationFilterResponseBody filter = revocationService.getFilter();
+
+        assertTrue(mightContain(filter, sessionID + "#" + tokenID));
+        assertFalse(mightContain(filter, sessionID + "#" + "111111"));
+    }
+
+    @Test
+    void getFilter_RevokedBeforeRestart_ContainsRevocation() throws InterruptedException {
+        revocationService.revoke(userID, sessionID, tokenID);
+        revocationService.destroy();
+
+        RevocationServiceImpl restartedService = generateRevocationService(60000, 10000);
+
+        synchronizeAfterClockTick(restartedService);
+
+        assertTrue(mightContain(restartedService.getFilter(), sessionID + "#" + tokenID));
+    }
+
+    @Test
+    void getDeltasSince() throws InterruptedException {
+        revocationService.revoke(userID, sessionID, "111111");
+        synchronizeAfterClockTick(revocationService);
+
+        RevocationFilterResponseBody filter = revocationService.getFilter();
+
+        revocationService.revoke(userID, sessionID, "222222");
+        revocationService.revoke(userID, sessionID, "333333");
+        synchronizeAfterClockTick(revocationService);
+
+        RevocationDeltasResponseBody deltas = revocationService.getDeltasSince(filter.feedID(), filter.version());
+
+        assertFalse(deltas.snapshotRequired());
+        assertEquals(filter.version(), deltas.fromVersion());
+        assertTrue(deltas.version() > filter.version());
+        assertEquals(List.of(sessionID + "#222222", sessionID + "#333333"), deltas.revoked());
+    }
+
+    @Test
+    void getDeltasSince_RevokedOnOtherInstance() throws InterruptedException {
+        RevocationServiceImpl otherService = generateRevocationService(60000, 10000);
+
+        synchronizeAfterClockTick(revocationService);
+
+        RevocationFilterResponseBody filter = revocationService.getFilter();
+
+        otherService.revoke(userID, sessionID, tokenID);
+        otherService.flush();
+        synchronizeAfterClockTick(revocationService);
+
+        RevocationDeltasResponseBody deltas = revocationService.getDeltasSince(filter.feedID(), filter.version());
+
+        assertEquals(List.of(sessionID + "#" + tokenID), deltas.revoked());
+    }
+
+    @Test
+    void getDeltasSince_MoreThanMaxDeltas() throws InterruptedException {
+        RevocationServiceImpl cappedService = generateRevocationService(60000, 1);
+
+        synchronizeAfterClockTick(cappedService);
+
+        RevocationFilterResponseBody filter = cappedService.getFilter();
+
+        cappedService.revoke(userID, sessionID, "222222");
+        cappedService.revoke(userID, sessionID, "333333");
+        synchronizeAfterClockTick(cappedService);
+
+        RevocationDeltasResponseBody deltas = cappedService.getDeltasSince(filter.feedID(), filter.version());
+
+        assertTrue(deltas.snapshotRequired());
+        assertTrue(deltas.revoked().isEmpty());
+    }
+
+    @Test
+    void getDeltasSince_UnknownFeed() throws InterruptedException {
+        revocationService.revoke(userID, sessionID, tokenID);
+        synchronizeAfterClockTick(revocationService);
+
+        RevocationDeltasResponseBody deltas = revocationService.getDeltasSince("unknown-feed", 0);
+
+        assertTrue(deltas.snapshotRequired());
+        assertTrue(deltas.revoked().isEmpty());
+    }
+
+    @Test
+    void getDeltasSince_ExpiredRevocations() throws InterruptedException {
+        RevocationServiceImpl shortLivedService = generateRevocationService(0, 10000);
+
+        shortLivedService.revoke(userID, sessionID, tokenID);
+        synchronizeAfterClockTick(shortLivedService);
+
+        String feedID = shortLivedService.getFilter().feedID();
+        RevocationDeltasResponseBody deltas = shortLivedService.getDeltasSince(feedID, 0);
+
+        assertFalse(deltas.snapshotRequired());
+        assertTrue(deltas.revoked().isEmpty());
+    }
+
+    @Test
+    void revoke_WriteFailed_ServesRevocationAndWritesOnNextFlush() throws InterruptedException {
+        revocationRepository = mock(RevocationRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        RevocationServiceImpl failingService = generateRevocationService(60000, 10000);
+
+        when(revocationRepository.findRevokedSince(any())).thenReturn(List.of());
+        when(revocationRepository.insertAll(any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertDoesNotThrow(() -> failingService.revoke(userID, sessionID, tokenID));
+
+        failingService.flush();
+        synchronizeAfterClockTick(failingService);
+
+        assertTrue(mightContain(failingService.getFilter(), sessionID + "#" + tokenID));
+        assertEquals(1, meterRegistry.get("sessions.revocation.buffered").gauge().value());
+
+        failingService.flush();
+
+        verify(revocationRepository, times(2)).insertAll(eq(userID), any());
+        assertEquals(0, meterRegistry.get("sessions.revocation.buffered").gauge().value());
+    }
+
+    @Test
+    void revokeAll_WritesUserRevocationsAsOneBatch() {
+        revocationRepository = mock(RevocationRepository.class);
+
+        RevocationServiceImpl batchingService = generateRevocationService(60000, 10000);
+
+        when(revocationRepository.insertAll(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        batchingService.revokeAll(userID, Map.of(sessionID, "111111", "user.654321", "222222"));
+        batchingService.flush();
+
+        verify(revocationRepository).insertAll(eq(userID), argThat(revokedTokens ->
+            revokedTokens.stream().map(RevokedToken::getKey).collect(Collectors.toSet())
+                .equals(Set.of(sessionID + "#111111", "user.654321#222222"))
+        ));
+    }
+
+    private RevocationServiceImpl generateRevocationService(long accessTokenExpirationMs, int maxDeltas) {
+        return new RevocationServiceImpl(
+            revocationRepository, accessTokenExpirationMs, 0, 0, 0.001, 60000, 0, maxDeltas, 100, 60000, 1000, meterRegistry
+        );
+    }
+
+    private void synchronizeAfterClockTick(RevocationServiceImpl service) throws InterruptedException {
+        Thread.sleep(2);
+        service.synchronize();
+    }
+
+    private boolean mightContain(RevocationFilterResponseBody filter, String value) {
+        ByteBuffer bits = ByteBuffer.wrap(Base64.getDecoder().decode(filter.bits()));
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < filter.hashCount(); i++) {
+            int bit = Math.floorMod(h1 + i * h2, filter.bitCount());
+            if ((bits.getLong((bit >>> 6) * Long.BYTES) & (1L << (bit & 63))) == 0) return false;
+        }
+
+        return true;
+    }
+}
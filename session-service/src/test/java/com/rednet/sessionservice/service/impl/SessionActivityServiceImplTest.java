@@ -0,0 +1,119 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.rednet.sessionservice.repository.SessionActivityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SessionActivityServiceImplTest {
+    String
+        userID = "user",
+        sessionPostfix = "123456";
+
+    SessionActivityRepository sessionActivityRepository = mock(SessionActivityRepository.class);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    SessionActivityServiceImpl sessionActivityService = new SessionActivityServiceImpl(
+        sessionActivityRepository, 4, 100, 60000, 1000, meterRegistry
+    );
+
+    @Test
+    void flush_RepeatedTouches_WritesLatestPerSessionOncePerPartition() {
+        Instant firstSeenAt = Instant.now();
+        Instant lastSeenAt = firstSeenAt.plusSeconds(5);
+
+        when(sessionActivityRepository.saveLastSeen(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        sessionActivityService.recordActivity(userID, sessionPostfix, firstSeenAt);
+        sessionActivityService.recordActivity(userID, sessionPostfix, lastSeenAt);
+        sessionActivityService.recordActivity(userID, sessionPostfix, firstSeenAt);
+        sessionActivityService.recordActivity(userID, "654321", firstSeenAt);
+
+        assertEquals(2, meterRegistry.get("sessions.last-seen.buffered").gauge().value());
+
+        sessionActivityService.flush();
+        sessionActivityService.flush();
+
+        verify(sessionActivityRepository).saveLastSeen(userID, Map.of(sessionPostfix, lastSeenAt, "654321", firstSeenAt));
+        assertEquals(0, meterRegistry.get("sessions.last-seen.buffered").gauge().value());
+        assertEquals(1, meterRegistry.get("sessions.last-seen.flush").timer().count());
+    }
+
+    @Test
+    void flush_WriteFailed_KeepsTouchesForNextFlush() {
+        Instant seenAt = Instant.now();
+
+        when(sessionActivityRepository.saveLastSeen(any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        sessionActivityService.recordActivity(userID, sessionPostfix, seenAt);
+        sessionActivityService.flush();
+        sessionActivityService.flush();
+
+        verify(sessionActivityRepository, times(2)).saveLastSeen(userID, Map.of(sessionPostfix, seenAt));
+        assertEquals(0, meterRegistry.get("sessions.last-seen.buffered").gauge().value());
+    }
+
+    @Test
+    void destroy_PendingTouches_FlushesBeforeShutdown() throws InterruptedException {
+        Instant seenAt = Instant.now();
+
+        when(sessionActivityRepository.saveLastSeen(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        sessionActivityService.recordActivity(userID, sessionPostfix, seenAt);
+        sessionActivityService.destroy();
+
+        verify(sessionActivityRepository).saveLastSeen(eq(userID), eq(Map.of(sessionPostfix, seenAt)));
+    }
+
+    @Test
+    void destroy_WriteFailed_RetriesUntilBufferIsEmpty() throws InterruptedException {
+        Instant seenAt = Instant.now();
+
+        when(sessionActivityRepository.saveLastSeen(any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        sessionActivityService.recordActivity(userID, sessionPostfix, seenAt);
+        sessionActivityService.destroy();
+
+        verify(sessionActivityRepository, times(2)).saveLastSeen(userID, Map.of(sessionPostfix, seenAt));
+        assertEquals(0, meterRegistry.get("sessions.last-seen.buffered").gauge().value());
+    }
+
+    @Test
+    void destroy_StorageUnavailable_GivesUpAfterShutdownTimeout() throws InterruptedException {
+        when(sessionActivityRepository.saveLastSeen(any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException()));
+
+        sessionActivityService.recordActivity(userID, sessionPostfix, Instant.now());
+
+        long startedAt = System.nanoTime();
+        sessionActivityService.destroy();
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertTrue(elapsedMs >= 1000 && elapsedMs < 5000);
+        assertEquals(1, meterRegistry.get("sessions.last-seen.buffered").gauge().value());
+    }
+
+    @Test
+    void flush_NothingBuffered_SkipsRepository() {
+        sessionActivityService.flush();
+
+        verifyNoInteractions(sessionActivityRepository);
+    }
+}
@@ -0,0 +1,83 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.rednet.sessionservice.payload.response.HeavyUserResponseBody;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionDistributionServiceImplTest {
+    long windowMs = 86400000 + 10000;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    SessionDistributionServiceImpl sessionDistributionService = new SessionDistributionServiceImpl(
+        4096, 4, 3, 86400000, meterRegistry, now::get
+    );
+
+    @Test
+    void getHeavyUsers() {
+        Instant createdAt = Instant.ofEpochMilli(now.get());
+
+        for (int i = 0; i < 100; i++) sessionDistributionService.recordCreated("light-" + i, createdAt);
+        for (int i = 0; i < 40; i++) sessionDistributionService.recordCreated("heavy", createdAt);
+        for (int i = 0; i < 20; i++) sessionDistributionService.recordCreated("medium", createdAt);
+        for (int i = 0; i < 10; i++) sessionDistributionService.recordDeleted("heavy", createdAt);
+
+        List<HeavyUserResponseBody> heavyUsers = sessionDistributionService.getHeavyUsers(2);
+
+        assertEquals(List.of(
+            new HeavyUserResponseBody("heavy", 30),
+            new HeavyUserResponseBody("medium", 20)
+        ), heavyUsers);
+        assertEquals(30, meterRegistry.get("sessions.per-user.heaviest").gauge().value());
+        assertEquals(160, meterRegistry.get("sessions.per-user").summary().count());
+    }
+
+    @Test
+    void getHeavyUsers_AllSessionsDeleted() {
+        Instant createdAt = Instant.ofEpochMilli(now.get());
+
+        for (int i = 0; i < 5; i++) sessionDistributionService.recordCreated("user", createdAt);
+        for (int i = 0; i < 5; i++) sessionDistributionService.recordDeleted("user", createdAt);
+
+        assertTrue(sessionDistributionService.getHeavyUsers(10).isEmpty());
+    }
+
+    @Test
+    void getHeavyUsers_DeletedWithoutCreation_DoesNotGoNegative() {
+        Instant createdAt = Instant.ofEpochMilli(now.get());
+
+        for (int i = 0; i < 3; i++) sessionDistributionService.recordDeleted("user", createdAt);
+        for (int i = 0; i < 2; i++) sessionDistributionService.recordCreated("user", createdAt);
+
+        assertEquals(List.of(new HeavyUserResponseBody("user", 2)), sessionDistributionService.getHeavyUsers(10));
+    }
+
+    @Test
+    void getHeavyUsers_DeletedAfterRotation_KeepsOtherEstimates() {
+        SessionDistributionServiceImpl narrowService = new SessionDistributionServiceImpl(
+            1, 1, 3, 86400000, meterRegistry, now::get
+        );
+        Instant firstWindowCreatedAt = Instant.ofEpochMilli(now.get());
+
+        for (int i = 0; i < 20; i++) narrowService.recordCreated("leaving", firstWindowCreatedAt);
+
+        now.addAndGet(windowMs);
+
+        Instant secondWindowCreatedAt = Instant.ofEpochMilli(now.get());
+
+        for (int i = 0; i < 20; i++) narrowService.recordDeleted("leaving", firstWindowCreatedAt);
+        for (int i = 0; i < 5; i++) narrowService.recordCreated("staying", secondWindowCreatedAt);
+
+        now.addAndGet(windowMs);
+
+        assertTrue(narrowService.getHeavyUsers(10).contains(new HeavyUserResponseBody("staying", 5)));
+    }
+}
@@ -1,20 +1,34 @@
 package com.rednet.sessionservice.service.impl;
 
+import com.rednet.sessionservice.cache.NegativeSessionCache;
+import com.rednet.sessionservice.cache.SessionCountCache;
+import com.rednet.sessionservice.cache.SessionLivenessCache;
+import com.rednet.sessionservice.cache.impl.NegativeSessionCacheImpl;
+import com.rednet.sessionservice.cache.impl.SessionCountCacheImpl;
+import com.rednet.sessionservice.cache.impl.SessionLivenessCacheImpl;
 import com.rednet.sessionservice.entity.Session;
 import com.rednet.sessionservice.exception.impl.InvalidTokenException;
+import com.rednet.sessionservice.exception.impl.RateLimitExceededException;
 import com.rednet.sessionservice.exception.impl.SessionNotFoundException;
 import com.rednet.sessionservice.exception.impl.SessionRemovingException;
 import com.rednet.sessionservice.exception.impl.UserSessionsNotFound;
 import com.rednet.sessionservice.exception.impl.UserSessionsRemovingException;
 import com.rednet.sessionservice.repository.SessionRepository;
+import com.rednet.sessionservice.service.RateLimitService;
+import com.rednet.sessionservice.service.RevocationService;
+import com.rednet.sessionservice.service.SessionActivityService;
+import com.rednet.sessionservice.service.SessionDistributionService;
+import com.rednet.sessionservice.service.SlidingExpiryService;
 import com.rednet.sessionservice.util.JwtUtil;
 import com.rednet.sessionservice.util.SessionPostfixGenerator;
 import com.rednet.sessionservice.util.TokenIDGenerator;
+import com.rednet.sessionservice.util.impl.SequentialTokenSigner;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
@@ -22,11 +36,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static io.jsonwebtoken.io.Decoders.BASE64;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
@@ -62,12 +78,30 @@ class SessionServiceImplTest {
     JwtUtil jwtUtil = mock(JwtUtil.class);
     SessionPostfixGenerator sessionPostfixGenerator = mock(SessionPostfixGenerator.class);
     TokenIDGenerator tokenIDGenerator = mock(TokenIDGenerator.class);
+    NegativeSessionCache negativeSessionCache = new NegativeSessionCacheImpl(100, 30000);
+    SessionLivenessCache sessionLivenessCache = new SessionLivenessCacheImpl(100, 30000);
+    SessionCountCache sessionCountCache = new SessionCountCacheImpl(100, 30000);
+    RevocationService revocationService = mock(RevocationService.class);
+    RateLimitService rateLimitService = mock(RateLimitService.class);
+    SessionDistributionService sessionDistributionService = mock(SessionDistributionService.class);
+    SlidingExpiryService slidingExpiryService = mock(SlidingExpiryService.class);
+    SessionActivityService sessionActivityService = mock(SessionActivityService.class);
 
     SessionServiceImpl sessionService = new SessionServiceImpl(
         sessionRepository,
         jwtUtil,
         sessionPostfixGenerator,
-        tokenIDGenerator
+        tokenIDGenerator,
+        new SequentialTokenSigner(jwtUtil),
+        negativeSessionCache,
+        sessionLivenessCache,
+        sessionCountCache,
+        revocationService,
+        rateLimitService,
+        sessionDistributionService,
+        slidingExpiryService,
+        sessionActivityService,
+        ObservationRegistry.NOOP
     );
 
     @Test
@@ -120,6 +154,18 @@ class SessionServiceImplTest {
             session.getSessionPostfix().equals(sessionPostfix) &&
             compareStringArraysContent(expectedRoles, session.getRoles())
         ));
+        verify(sessionDistributionService).recordCreated(eq(expectedUserID), any());
+    }
+
+    @Test
+    void createSession_RateLimitExceeded() {
+        doThrow(new RateLimitExceededException(RateLimitService.Operation.CREATE))
+            .when(rateLimitService).checkUser(RateLimitService.Operation.CREATE, expectedUserID);
+
+        assertThrows(RateLimitExceededException.class, () ->
+            sessionService.createSession(expectedUserID, expectedRoles));
+
+        verifyNoInteractions(jwtUtil, tokenIDGenerator, sessionRepository);
     }
 
     @Test
@@ -175,6 +221,8 @@ class SessionServiceImplTest {
 
         verify(sessionPostfixGenerator, atLeastOnce()).getPostfixLength();
         verify(sessionRepository).findByID(eq(expectedUserID), eq(sessionPostfix));
+        verify(slidingExpiryService).touch(argThat((Session session) -> session.getTokenID().equals(expectedTokenID)), any());
+        verify(sessionActivityService).recordActivity(eq(expectedUserID), eq(sessionPostfix), any());
     }
 
     @Test
@@ -189,6 +237,17 @@ class SessionServiceImplTest {
         verify(sessionRepository).findByID(eq(expectedUserID), eq(sessionPostfix));
     }
 
+    @Test
+    void getSession_SessionNotFound_CachedMiss() {
+        when(sessionPostfixGenerator.getPostfixLength()).thenReturn(sessionPostfixLength);
+        when(sessionRepository.findByID(any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(SessionNotFoundException.class, () -> sessionService.getSession(expectedSessionID));
+        assertThrows(SessionNotFoundException.class, () -> sessionService.getSession(expectedSessionID));
+
+        verify(sessionRepository, times(1)).findByID(eq(expectedUserID), eq(sessionPostfix));
+    }
+
     @Test
     void getSessionsByUserID() {
         Session
@@ -241,6 +300,45 @@ class SessionServiceImplTest {
         verify(sessionRepository).findAllByUserID(eq(expectedUserID));
     }
 
+    @Test
+    void countSessionsByUserID() {
+        when(sessionRepository.findExpirationsByUserID(any())).thenReturn(List.of(
+            System.currentTimeMillis() + 60000,
+            System.currentTimeMillis() + 120000,
+            System.currentTimeMillis() - 1000
+        ));
+
+        assertEquals(2, sessionService.countSessionsByUserID(expectedUserID));
+        assertEquals(2, sessionService.countSessionsByUserID(expectedUserID));
+
+        verify(sessionRepository, times(1)).findExpirationsByUserID(eq(expectedUserID));
+    }
+
+    @Test
+    void countSessionsByUserID_SessionWithoutTtl_CountsIt() {
+        when(sessionRepository.findExpirationsByUserID(any())).thenReturn(List.of(Long.MAX_VALUE));
+
+        assertEquals(1, sessionService.countSessionsByUserID(expectedUserID));
+    }
+
+    @Test
+    void countSessionsByUserID_SessionCreated_ReloadsCount() {
+        when(jwtUtil.generateAccessTokenBuilder()).thenReturn(generateTestAccessTokenBuilder());
+        when(jwtUtil.generateRefreshTokenBuilder()).thenReturn(generateTestRefreshTokenBuilder());
+        when(sessionPostfixGenerator.generate()).thenReturn(sessionPostfix);
+        when(tokenIDGenerator.generate()).thenReturn(expectedTokenID);
+        when(sessionRepository.insert(any(Session.class))).then(returnsFirstArg());
+        when(sessionRepository.findExpirationsByUserID(any()))
+            .thenReturn(List.of())
+            .thenReturn(List.of(System.currentTimeMillis() + 60000));
+
+        assertEquals(0, sessionService.countSessionsByUserID(expectedUserID));
+
+        sessionService.createSession(expectedUserID, expectedRoles);
+
+        assertEquals(1, sessionService.countSessionsByUserID(expectedUserID));
+    }
+
     @Test
     void refreshSession() {
         String oldTokenID = "1221";
@@ -316,6 +414,7 @@ class SessionServiceImplTest {
         verify(tokenIDGenerator).generate();
         verify(sessionRepository).deleteByID(eq(expectedUserID), eq(sessionPostfix));
         verify(sessionRepository).findByID(eq(expectedUserID), eq(sessionPostfix));
+        verify(revocationService).revoke(eq(expectedUserID), eq(expectedSessionID), eq(oldTokenID));
     }
 
     @Test
@@ -393,6 +492,105 @@ class SessionServiceImplTest {
         verify(sessionRepository, never()).deleteByID(any(), any());
     }
 
+    @Test
+    void refreshSession_InvalidToken_UsedToken_CachedSupersededToken() {
+        String invalidToken = generateTestRefreshTokenBuilder()
+            .setId("id2")
+            .setSubject(expectedUserID)
+            .claim("roles", expectedRoles)
+            .claim("sid", expectedSessionID)
+            .compact();
+
+        Session expectedSession = new Session(
+            expectedUserID,
+            sessionPostfix,
+            expectedCreatedAt,
+            expectedRoles,
+            "a-token",
+            "r-token",
+            "id1"
+        );
+
+        when(jwtUtil.getRefreshTokenParser()).thenReturn(refreshTokenParser);
+        when(sessionPostfixGenerator.getPostfixLength()).thenReturn(sessionPostfixLength);
+        when(sessionRepository.findByID(any(), any())).thenReturn(Optional.of(expectedSession));
+
+        sessionLivenessCache.markLive(expectedSessionID, "id1");
+
+        assertThrows(InvalidTokenException.class, () -> sessionService.refreshSession(invalidToken));
+        assertThrows(InvalidTokenException.class, () -> sessionService.refreshSession(invalidToken));
+        assertThrows(InvalidTokenException.class, () -> sessionService.deleteSession(invalidToken));
+
+        verify(sessionRepository, times(1)).findByID(eq(expectedUserID), eq(sessionPostfix));
+        verify(sessionRepository, never()).deleteByID(any(), any());
+    }
+
+    @Test
+    void refreshSession_InvalidToken_UsedToken_StoredTokenNotKnownCurrent() {
+        String invalidToken = generateTestRefreshTokenBuilder()
+            .setId("id2")
+            .setSubject(expectedUserID)
+            .claim("roles", expectedRoles)
+            .claim("sid", expectedSessionID)
+            .compact();
+
+        Session staleSession = new Session(
+            expectedUserID,
+            sessionPostfix,
+            expectedCreatedAt,
+            expectedRoles,
+            "a-token",
+            "r-token",
+            "id1"
+        );
+
+        when(jwtUtil.getRefreshTokenParser()).thenReturn(refreshTokenParser);
+        when(sessionPostfixGenerator.getPostfixLength()).thenReturn(sessionPostfixLength);
+        when(sessionRepository.findByID(any(), any())).thenReturn(Optional.of(staleSession));
+
+        assertThrows(InvalidTokenException.class, () -> sessionService.refreshSession(invalidToken));
+        assertThrows(InvalidTokenException.class, () -> sessionService.refreshSession(invalidToken));
+
+        assertFalse(negativeSessionCache.isTokenSuperseded(expectedSessionID, "id2"));
+        verify(sessionRepository, times(2)).findByID(eq(expectedUserID), eq(sessionPostfix));
+    }
+
+    @Test
+    void refreshSession_SessionMarkedMissingDuringRefresh_ForgetsMissingSession() {
+        String refreshToken = generateTestRefreshTokenBuilder()
+            .setId("id1")
+            .setSubject(expectedUserID)
+            .claim("roles", expectedRoles)
+            .claim("sid", expectedSessionID)
+            .compact();
+
+        Session session = new Session(
+            expectedUserID,
+            sessionPostfix,
+            expectedCreatedAt,
+            expectedRoles,
+            "a-token",
+            refreshToken,
+            "id1"
+        );
+
+        when(jwtUtil.getRefreshTokenParser()).thenReturn(refreshTokenParser);
+        when(jwtUtil.generateAccessTokenBuilder()).thenReturn(generateTestAccessTokenBuilder());
+        when(jwtUtil.generateRefreshTokenBuilder()).thenReturn(generateTestRefreshTokenBuilder());
+        when(sessionPostfixGenerator.getPostfixLength()).thenReturn(sessionPostfixLength);
+        when(tokenIDGenerator.generate()).thenReturn(expectedTokenID);
+        when(sessionRepository.findByID(any(), any())).thenReturn(Optional.of(session));
+        when(sessionRepository.insert(any(Session.class))).then(returnsFirstArg());
+        when(sessionRepository.deleteByID(any(), any())).then(invocation -> {
+            negativeSessionCache.markSessionMissing(expectedSessionID);
+            return true;
+        });
+
+        sessionService.refreshSession(refreshToken);
+
+        assertFalse(negativeSessionCache.isSessionMissing(expectedSessionID));
+    }
+
     @Test
     void deleteSession() {
         String token = generateTestRefreshTokenBuilder()
@@ -421,6 +619,8 @@ class SessionServiceImplTest {
         verify(sessionPostfixGenerator, atLeastOnce()).getPostfixLength();
         verify(sessionRepository).findByID(eq(expectedUserID), eq(sessionPostfix));
         verify(sessionRepository).deleteByID(eq(expectedUserID), eq(sessionPostfix));
+        verify(revocationService).revoke(eq(expectedUserID), eq(expectedSessionID), eq(expectedTokenID));
+        verify(sessionDistributionService).recordDeleted(eq(expectedUserID), eq(expectedCreatedAt));
     }
 
     @Test
@@ -546,36 +746,116 @@ class SessionServiceImplTest {
 
     @Test
     void deleteSessionsByUserID() {
-        when(sessionRepository.existsByUserID(any())).thenReturn(true);
+        Session sessionKey = new Session(expectedUserID, sessionPostfix, expectedCreatedAt, null, null, null, expectedTokenID);
+
+        when(sessionRepository.findKeysByUserID(any())).thenReturn(List.of(sessionKey));
         when(sessionRepository.deleteAllByUserID(any())).thenReturn(true);
 
         assertDoesNotThrow(() -> sessionService.deleteSessionsByUserID(expectedUserID));
 
-        verify(sessionRepository).existsByUserID(eq(expectedUserID));
+        verify(sessionRepository).findKeysByUserID(eq(expectedUserID));
         verify(sessionRepository).deleteAllByUserID(eq(expectedUserID));
+        verify(sessionRepository, never()).findAllByUserID(any());
+        verify(revocationService).revokeAll(eq(expectedUserID), eq(Map.of(expectedSessionID, expectedTokenID)));
+        verify(sessionDistributionService).recordDeleted(eq(expectedUserID), eq(expectedCreatedAt));
     }
 
     @Test
     void deleteSessionsByUserID_UserSessionsNotFound() {
-        when(sessionRepository.existsByUserID(any())).thenReturn(false);
+        when(sessionRepository.findKeysByUserID(any())).thenReturn(List.of());
 
         assertThrows(UserSessionsNotFound.class, () -> sessionService.deleteSessionsByUserID(expectedUserID));
 
-        verify(sessionRepository).existsByUserID(eq(expectedUserID));
+        verify(sessionRepository).findKeysByUserID(eq(expectedUserID));
         verify(sessionRepository, never()).deleteAllByUserID(any());
     }
 
     @Test
     void deleteSessionsByUserID_UserSessionsRemovingError() {
-        when(sessionRepository.existsByUserID(any())).thenReturn(true);
+        Session sessionKey = new Session(expectedUserID, sessionPostfix, expectedCreatedAt, null, null, null, expectedTokenID);
+
+        when(sessionRepository.findKeysByUserID(any())).thenReturn(List.of(sessionKey));
         when(sessionRepository.deleteAllByUserID(any())).thenReturn(false);
 
         assertThrows(UserSessionsRemovingException.class, () -> sessionService.deleteSessionsByUserID(expectedUserID));
 
-        verify(sessionRepository).existsByUserID(eq(expectedUserID));
+        verify(sessionRepository).findKeysByUserID(eq(expectedUserID));
         verify(sessionRepository).deleteAllByUserID(eq(expectedUserID));
     }
 
+    @Test
+    void introspectAccessToken() {
+        String accessToken = generateTestAccessTokenBuilder()
+            .setId(expectedTokenID)
+            .setSubject(expectedUserID)
+            .claim("roles", expectedRoles)
+            .claim("sid", expectedSessionID)
+            .compact();
+
+        Session session = new Session(
+            expectedUserID,
+            sessionPostfix,
+            expectedCreatedAt,
+            expectedRoles,
+            accessToken,
+            "r-token",
+            expectedTokenID
+        );
+
+        when(jwtUtil.getAccessTokenParser()).thenReturn(accessTokenParser);
+        when(sessionPostfixGenerator.getPostfixLength()).thenReturn(sessionPostfixLength);
+        when(sessionRepository.findByID(any(), any())).thenReturn(Optional.of(session));
+
+        assertTrue(sessionService.introspectAccessToken(accessToken).isPresent());
+        assertTrue(sessionService.introspectAccessToken(accessToken).isPresent());
+
+        verify(sessionRepository, times(1)).findByID(eq(expectedUserID), eq(sessionPostfix));
+    }
+
+    @Test
+    void introspectAccessToken_RevokedSession() {
+        String refreshToken = generateTestRefreshTokenBuilder()
+            .claim("sid", expectedSessionID)
+            .setId(expectedTokenID)
+            .compact();
+
+        String accessToken = generateTestAccessTokenBuilder()
+            .claim("sid", expectedSessionID)
+            .setId(expectedTokenID)
+            .compact();
+
+        Session session = new Session(
+            expectedUserID,
+            sessionPostfix,
+            expectedCreatedAt,
+            expectedRoles,
+            accessToken,
+            refreshToken,
+            expectedTokenID
+        );
+
+        when(jwtUtil.getAccessTokenParser()).thenReturn(accessTokenParser);
+        when(jwtUtil.getRefreshTokenParser()).thenReturn(refreshTokenParser);
+        when(sessionPostfixGenerator.getPostfixLength()).thenReturn(sessionPostfixLength);
+        when(sessionRepository.findByID(any(), any())).thenReturn(Optional.of(session));
+        when(sessionRepository.deleteByID(any(), any())).thenReturn(true);
+
+        assertTrue(sessionService.introspectAccessToken(accessToken).isPresent());
+
+        sessionService.deleteSession(refreshToken);
+
+        assertTrue(sessionService.introspectAccessToken(accessToken).isEmpty());
+    }
+
+    @Test
+    void introspectAccessToken_InvalidToken() {
+        when(jwtUtil.getAccessTokenParser()).thenReturn(accessTokenParser);
+
+        assertTrue(sessionService.introspectAccessToken("head.payload.signature").isEmpty());
+
+        verify(sessionRepository, never()).findByID(any(), any());
+    }
+
     private static boolean compare(Session session1, Session session2) {
         if (
             session1.getUserID().equals(session2.getUserID()) &&
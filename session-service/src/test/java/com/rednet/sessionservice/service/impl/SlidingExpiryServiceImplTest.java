@@ -0,0 +1,185 @@
+package com.rednet.sessionservice.service.impl;
+
+import com.rednet.sessionservice.cache.SessionCountCache;
+import com.rednet.sessionservice.entity.Session;
+import com.rednet.sessionservice.repository.SessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SlidingExpiryServiceImplTest {
+    String
+        userID = "user",
+        sessionPostfix = "123456";
+
+    SessionRepository sessionRepository = mock(SessionRepository.class);
+    SessionCountCache sessionCountCache = mock(SessionCountCache.class);
+
+    SlidingExpiryServiceImpl slidingExpiryService = new SlidingExpiryServiceImpl(
+        sessionRepository, sessionCountCache, 1800000, 60000, 1000, 86400000, Runnable::run, new SimpleMeterRegistry()
+    );
+
+    @Test
+    void touch_RepeatedWithinWindow_ExtendsOnce() {
+        Session session = generateSession(Instant.now());
+        Instant observedAt = Instant.now();
+
+        slidingExpiryService.touch(session, observedAt);
+        slidingExpiryService.touch(session, observedAt);
+
+        verify(sessionRepository, times(1)).extendExpiration(eq(session), eq(1810000L), eq(observedAt));
+        verify(sessionCountCache).invalidate(userID);
+    }
+
+    @Test
+    void touch_NearRefreshTokenExpiry_CapsTtlAtRefreshTokenLifetime() {
+        Instant observedAt = Instant.now();
+        Session session = generateSession(observedAt.minusMillis(86400000 - 60000));
+
+        slidingExpiryService.touch(session, observedAt);
+
+        verify(sessionRepository).extendExpiration(eq(session), longThat(ttlMs -> ttlMs == 70000), eq(observedAt));
+    }
+
+    @Test
+    void touch_BySessionKey_ExtendsLoadedSession() {
+        Session session = generateSession(Instant.now());
+
+        when(sessionRepository.findByID(userID, sessionPostfix)).thenReturn(Optional.of(session));
+
+        slidingExpiryService.touch(userID, sessionPostfix);
+        slidingExpiryService.touch(userID, sessionPostfix);
+
+        verify(sessionRepository, times(1)).findByID(userID, sessionPostfix);
+        verify(sessionRepository, times(1)).extendExpiration(eq(session), anyLong(), any());
+    }
+
+    @Test
+    void touch_BySessionKey_RunsOnTouchExecutor() {
+        List<Runnable> pendingTouches = new ArrayList<>();
+        SlidingExpiryServiceImpl deferringService = new SlidingExpiryServiceImpl(
+            sessionRepository, sessionCountCache, 1800000, 60000, 1000, 86400000, pendingTouches::add,
+            new SimpleMeterRegistry()
+        );
+        Session session = generateSession(Instant.now());
+
+        when(sessionRepository.findByID(userID, sessionPostfix)).thenReturn(Optional.of(session));
+
+        deferringService.touch(userID, sessionPostfix);
+
+        verifyNoInteractions(sessionRepository);
+
+        pendingTouches.forEach(Runnable::run);
+
+        verify(sessionRepository).extendExpiration(eq(session), anyLong(), any());
+    }
+
+    @Test
+    void touch_LoadedSession_RunsOnTouchExecutor() {
+        List<Runnable> pendingTouches = new ArrayList<>();
+        SlidingExpiryServiceImpl deferringService = new SlidingExpiryServiceImpl(
+            sessionRepository, sessionCountCache, 1800000, 60000, 1000, 86400000, pendingTouches::add,
+            new SimpleMeterRegistry()
+        );
+        Session session = generateSession(Instant.now());
+        Instant observedAt = Instant.now();
+
+        deferringService.touch(session, observedAt);
+
+        verifyNoInteractions(sessionRepository, sessionCountCache);
+
+        pendingTouches.forEach(Runnable::run);
+
+        verify(sessionRepository).extendExpiration(eq(session), anyLong(), eq(observedAt));
+        verify(sessionCountCache).invalidate(userID);
+    }
+
+    @Test
+    void touch_LoadedSessionQueueFull_RetriedOnNextTouch() {
+        AtomicInteger submittedTouches = new AtomicInteger();
+        SlidingExpiryServiceImpl rejectingService = new SlidingExpiryServiceImpl(
+            sessionRepository, sessionCountCache, 1800000, 60000, 1000, 86400000,
+            runnable -> {
+                if (submittedTouches.getAndIncrement() == 0) throw new RejectedExecutionException();
+                runnable.run();
+            },
+            new SimpleMeterRegistry()
+        );
+        Session session = generateSession(Instant.now());
+
+        rejectingService.touch(session, Instant.now());
+        rejectingService.touch(session, Instant.now());
+
+        verify(sessionRepository, times(1)).extendExpiration(eq(session), anyLong(), any());
+    }
+
+    @Test
+    void touch_BySessionKeyQueueFull_RetriedOnNextTouch() {
+        AtomicInteger submittedTouches = new AtomicInteger();
+        SlidingExpiryServiceImpl rejectingService = new SlidingExpiryServiceImpl(
+            sessionRepository, sessionCountCache, 1800000, 60000, 1000, 86400000,
+            runnable -> {
+                if (submittedTouches.getAndIncrement() == 0) throw new RejectedExecutionException();
+                runnable.run();
+            },
+            new SimpleMeterRegistry()
+        );
+        Session session = generateSession(Instant.now());
+
+        when(sessionRepository.findByID(userID, sessionPostfix)).thenReturn(Optional.of(session));
+
+        rejectingService.touch(userID, sessionPostfix);
+        rejectingService.touch(userID, sessionPostfix);
+
+        verify(sessionRepository, times(1)).findByID(userID, sessionPostfix);
+        verify(sessionRepository, times(1)).extendExpiration(eq(session), anyLong(), any());
+    }
+
+    @Test
+    void touch_FailedExtension_RetriedOnNextTouch() {
+        Session session = generateSession(Instant.now());
+
+        doThrow(new IllegalStateException())
+            .doNothing()
+            .when(sessionRepository).extendExpiration(any(), anyLong(), any());
+
+        slidingExpiryService.touch(session, Instant.now());
+        slidingExpiryService.touch(session, Instant.now());
+
+        verify(sessionRepository, times(2)).extendExpiration(eq(session), anyLong(), any());
+        verify(sessionCountCache, times(1)).invalidate(userID);
+    }
+
+    @Test
+    void touch_IdleTimeoutNotSet_DoesNothing() {
+        SlidingExpiryServiceImpl disabledService = new SlidingExpiryServiceImpl(
+            sessionRepository, sessionCountCache, 0, 60000, 1000, 86400000, Runnable::run, new SimpleMeterRegistry()
+        );
+
+        disabledService.touch(generateSession(Instant.now()), Instant.now());
+        disabledService.touch(userID, sessionPostfix);
+
+        verifyNoInteractions(sessionRepository, sessionCountCache);
+    }
+
+    private Session generateSession(Instant createdAt) {
+        return new Session(userID, sessionPostfix, createdAt, new String[]{"role"}, "access", "refresh", "111111");
+    }
+}
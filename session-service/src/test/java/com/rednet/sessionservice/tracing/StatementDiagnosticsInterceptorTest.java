@@ -0,0 +1,70 @@
+package com.rednet.sessionservice.tracing;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatementDiagnosticsInterceptorTest {
+    SimpleStatement statement = SimpleStatement.newInstance("SELECT * FROM sessions WHERE user_id=?", "user");
+
+    @Test
+    void execute_SampledStatement_EnablesTracing() {
+        assertTrue(executeThroughInterceptor(1.0).isTracing());
+    }
+
+    @Test
+    void execute_TracingDisabled_LeavesStatementUntouched() {
+        assertFalse(executeThroughInterceptor(0.0).isTracing());
+    }
+
+    @Test
+    void describe_KnownStatementKinds_ReturnsKindAndTable() {
+        assertEquals("SELECT sessions", StatementDiagnosticsInterceptor.describe(statement));
+        assertEquals("INSERT sessions", StatementDiagnosticsInterceptor.describe(
+            SimpleStatement.newInstance("INSERT INTO sessions (user_id) VALUES (?) USING TTL 10")));
+        assertEquals("DELETE sessions", StatementDiagnosticsInterceptor.describe(
+            SimpleStatement.newInstance("DELETE FROM sessions WHERE user_id=?")));
+    }
+
+    @Test
+    void hashPartitionKey_SameRoutingKey_ReturnsStableHashWithoutKey() {
+        String hash = StatementDiagnosticsInterceptor.hashPartitionKey(statement.setRoutingKey(routingKey("user")));
+
+        assertEquals(hash, StatementDiagnosticsInterceptor.hashPartitionKey(statement.setRoutingKey(routingKey("user"))));
+        assertNotEquals(hash, StatementDiagnosticsInterceptor.hashPartitionKey(statement.setRoutingKey(routingKey("other"))));
+        assertFalse(hash.contains("user"));
+        assertEquals("unknown", StatementDiagnosticsInterceptor.hashPartitionKey(statement));
+    }
+
+    private Statement<?> executeThroughInterceptor(double tracingProbability) {
+        CqlSession session = mock(CqlSession.class);
+        ArgumentCaptor<Statement<?>> executedStatement = ArgumentCaptor.forClass(Statement.class);
+
+        when(session.execute(any(Statement.class))).thenReturn(mock(ResultSet.class));
+
+        StatementDiagnosticsInterceptor.wrap(session, -1, tracingProbability).execute(statement);
+
+        verify(session).execute(executedStatement.capture());
+
+        return executedStatement.getValue();
+    }
+
+    private ByteBuffer routingKey(String userID) {
+        return ByteBuffer.wrap(userID.getBytes(StandardCharsets.UTF_8));
+    }
+}
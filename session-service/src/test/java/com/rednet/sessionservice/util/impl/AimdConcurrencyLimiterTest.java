@@ -0,0 +1,79 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.rednet.sessionservice.util.ConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdConcurrencyLimiterTest {
+    long fastNs = TimeUnit.MILLISECONDS.toNanos(1);
+    long slowNs = TimeUnit.MILLISECONDS.toNanos(500);
+
+    AimdConcurrencyLimiter concurrencyLimiter = new AimdConcurrencyLimiter(4, 2, 8, 100, 0.5, 0.5);
+
+    @Test
+    void tryAcquire() {
+        assertTrue(concurrencyLimiter.tryAcquire(Priority.LOW));
+        assertTrue(concurrencyLimiter.tryAcquire(Priority.LOW));
+        assertFalse(concurrencyLimiter.tryAcquire(Priority.LOW));
+        assertTrue(concurrencyLimiter.tryAcquire(Priority.HIGH));
+        assertTrue(concurrencyLimiter.tryAcquire(Priority.HIGH));
+        assertFalse(concurrencyLimiter.tryAcquire(Priority.HIGH));
+        assertEquals(4, concurrencyLimiter.getInflight());
+    }
+
+    @Test
+    void release_IncreasesLimitWhenBusyAndFast() {
+        concurrencyLimiter.tryAcquire(Priority.HIGH);
+        concurrencyLimiter.tryAcquire(Priority.HIGH);
+        concurrencyLimiter.release(fastNs, false);
+
+        assertEquals(5, concurrencyLimiter.getLimit());
+        assertEquals(1, concurrencyLimiter.getInflight());
+
+        concurrencyLimiter.release(fastNs, false);
+
+        assertEquals(5, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    void release_DecreasesLimitWhenSlowOrFailed() {
+        concurrencyLimiter.tryAcquire(Priority.HIGH);
+        concurrencyLimiter.release(slowNs, false);
+
+        assertEquals(2, concurrencyLimiter.getLimit());
+
+        concurrencyLimiter.tryAcquire(Priority.HIGH);
+        concurrencyLimiter.release(fastNs, true);
+
+        assertEquals(2, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    void release_SlowResponsesStartedBeforeBackoff_BacksOffOnce() {
+        AimdConcurrencyLimiter concurrencyLimiter = new AimdConcurrencyLimiter(64, 2, 128, 100, 0.5, 0.5);
+
+        for (int i = 0; i < 4; i++) concurrencyLimiter.tryAcquire(Priority.HIGH);
+        for (int i = 0; i < 4; i++) concurrencyLimiter.release(slowNs, false);
+
+        assertEquals(32, concurrencyLimiter.getLimit());
+        assertEquals(0, concurrencyLimiter.getInflight());
+    }
+
+    @Test
+    void release_FailureAfterBackoff_BacksOffAgain() throws InterruptedException {
+        AimdConcurrencyLimiter concurrencyLimiter = new AimdConcurrencyLimiter(64, 2, 128, 100, 0.5, 0.5);
+
+        concurrencyLimiter.tryAcquire(Priority.HIGH);
+        concurrencyLimiter.release(slowNs, false);
+        Thread.sleep(5);
+        concurrencyLimiter.tryAcquire(Priority.HIGH);
+        concurrencyLimiter.release(fastNs, true);
+
+        assertEquals(16, concurrencyLimiter.getLimit());
+    }
+}
@@ -0,0 +1,136 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.rednet.sessionservice.config.AccessTokenSigningProperties;
+import com.rednet.sessionservice.config.AccessTokenSigningProperties.SigningKey;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static io.jsonwebtoken.SignatureAlgorithm.ES256;
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilImplTest {
+    String
+        accessTokenIssuer = "access-issuer",
+        secretKey = "suF25ZudSgyzQSS9QgpaSyUt5XZZGtTayc22RlLe5IX1erTOz64mN5BarqeiPV2s";
+
+    KeyPair retiredKeyPair = generateKeyPair();
+    KeyPair activeKeyPair = generateKeyPair();
+
+    @Test
+    void generateAccessTokenBuilder_HS256() {
+        JwtUtilImpl jwtUtil = createJwtUtil(new AccessTokenSigningProperties(HS256, null, List.of()));
+
+        String token = jwtUtil.generateAccessTokenBuilder().setSubject("user").compact();
+        Jws<Claims> jws = jwtUtil.getAccessTokenParser().parseClaimsJws(token);
+
+        assertEquals("user", jws.getBody().getSubject());
+        assertEquals(List.of(), jwtUtil.getAccessTokenJwks().get("keys"));
+    }
+
+    @Test
+    void generateAccessTokenBuilder_ES256() {
+        JwtUtilImpl jwtUtil = createJwtUtil(generateES256Properties());
+
+        String token = jwtUtil.generateAccessTokenBuilder().setSubject("user").compact();
+        Jws<Claims> jws = jwtUtil.getAccessTokenParser().parseClaimsJws(token);
+
+        assertEquals("user", jws.getBody().getSubject());
+        assertEquals("active", jws.getHeader().getKeyId());
+        assertEquals(ES256.getValue(), jws.getHeader().getAlgorithm());
+    }
+
+    @Test
+    void getAccessTokenParser_ES256_RetiredKey() {
+        JwtUtilImpl jwtUtil = createJwtUtil(generateES256Properties());
+
+        String token = Jwts.builder()
+            .setHeaderParam(JwsHeader.KEY_ID, "retired")
+            .setIssuer(accessTokenIssuer)
+            .setSubject("user")
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .signWith(retiredKeyPair.getPrivate(), ES256)
+            .compact();
+
+        assertEquals("user", jwtUtil.getAccessTokenParser().parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Test
+    void getAccessTokenParser_ES256_UnknownKey() {
+        JwtUtilImpl jwtUtil = createJwtUtil(generateES256Properties());
+
+        String token = Jwts.builder()
+            .setHeaderParam(JwsHeader.KEY_ID, "unknown")
+            .setIssuer(accessTokenIssuer)
+            .signWith(generateKeyPair().getPrivate(), ES256)
+            .compact();
+
+        assertThrows(SignatureException.class, () -> jwtUtil.getAccessTokenParser().parseClaimsJws(token));
+    }
+
+    @Test
+    void getAccessTokenJwks_ES256() {
+        JwtUtilImpl jwtUtil = createJwtUtil(generateES256Properties());
+
+        List<?> keys = (List<?>) jwtUtil.getAccessTokenJwks().get("keys");
+
+        assertEquals(2, keys.size());
+
+        keys.forEach(key -> {
+            Map<?, ?> jwk = (Map<?, ?>) key;
+
+            assertEquals("EC", jwk.get("kty"));
+            assertEquals("P-256", jwk.get("crv"));
+            assertEquals("ES256", jwk.get("alg"));
+            assertEquals(32, Base64.getUrlDecoder().decode((String) jwk.get("x")).length);
+            assertEquals(32, Base64.getUrlDecoder().decode((String) jwk.get("y")).length);
+            assertTrue(List.of("retired", "active").contains(jwk.get("kid")));
+        });
+    }
+
+    private AccessTokenSigningProperties generateES256Properties() {
+        Base64.Encoder encoder = Base64.getEncoder();
+
+        return new AccessTokenSigningProperties(ES256, "active", List.of(
+            new SigningKey("retired", null, encoder.encodeToString(retiredKeyPair.getPublic().getEncoded())),
+            new SigningKey(
+                "active",
+                encoder.encodeToString(activeKeyPair.getPrivate().getEncoded()),
+                encoder.encodeToString(activeKeyPair.getPublic().getEncoded())
+            )
+        ));
+    }
+
+    private JwtUtilImpl createJwtUtil(AccessTokenSigningProperties properties) {
+        return new JwtUtilImpl(
+            accessTokenIssuer, secretKey, 60000, 0,
+            "refresh-issuer", secretKey, 60000, 0,
+            secretKey, "api-issuer", 0,
+            properties
+        );
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.rednet.sessionservice.util.impl;
+
+import com.rednet.sessionservice.util.JwtUtil;
+import com.rednet.sessionservice.util.TokenPair;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static io.jsonwebtoken.io.Decoders.BASE64;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelTokenSignerTest {
+    String
+        accessTokenSecretKey = "suF25ZudSgyzQSS9QgpaSyUt5XZZGtTayc22RlLe5IX1erTOz64mN5BarqeiPV2s",
+        refreshTokenSecretKey = "a1yTJjPn3+N8p7y3bANWFg+mOpQH6WWrSfKq2NM4f9YFNsKK8U4VRx6Godo3OeEf";
+
+    JwtParser accessTokenParser = Jwts.parserBuilder()
+        .setSigningKey(Keys.hmacShaKeyFor(BASE64.decode(accessTokenSecretKey)))
+        .build();
+
+    JwtParser refreshTokenParser = Jwts.parserBuilder()
+        .setSigningKey(Keys.hmacShaKeyFor(BASE64.decode(refreshTokenSecretKey)))
+        .build();
+
+    JwtUtil jwtUtil = mock(JwtUtil.class);
+    ParallelTokenSigner tokenSigner = new ParallelTokenSigner(jwtUtil, 1);
+
+    @AfterEach
+    void shutdown() {
+        tokenSigner.destroy();
+    }
+
+    @Test
+    void sign() {
+        when(jwtUtil.generateAccessTokenBuilder()).thenAnswer(invocation -> Jwts.builder()
+            .signWith(Keys.hmacShaKeyFor(BASE64.decode(accessTokenSecretKey))));
+        when(jwtUtil.generateRefreshTokenBuilder()).thenAnswer(invocation -> Jwts.builder()
+            .signWith(Keys.hmacShaKeyFor(BASE64.decode(refreshTokenSecretKey))));
+
+        List<TokenPair> tokenPairs = IntStream.range(0, 64)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() ->
+                tokenSigner.sign("id" + i, "user", "user.123456", new String[]{"role"})))
+            .toList()
+            .stream()
+            .map(CompletableFuture::join)
+            .toList();
+
+        for (int i = 0; i < tokenPairs.size(); i++) {
+            Claims accessClaims = accessTokenParser.parseClaimsJws(tokenPairs.get(i).accessToken()).getBody();
+            Claims refreshClaims = refreshTokenParser.parseClaimsJws(tokenPairs.get(i).refreshToken()).getBody();
+
+            assertEquals("id" + i, accessClaims.getId());
+            assertEquals("id" + i, refreshClaims.getId());
+            assertEquals("user.123456", refreshClaims.get("sid"));
+        }
+    }
+
+    @Test
+    void sign_SigningError() {
+        when(jwtUtil.generateAccessTokenBuilder()).thenAnswer(invocation -> Jwts.builder()
+            .signWith(Keys.hmacShaKeyFor(BASE64.decode(accessTokenSecretKey))));
+        when(jwtUtil.generateRefreshTokenBuilder()).thenThrow(new IllegalStateException("signing failed"));
+
+        assertThrows(IllegalStateException.class, () ->
+            tokenSigner.sign("id", "user", "user.123456", new String[]{"role"}));
+    }
+}
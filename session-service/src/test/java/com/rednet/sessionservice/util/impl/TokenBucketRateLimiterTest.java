@@ -0,0 +1,45 @@
+package com.rednet.sessionservice.util.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+    @Test
+    void tryAcquire() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(3, 0.001, 100);
+
+        assertTrue(rateLimiter.tryAcquire("user"));
+        assertTrue(rateLimiter.tryAcquire("user"));
+        assertTrue(rateLimiter.tryAcquire("user"));
+        assertFalse(rateLimiter.tryAcquire("user"));
+        assertTrue(rateLimiter.tryAcquire("other"));
+    }
+
+    @Test
+    void tryAcquire_Refill() throws InterruptedException {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 20, 100);
+
+        assertTrue(rateLimiter.tryAcquire("user"));
+        assertFalse(rateLimiter.tryAcquire("user"));
+
+        Thread.sleep(100);
+
+        assertTrue(rateLimiter.tryAcquire("user"));
+    }
+
+    @Test
+    void tryAcquire_MoreKeysThanTracked_KeepsExhaustedKeyLimited() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 0.001, 10);
+
+        assertTrue(rateLimiter.tryAcquire("user"));
+        assertFalse(rateLimiter.tryAcquire("user"));
+
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j < 3; j++) rateLimiter.tryAcquire("flood-" + i);
+        }
+
+        assertFalse(rateLimiter.tryAcquire("user"));
+    }
+}